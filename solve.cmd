@@ -1,2 +1,2 @@
 @echo off
-%JAVA_HOME%\bin\java -cp target\classes name.ulbricht.sudoku.Solver %1
\ No newline at end of file
+%JAVA_HOME%\bin\java -cp target\classes name.ulbricht.sudoku.Solver %*
\ No newline at end of file
@@ -0,0 +1,80 @@
+package name.ulbricht.sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares solving a batch of puzzles with the batch solver and one after
+ * another. Additional cells of the solutions are filled into generated puzzles
+ * to get easy puzzles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class BatchSolverBenchmark {
+
+	private static final int PUZZLES = 1024;
+
+	@Param({ "0", "10", "25" })
+	public int additionalCells;
+
+	private List<Grid> puzzles;
+	private SolverOptions options;
+	private BatchSolver batchSolver;
+
+	@Setup
+	public void setup() {
+		this.options = SolverOptions.defaults().withParallelism(1).withMaxSolutions(1);
+		this.batchSolver = BatchSolver.of(this.options);
+
+		final var random = new Random(1);
+		this.puzzles = new ArrayList<>(PUZZLES);
+		for (final var puzzle : Generator.of(GeneratorOptions.defaults().withSeed(1)).generate(PUZZLES)) {
+			final var solver = Solver.of(puzzle, this.options);
+			solver.solve();
+			final var solution = solver.solutions().get(0);
+			for (var i = 0; i < this.additionalCells; i++) {
+				final var index = random.nextInt(81);
+				if (puzzle.value(index) == 0)
+					puzzle.place(index, solution.value(index));
+			}
+			this.puzzles.add(puzzle);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PUZZLES)
+	public List<Grid> batch() {
+		return this.batchSolver.solve(this.puzzles);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PUZZLES)
+	public List<Grid> sequential() {
+		final var solutions = new ArrayList<Grid>(PUZZLES);
+		for (final var puzzle : this.puzzles) {
+			final var solver = Solver.of(puzzle, this.options);
+			solver.solve();
+			solutions.add(solver.solutions().get(0));
+		}
+		return solutions;
+	}
+}
@@ -0,0 +1,70 @@
+package name.ulbricht.sudoku;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the basic operations of a grid.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class GridBenchmark {
+
+	private Grid grid;
+	private final short[] masks = new short[81];
+
+	@Setup
+	public void setup() throws IOException {
+		this.grid = GridFile.parse(Path.of("files", "single 1.sudoku"));
+	}
+
+	@Benchmark
+	public void candidates(final Blackhole blackhole) {
+		for (var row = 1; row <= 9; row++) {
+			for (var column = 1; column <= 9; column++)
+				blackhole.consume(this.grid.candidates(column, row));
+		}
+	}
+
+	@Benchmark
+	public void candidateMask(final Blackhole blackhole) {
+		for (var row = 1; row <= 9; row++) {
+			for (var column = 1; column <= 9; column++)
+				blackhole.consume(this.grid.candidateMask(column, row));
+		}
+	}
+
+	@Benchmark
+	public short[] candidateMasks() {
+		return this.grid.candidateMasks(this.masks);
+	}
+
+	@Benchmark
+	public int setClear() {
+		this.grid.set(2, 1, 9);
+		this.grid.clear(2, 1);
+		return this.grid.get(2, 1);
+	}
+
+	@Benchmark
+	public Grid copyOf() {
+		return Grid.copyOf(this.grid);
+	}
+}
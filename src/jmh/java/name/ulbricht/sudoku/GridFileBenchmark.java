@@ -0,0 +1,96 @@
+package name.ulbricht.sudoku;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing and writing of grids in the block and the line format. The
+ * batch benchmarks write many grids to a stream that discards the bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class GridFileBenchmark {
+
+	private static final int BATCH_SIZE = 1024;
+
+	private String pattern;
+	private String line;
+	private Grid grid;
+	private List<Grid> grids;
+
+	@Setup
+	public void setup() throws IOException {
+		this.pattern = Files.readString(Path.of("files", "single 1.sudoku"));
+		this.grid = GridFile.parse(this.pattern);
+
+		final var writer = new StringWriter();
+		CompactGridFile.write(writer, this.grid);
+		this.line = writer.toString().strip();
+		this.grids = Generator.of(GeneratorOptions.defaults().withSeed(1)).generate(BATCH_SIZE);
+	}
+
+	@Benchmark
+	public Grid parse() throws IOException {
+		return GridFile.parse(this.pattern);
+	}
+
+	@Benchmark
+	public Grid parseLine() throws IOException {
+		return CompactGridFile.parseLine(this.line, true);
+	}
+
+	@Benchmark
+	public String write() throws IOException {
+		final var writer = new StringWriter(128);
+		GridFile.write(writer, this.grid);
+		return writer.toString();
+	}
+
+	@Benchmark
+	public String writeLine() throws IOException {
+		final var writer = new StringWriter(128);
+		CompactGridFile.write(writer, this.grid);
+		return writer.toString();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void writeLineBatch() throws IOException {
+		try (final var writer = new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream()))) {
+			for (final var grid : this.grids)
+				CompactGridFile.write(writer, grid);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void writeLineBatchBuffered() throws IOException {
+		try (final var writer = GridWriter.of(OutputStream.nullOutputStream(), GridFormat.LINE)) {
+			for (final var grid : this.grids)
+				writer.write(grid);
+		}
+	}
+}
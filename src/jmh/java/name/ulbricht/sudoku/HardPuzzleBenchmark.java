@@ -0,0 +1,63 @@
+package name.ulbricht.sudoku;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures solving the bundled puzzles that are known to be hard for
+ * backtracking solvers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class HardPuzzleBenchmark {
+
+	/**
+	 * The one-based number of the puzzle in {@code hard.txt}.
+	 */
+	@Param({ "1", "2", "3", "4", "5", "6", "7", "8" })
+	public int puzzle;
+
+	@Param({ "BRUTE_FORCE", "DLX" })
+	public Engine engine;
+
+	@Param({ "1", "4" })
+	public int threads;
+
+	private Grid grid;
+	private SolverOptions options;
+
+	@Setup
+	public void setup() throws IOException {
+		try (final var in = new InputStreamReader(HardPuzzleBenchmark.class.getResourceAsStream("hard.txt"),
+				StandardCharsets.US_ASCII); final var grids = CompactGridFile.parse(in, true)) {
+			this.grid = grids.skip(this.puzzle - 1).findFirst()
+					.orElseThrow(() -> new IllegalArgumentException("Invalid puzzle: " + this.puzzle));
+		}
+		this.options = SolverOptions.defaults().withEngine(this.engine).withParallelism(this.threads);
+	}
+
+	@Benchmark
+	public Solver solve() {
+		final var solver = Solver.of(this.grid, this.options);
+		solver.solve();
+		return solver;
+	}
+}
@@ -0,0 +1,63 @@
+package name.ulbricht.sudoku;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rating generated puzzles with a single rater and finding the first
+ * hint of each puzzle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class RaterBenchmark {
+
+	private static final int PUZZLES = 100;
+
+	private List<Grid> puzzles;
+	private Rater rater;
+	private HintFinder hintFinder;
+
+	@Setup
+	public void setup() {
+		this.puzzles = Generator.of(GeneratorOptions.defaults().withSeed(1)).generate(PUZZLES);
+		this.rater = new Rater();
+		this.hintFinder = new HintFinder();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PUZZLES)
+	public int rate() {
+		var score = 0;
+		for (final var puzzle : this.puzzles)
+			score += this.rater.rate(puzzle).score();
+		return score;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PUZZLES)
+	public int hint() {
+		var values = 0;
+		for (final var puzzle : this.puzzles) {
+			final var hint = this.hintFinder.find(puzzle);
+			if (hint != null)
+				values += hint.value();
+		}
+		return values;
+	}
+}
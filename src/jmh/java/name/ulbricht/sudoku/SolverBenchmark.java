@@ -0,0 +1,54 @@
+package name.ulbricht.sudoku;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures solving the puzzles of the {@code files} directory end to end.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class SolverBenchmark {
+
+	@Param({ "single 1", "single 2", "single 3", "single 4", "multiple 1" })
+	public String puzzle;
+
+	@Param({ "BRUTE_FORCE", "DLX" })
+	public Engine engine;
+
+	@Param({ "1", "4" })
+	public int threads;
+
+	private Grid grid;
+	private SolverOptions options;
+
+	@Setup
+	public void setup() throws IOException {
+		this.grid = GridFile.parse(Path.of("files", this.puzzle + ".sudoku"));
+		this.options = SolverOptions.defaults().withEngine(this.engine).withParallelism(this.threads);
+	}
+
+	@Benchmark
+	public Solver solve() {
+		final var solver = Solver.of(this.grid, this.options);
+		solver.solve();
+		return solver;
+	}
+}
@@ -0,0 +1,324 @@
+package name.ulbricht.sudoku;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Solves many independent grids together. The classic grids are processed in
+ * blocks of {@link #LANES} grids, stored as structure of arrays: the values of
+ * a cell and the used values of a unit are stored next to each other for all
+ * grids of a block. The naked and hidden singles of all grids are filled by
+ * loops over these lanes without branches, so the JIT compiler can use SIMD
+ * instructions for them.
+ * <p>
+ * Easy grids are solved by the singles alone. Grids that need guesses and grids
+ * of other sizes are solved one after another by the solver engine of the
+ * options. For each grid only the first solution is found.
+ * <p>
+ * All working arrays are allocated once per batch solver. An instance must not
+ * be shared between threads.
+ */
+public final class BatchSolver {
+
+	/**
+	 * The number of grids processed together.
+	 */
+	public static final int LANES = 16;
+
+	private static final int CELLS = 81;
+	private static final int SIZE = 9;
+	private static final int ALL_VALUES = 0x1FF;
+
+	/**
+	 * The offsets of the row, column and box masks of each cell within the mask
+	 * arrays.
+	 */
+	private static final int[] ROW_OFFSETS = new int[CELLS];
+	private static final int[] COLUMN_OFFSETS = new int[CELLS];
+	private static final int[] BOX_OFFSETS = new int[CELLS];
+
+	static {
+		for (var index = 0; index < CELLS; index++) {
+			ROW_OFFSETS[index] = Grid.rowUnit(index) * LANES;
+			COLUMN_OFFSETS[index] = (Grid.columnUnit(index) - SIZE) * LANES;
+			BOX_OFFSETS[index] = (Grid.boxUnit(index) - (2 * SIZE)) * LANES;
+		}
+	}
+
+	/**
+	 * Creates a new batch solver.
+	 *
+	 * @param options the options of the solver for the grids that cannot be solved
+	 *                by singles
+	 * @return a new batch solver
+	 */
+	public static BatchSolver of(final SolverOptions options) {
+		return new BatchSolver(Objects.requireNonNull(options, "options must not be null"));
+	}
+
+	private final SolverOptions options;
+
+	/**
+	 * The values of the cells, {@code LANES} values for each cell.
+	 */
+	private final byte[] values = new byte[CELLS * LANES];
+
+	/**
+	 * The masks of the used values of the rows, columns and boxes,
+	 * {@code LANES} masks for each unit.
+	 */
+	private final int[] rows = new int[SIZE * LANES];
+	private final int[] columns = new int[SIZE * LANES];
+	private final int[] boxes = new int[SIZE * LANES];
+
+	/**
+	 * The candidates of the cells at the start of the hidden singles step,
+	 * {@code LANES} masks for each cell.
+	 */
+	private final int[] candidates = new int[CELLS * LANES];
+
+	/**
+	 * The values that are candidates of at least one or at least two cells of the
+	 * current unit.
+	 */
+	private final int[] once = new int[LANES];
+	private final int[] twice = new int[LANES];
+
+	/**
+	 * Not zero if a lane contains a contradiction.
+	 */
+	private final int[] failed = new int[LANES];
+
+	private BatchSolver(final SolverOptions options) {
+		this.options = options.withMaxSolutions(1);
+	}
+
+	/**
+	 * Solves the specified grids. The grids are not modified.
+	 *
+	 * @param grids the grids to solve
+	 * @return the first solution of each grid in the same order, or {@code null}
+	 *         for grids without a solution
+	 */
+	public List<Grid> solve(final List<Grid> grids) {
+		final var solutions = new Grid[grids.size()];
+		final var block = new Grid[LANES];
+		final var positions = new int[LANES];
+		var lanes = 0;
+		for (var i = 0; i < solutions.length; i++) {
+			final var grid = Objects.requireNonNull(grids.get(i), "grid must not be null");
+			if (grid.geometry() != Geometry.CLASSIC) {
+				solutions[i] = solveSingle(grid);
+				continue;
+			}
+
+			block[lanes] = grid;
+			positions[lanes] = i;
+			if (++lanes == LANES) {
+				solveBlock(block, lanes, positions, solutions);
+				lanes = 0;
+			}
+		}
+		if (lanes > 0)
+			solveBlock(block, lanes, positions, solutions);
+		return Arrays.asList(solutions);
+	}
+
+	private void solveBlock(final Grid[] block, final int lanes, final int[] positions, final Grid[] solutions) {
+		load(block, lanes);
+		var changed = 0;
+		do {
+			changed = placeNakedSingles() | placeHiddenSingles();
+		} while (changed != 0);
+
+		for (var lane = 0; lane < lanes; lane++) {
+			if (this.failed[lane] != 0)
+				continue;
+
+			final var grid = Grid.copyOf(block[lane]);
+			var solved = true;
+			for (var index = 0; index < CELLS; index++) {
+				final var value = this.values[(index * LANES) + lane];
+				if (value == 0)
+					solved = false;
+				else if (grid.value(index) == 0)
+					grid.place(index, value);
+			}
+			solutions[positions[lane]] = solved ? grid : solveSingle(grid);
+		}
+	}
+
+	private Grid solveSingle(final Grid grid) {
+		final var solver = Solver.of(grid, this.options);
+		solver.solve();
+		return solver.solutionCount() > 0 ? solver.solutions().get(0) : null;
+	}
+
+	/**
+	 * Copies the grids into the lanes. Unused lanes are marked as failed.
+	 */
+	private void load(final Grid[] block, final int lanes) {
+		Arrays.fill(this.rows, 0);
+		Arrays.fill(this.columns, 0);
+		Arrays.fill(this.boxes, 0);
+		for (var lane = 0; lane < LANES; lane++) {
+			this.failed[lane] = lane < lanes ? 0 : 1;
+			for (var index = 0; index < CELLS; index++) {
+				final var value = lane < lanes ? block[lane].value(index) : 0;
+				this.values[(index * LANES) + lane] = (byte) value;
+				if (value != 0) {
+					final var bit = 1 << (value - 1);
+					this.rows[ROW_OFFSETS[index] + lane] |= bit;
+					this.columns[COLUMN_OFFSETS[index] + lane] |= bit;
+					this.boxes[BOX_OFFSETS[index] + lane] |= bit;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Places the naked singles of all cells in all lanes. The used values are
+	 * updated immediately, so the later cells see the placed values.
+	 *
+	 * @return a mask that is not zero if any cell has been filled
+	 */
+	private int placeNakedSingles() {
+		final var values = this.values;
+		final var rows = this.rows;
+		final var columns = this.columns;
+		final var boxes = this.boxes;
+		final var failed = this.failed;
+		var changed = 0;
+		for (var index = 0; index < CELLS; index++) {
+			final var cell = index * LANES;
+			final var row = ROW_OFFSETS[index];
+			final var column = COLUMN_OFFSETS[index];
+			final var box = BOX_OFFSETS[index];
+			for (var lane = 0; lane < LANES; lane++) {
+				final var value = values[cell + lane];
+				final var mask = candidates(value, rows[row + lane], columns[column + lane], boxes[box + lane]);
+				final var bit = single(mask);
+
+				// an empty cell without candidates
+				failed[lane] |= ((value - 1) & (mask - 1)) >> 31;
+
+				rows[row + lane] |= bit;
+				columns[column + lane] |= bit;
+				boxes[box + lane] |= bit;
+				values[cell + lane] = (byte) (value | value(bit));
+				changed |= bit;
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Places the hidden singles of all units in all lanes. The units are searched
+	 * using the candidates at the start of this step. Since these may contain
+	 * candidates removed by the placed singles, each single is checked against the
+	 * current used values before it is placed. Skipped singles are found by the
+	 * next step.
+	 *
+	 * @return a mask that is not zero if any cell has been filled
+	 */
+	private int placeHiddenSingles() {
+		final var values = this.values;
+		final var rows = this.rows;
+		final var columns = this.columns;
+		final var boxes = this.boxes;
+		final var candidates = this.candidates;
+		final var once = this.once;
+		final var twice = this.twice;
+		final var failed = this.failed;
+
+		for (var index = 0; index < CELLS; index++) {
+			final var cell = index * LANES;
+			final var row = ROW_OFFSETS[index];
+			final var column = COLUMN_OFFSETS[index];
+			final var box = BOX_OFFSETS[index];
+			for (var lane = 0; lane < LANES; lane++)
+				candidates[cell + lane] = candidates(values[cell + lane], rows[row + lane], columns[column + lane],
+						boxes[box + lane]);
+		}
+
+		var changed = 0;
+		for (var unit = 0; unit < 3 * SIZE; unit++) {
+			final var first = Grid.unitCell(unit, 0) * LANES;
+			for (var lane = 0; lane < LANES; lane++) {
+				once[lane] = candidates[first + lane];
+				twice[lane] = 0;
+			}
+			for (var i = 1; i < SIZE; i++) {
+				final var cell = Grid.unitCell(unit, i) * LANES;
+				for (var lane = 0; lane < LANES; lane++) {
+					final var mask = candidates[cell + lane];
+					twice[lane] |= once[lane] & mask;
+					once[lane] |= mask;
+				}
+			}
+
+			final var unitMasks = unit < SIZE ? rows : unit < 2 * SIZE ? columns : boxes;
+			final var unitOffset = (unit % SIZE) * LANES;
+			var found = 0;
+			for (var lane = 0; lane < LANES; lane++) {
+				// a value that fits into no cell of the unit
+				failed[lane] |= ~(once[lane] | unitMasks[unitOffset + lane]) & ALL_VALUES;
+				once[lane] &= ~twice[lane];
+				found |= once[lane];
+			}
+			if (found == 0)
+				continue;
+
+			for (var i = 0; i < SIZE; i++) {
+				final var index = Grid.unitCell(unit, i);
+				final var cell = index * LANES;
+				final var row = ROW_OFFSETS[index];
+				final var column = COLUMN_OFFSETS[index];
+				final var box = BOX_OFFSETS[index];
+				for (var lane = 0; lane < LANES; lane++) {
+					final var hidden = candidates[cell + lane] & once[lane];
+					// more than one value must be placed into the same cell
+					failed[lane] |= hidden & (hidden - 1);
+
+					final var value = values[cell + lane];
+					final var bit = hidden & -hidden
+							& candidates(value, rows[row + lane], columns[column + lane], boxes[box + lane]);
+					rows[row + lane] |= bit;
+					columns[column + lane] |= bit;
+					boxes[box + lane] |= bit;
+					values[cell + lane] = (byte) (value | value(bit));
+					changed |= bit;
+				}
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Returns the candidates of a cell, or zero if the cell is not empty.
+	 */
+	private static int candidates(final int value, final int row, final int column, final int box) {
+		// all bits are set if the value is zero
+		final var empty = (value - 1) >> 31;
+		return ~(row | column | box) & ALL_VALUES & empty;
+	}
+
+	/**
+	 * Returns the bit of the only candidate of the given mask, or zero if there is
+	 * not exactly one candidate.
+	 */
+	private static int single(final int mask) {
+		final var bit = mask & -mask;
+		// all bits are set if no other bit is set
+		final var alone = ((mask ^ bit) - 1) >> 31;
+		return bit & alone;
+	}
+
+	/**
+	 * Returns the value of the bit of a candidate, or zero if no bit is set.
+	 */
+	private static int value(final int bit) {
+		return 32 - Integer.numberOfLeadingZeros(bit);
+	}
+}
@@ -0,0 +1,108 @@
+package name.ulbricht.sudoku;
+
+import java.util.Set;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingControl;
+import jdk.jfr.SettingDefinition;
+
+/**
+ * A flight recorder event for a branch point of the brute force solver. The
+ * duration covers the search of all candidates of the cell. Only branch points
+ * up to the depth of the setting {@code maxDepth} are recorded (3 by default),
+ * because the deeper branch points are too many and too short.
+ */
+@Name("name.ulbricht.sudoku.Branch")
+@Label("Branch")
+@Category("Sudoku")
+@Description("Trying the candidates of a cell")
+final class BranchEvent extends Event {
+
+	@Label("Depth")
+	@Description("The number of branch points above this one")
+	int depth;
+
+	@Label("Column")
+	int column;
+
+	@Label("Row")
+	int row;
+
+	@Label("Candidates")
+	int candidates;
+
+	@Label("Parallel")
+	boolean parallel;
+
+	@Label("Maximum Depth")
+	@Description("The maximum depth of the recorded branch points")
+	@SettingDefinition
+	@Name("maxDepth")
+	boolean maxDepth(final DepthSetting setting) {
+		return this.depth <= setting.maxDepth;
+	}
+
+	/**
+	 * Ends the event and commits it, if it is enabled and within the thresholds.
+	 *
+	 * @param grid       the grid
+	 * @param depth      the depth of the branch point
+	 * @param index      the zero-based index of the cell
+	 * @param candidates the mask of the candidates
+	 * @param parallel   defines if the candidates were searched by parallel tasks
+	 */
+	void finish(final Grid grid, final int depth, final int index, final int candidates, final boolean parallel) {
+		end();
+		this.depth = depth;
+		if (shouldCommit()) {
+			final var size = grid.size();
+			this.column = (index % size) + 1;
+			this.row = (index / size) + 1;
+			this.candidates = Integer.bitCount(candidates);
+			this.parallel = parallel;
+			commit();
+		}
+	}
+
+	/**
+	 * Controls the maximum depth of the recorded branch points. If several
+	 * recordings are running, the largest depth is used.
+	 */
+	static final class DepthSetting extends SettingControl {
+
+		private static final int DEFAULT_DEPTH = 3;
+
+		private int maxDepth = DEFAULT_DEPTH;
+
+		@Override
+		public String combine(final Set<String> values) {
+			var result = -1;
+			for (final var value : values)
+				result = Math.max(result, parse(value));
+			return Integer.toString(result >= 0 ? result : DEFAULT_DEPTH);
+		}
+
+		@Override
+		public void setValue(final String value) {
+			final var depth = parse(value);
+			this.maxDepth = depth >= 0 ? depth : DEFAULT_DEPTH;
+		}
+
+		@Override
+		public String getValue() {
+			return Integer.toString(this.maxDepth);
+		}
+
+		private static int parse(final String value) {
+			try {
+				return Integer.parseInt(value.strip());
+			} catch (final NumberFormatException ex) {
+				return -1;
+			}
+		}
+	}
+}
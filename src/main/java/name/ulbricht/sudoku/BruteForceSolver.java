@@ -3,16 +3,39 @@ package name.ulbricht.sudoku;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.IntStream;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+import name.ulbricht.sudoku.SolverStatistics.Counters;
 
 final class BruteForceSolver implements Solver {
 
 	private final Grid grid;
+	private final int parallelism;
+	private final int sequentialCutoff;
+	private final int maxSolutions;
 	private final List<Grid> solutions = new ArrayList<>();
+	private int solutionCount;
 	private long solutionTime;
+	private SolverStatistics statistics = SolverStatistics.EMPTY;
+
+	/**
+	 * Signals all running branches to stop. It is set if the maximum number of
+	 * solutions has been found or the search was cancelled.
+	 */
+	private volatile boolean cancelled;
+
+	/**
+	 * Receives the solutions instead of {@link #solutions}, if not {@code null}.
+	 */
+	private Consumer<? super Grid> consumer;
 
-	BruteForceSolver(final Grid grid) {
+	BruteForceSolver(final Grid grid, final SolverOptions options) {
 		this.grid = Objects.requireNonNull(grid, "grid must not be null");
+		this.parallelism = options.parallelism();
+		this.sequentialCutoff = options.sequentialCutoff();
+		this.maxSolutions = options.maxSolutions();
 	}
 
 	@Override
@@ -22,7 +45,7 @@ final class BruteForceSolver implements Solver {
 
 	@Override
 	public int solutionCount() {
-		return this.solutions.size();
+		return this.solutionCount;
 	}
 
 	@Override
@@ -30,75 +53,205 @@ final class BruteForceSolver implements Solver {
 		return new ArrayList<>(this.solutions);
 	}
 
+	@Override
+	public SolverStatistics statistics() {
+		return this.statistics;
+	}
+
 	@Override
 	public void solve() {
+		run(null);
+	}
+
+	@Override
+	public void solve(final Consumer<? super Grid> consumer) {
+		run(Objects.requireNonNull(consumer, "consumer must not be null"));
+	}
+
+	private void run(final Consumer<? super Grid> consumer) {
 		this.solutions.clear();
+		this.solutionCount = 0;
+		this.consumer = consumer;
+		this.cancelled = false;
 
 		this.solutionTime = 0;
-		final var startTime = System.currentTimeMillis();
+		final var event = new SolveEvent();
+		event.begin();
+		final var startTime = System.nanoTime();
 
-		solve(this.grid);
+		final var start = Grid.copyOf(this.grid);
+		final Counters counters;
+		if (this.parallelism > 1 && start.emptyCells() > this.sequentialCutoff)
+			counters = SolverPools.of(this.parallelism).invoke(new SearchTask(start, 0));
+		else {
+			final var worker = new Worker();
+			final var cpuStartTime = Counters.currentCpuTime();
+			worker.solve(start, false, 0);
+			counters = worker.counters;
+			counters.cpuTime += Counters.currentCpuTime() - cpuStartTime;
+		}
+		counters.gridCopies++;
 
-		this.solutionTime = System.currentTimeMillis() - startTime;
+		final var wallTime = System.nanoTime() - startTime;
+		this.statistics = new SolverStatistics(counters, wallTime);
+		this.solutionTime = wallTime / 1_000_000;
+		event.finish(Engine.BRUTE_FORCE.name(), this.grid, this.solutionCount, this.statistics);
+	}
+
+	@Override
+	public void cancel() {
+		this.cancelled = true;
 	}
 
 	private void addSolution(final Grid solution) {
 		synchronized (this.solutions) {
-			if (this.solutions.size() < 10)
+			if (this.cancelled)
+				return;
+			this.solutionCount++;
+			if (this.solutionCount >= this.maxSolutions)
+				this.cancelled = true;
+
+			if (this.consumer == null)
 				this.solutions.add(solution);
+			else {
+				try {
+					this.consumer.accept(solution);
+				} catch (final RuntimeException | Error ex) {
+					this.cancelled = true;
+					throw ex;
+				}
+			}
 		}
 	}
 
-	private void solve(final Grid grid) {
-		if (this.solutions.size() >= 10)
-			return;
-
-		int[] fewestCandidates = null;
-		var fewestCanddiatesColumn = 0;
-		var fewestCanddiatesRow = 0;
-
-		boolean changed;
-		do {
-			if (grid.solved())
-				addSolution(grid);
-
-			changed = false;
-
-			for (var column = 1; column <= 9; column++) {
-				for (var row = 1; row <= 9; row++) {
-					final var candidates = grid.candidates(column, row);
-					if (candidates != null) {
-						if (candidates.length == 1) {
-							grid.set(column, row, candidates[0]);
-							changed = true;
-							fewestCandidates = null;
-							fewestCanddiatesColumn = 0;
-							fewestCanddiatesRow = 0;
-							break;
-						}
-						if (fewestCandidates == null || candidates.length < fewestCandidates.length) {
-							fewestCandidates = candidates;
-							fewestCanddiatesColumn = column;
-							fewestCanddiatesRow = row;
-						}
+	/**
+	 * Searches grids in a single thread. Each worker collects its own statistics
+	 * and owns a propagator and a trail, so nothing is shared between threads.
+	 */
+	private final class Worker {
+
+		final Counters counters = new Counters();
+		private final Propagator propagator = new Propagator(() -> BruteForceSolver.this.cancelled);
+		private final Trail trail = new Trail();
+
+		/**
+		 * Solves the given grid. All cells that can be deduced are filled first. Then
+		 * all candidates of the cell with the fewest candidates are tried. Sequential
+		 * branches fill the grid in place and are undone using the trail, only
+		 * parallel branches and solutions are copied.
+		 * 
+		 * @param grid     the grid to solve, will be restored before returning
+		 * @param parallel defines if the branches may be searched by parallel tasks
+		 * @param depth    the number of branch points above this grid
+		 */
+		void solve(final Grid grid, final boolean parallel, final int depth) {
+			if (BruteForceSolver.this.cancelled)
+				return;
+
+			final var mark = this.trail.mark();
+			search(grid, parallel, depth);
+			this.trail.undo(grid, mark);
+		}
+
+		private void search(final Grid grid, final boolean parallel, final int depth) {
+			final var counters = this.counters;
+			counters.nodes++;
+			counters.depth(depth);
+
+			final var propagationStartTime = System.nanoTime();
+			final var placed = this.propagator.propagate(grid, this.trail);
+			final var branchingStartTime = System.nanoTime();
+			counters.propagationTime += branchingStartTime - propagationStartTime;
+
+			if (placed < 0) {
+				if (!BruteForceSolver.this.cancelled)
+					counters.backtracks++;
+				return;
+			}
+			counters.singles += placed;
+
+			// all empty cells have at least two candidates now
+			var fewestCandidates = 0;
+			var fewestCandidatesIndex = -1;
+			var emptyCells = 0;
+			final var cells = grid.geometry().cells();
+			for (var index = 0; index < cells; index++) {
+				final var mask = grid.candidateMask(index);
+				if (mask != 0) {
+					if (fewestCandidatesIndex < 0 || Integer.bitCount(mask) < Integer.bitCount(fewestCandidates)) {
+						fewestCandidates = mask;
+						fewestCandidatesIndex = index;
 					}
+					emptyCells++;
 				}
-				if (changed)
-					break;
 			}
-		} while (changed);
 
-		if (fewestCandidates != null) {
-			final var column = fewestCanddiatesColumn;
-			final var row = fewestCanddiatesRow;
-			IntStream.of(fewestCandidates).parallel().mapToObj(candidate -> setCandidate(grid, column, row, candidate))
-					.forEach(this::solve);
+			if (emptyCells == 0) {
+				counters.gridCopies++;
+				addSolution(Grid.copyOf(grid));
+				return;
+			}
+
+			final var event = new BranchEvent();
+			event.begin();
+			if (parallel && emptyCells > BruteForceSolver.this.sequentialCutoff) {
+				final var tasks = new ArrayList<SearchTask>(Integer.bitCount(fewestCandidates));
+				for (var mask = fewestCandidates; mask != 0; mask &= mask - 1) {
+					final var branch = Grid.copyOf(grid);
+					branch.place(fewestCandidatesIndex, Integer.numberOfTrailingZeros(mask) + 1);
+					tasks.add(new SearchTask(branch, depth + 1));
+				}
+				counters.guesses += tasks.size();
+				counters.gridCopies += tasks.size();
+
+				// the time waiting for the tasks is measured by the tasks
+				final var waitStartTime = System.nanoTime();
+				counters.branchingTime += waitStartTime - branchingStartTime;
+				counters.cpuTime -= Counters.currentCpuTime();
+				ForkJoinTask.invokeAll(tasks);
+				counters.cpuTime += Counters.currentCpuTime();
+
+				for (final var task : tasks)
+					counters.merge(task.join());
+				event.finish(grid, depth, fewestCandidatesIndex, fewestCandidates, true);
+			} else {
+				counters.branchingTime += System.nanoTime() - branchingStartTime;
+				final var mark = this.trail.mark();
+				for (var mask = fewestCandidates; mask != 0 && !BruteForceSolver.this.cancelled; mask &= mask - 1) {
+					this.trail.place(grid, fewestCandidatesIndex, Integer.numberOfTrailingZeros(mask) + 1);
+					counters.guesses++;
+
+					solve(grid, false, depth + 1);
+					this.trail.undo(grid, mark);
+				}
+				event.finish(grid, depth, fewestCandidatesIndex, fewestCandidates, false);
+			}
 		}
 	}
 
-	private static Grid setCandidate(final Grid original, final int column, final int row, final int value) {
-		final var copy = Grid.copyOf(original);
-		copy.set(column, row, value);
-		return copy;
+	/**
+	 * Searches a grid within the shared fork/join pool of the solver. Each task collects
+	 * its own statistics, they are merged into the statistics of the parent task.
+	 */
+	private final class SearchTask extends RecursiveTask<Counters> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Grid grid;
+		private final int depth;
+
+		SearchTask(final Grid grid, final int depth) {
+			this.grid = grid;
+			this.depth = depth;
+		}
+
+		@Override
+		protected Counters compute() {
+			final var worker = new Worker();
+			final var cpuStartTime = Counters.currentCpuTime();
+			worker.solve(this.grid, true, this.depth);
+			worker.counters.cpuTime += Counters.currentCpuTime() - cpuStartTime;
+			return worker.counters;
+		}
 	}
-}
\ No newline at end of file
+}
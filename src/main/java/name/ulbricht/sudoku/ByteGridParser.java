@@ -0,0 +1,276 @@
+package name.ulbricht.sudoku;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Parses grids in the format of {@link CompactGridFile} directly from bytes.
+ * The bytes are read from the buffer in place, no strings or readers are
+ * created. The values are checked against the Sudoku rules using the bit masks
+ * of the units, invalid lines are reported as {@link ParseStatus} instead of
+ * exceptions.
+ * <p>
+ * Large buffers are split into chunks at line ends, the chunks are parsed in
+ * parallel.
+ */
+public final class ByteGridParser {
+
+	private static final byte COMMENT_PREFIX = '#';
+	private static final byte LINE_FEED = '\n';
+	private static final byte CARRIAGE_RETURN = '\r';
+
+	/**
+	 * The minimum number of bytes parsed by each thread.
+	 */
+	private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * The values represented by the characters, -1 if a character does not
+	 * represent a value. The dot and '0' represent empty cells.
+	 */
+	private static final byte[] VALUES = new byte[256];
+
+	static {
+		for (var c = 0; c < VALUES.length; c++)
+			VALUES[c] = (byte) GridFile.value((char) c);
+		VALUES['.'] = 0;
+	}
+
+	/**
+	 * Parses all grids of the given bytes.
+	 *
+	 * @param bytes       the bytes to parse
+	 * @param locked      defines if the non-empty cells should be locked
+	 * @param parallelism the maximum number of threads
+	 * @param errors      receives the status and the one-based line number of each
+	 *                    invalid line
+	 * @return the valid grids in the order of the lines
+	 * @see #parse(ByteBuffer, boolean, int, ObjIntConsumer)
+	 */
+	public static List<Grid> parse(final byte[] bytes, final boolean locked, final int parallelism,
+			final ObjIntConsumer<ParseStatus> errors) {
+		return parse(ByteBuffer.wrap(bytes), locked, parallelism, errors);
+	}
+
+	/**
+	 * Parses all grids between the position and the limit of the given buffer. The
+	 * position of the buffer is not changed. Empty lines and comments are skipped.
+	 * The errors are passed to the consumer by the calling thread in the order of
+	 * the lines, after all chunks have been parsed.
+	 *
+	 * @param buffer      the buffer to parse, may be direct or memory-mapped
+	 * @param locked      defines if the non-empty cells should be locked
+	 * @param parallelism the maximum number of threads
+	 * @param errors      receives the status and the one-based line number of each
+	 *                    invalid line
+	 * @return the valid grids in the order of the lines
+	 */
+	public static List<Grid> parse(final ByteBuffer buffer, final boolean locked, final int parallelism,
+			final ObjIntConsumer<ParseStatus> errors) {
+		Objects.requireNonNull(buffer, "buffer must not be null");
+		Objects.requireNonNull(errors, "errors must not be null");
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+
+		final var event = new GridFileEvent();
+		event.begin();
+		final var start = buffer.position();
+		final var end = buffer.limit();
+		final var chunkCount = Math.max(1, Math.min(parallelism, (end - start) / MIN_CHUNK_SIZE));
+
+		// each chunk starts at the beginning of a line
+		final var bounds = new int[chunkCount + 1];
+		bounds[0] = start;
+		for (var i = 1; i < chunkCount; i++) {
+			final var position = start + (int) (((long) (end - start) * i) / chunkCount);
+			bounds[i] = Math.max(bounds[i - 1], nextLine(buffer, position, end));
+		}
+		bounds[chunkCount] = end;
+
+		final var chunks = new Chunk[chunkCount];
+		for (var i = 0; i < chunkCount; i++)
+			chunks[i] = new Chunk(buffer, bounds[i], bounds[i + 1], locked);
+
+		if (chunkCount == 1)
+			chunks[0].parse();
+		else
+			parseParallel(chunks);
+
+		final var grids = new ArrayList<Grid>();
+		var lineOffset = 0;
+		var errorCount = 0;
+		for (final var chunk : chunks) {
+			grids.addAll(chunk.grids);
+			for (var i = 0; i < chunk.errorCount; i++)
+				errors.accept(chunk.errorStatus[i], lineOffset + chunk.errorLines[i]);
+			lineOffset += chunk.lines;
+			errorCount += chunk.errorCount;
+		}
+		event.finish(GridFileEvent.PARSE, "line", grids.size(), errorCount, end - start);
+		return grids;
+	}
+
+	private static void parseParallel(final Chunk[] chunks) {
+		final var executor = Executors.newFixedThreadPool(chunks.length);
+		try {
+			final var futures = new ArrayList<Future<?>>(chunks.length);
+			for (final var chunk : chunks)
+				futures.add(executor.submit(chunk::parse));
+			for (final var future : futures)
+				future.get();
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Parsing interrupted", ex);
+		} catch (final ExecutionException ex) {
+			throw new IllegalStateException("Parsing failed", ex.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns the position after the next line feed, or the end if there is none.
+	 */
+	private static int nextLine(final ByteBuffer buffer, final int position, final int end) {
+		var i = position;
+		while (i < end && buffer.get(i) != LINE_FEED)
+			i++;
+		return Math.min(i + 1, end);
+	}
+
+	/**
+	 * Parses single lines into grids. The status of the last line is kept, so no
+	 * result object is needed for each line.
+	 */
+	static final class LineParser {
+
+		private final boolean locked;
+		private ParseStatus status;
+
+		LineParser(final boolean locked) {
+			this.locked = locked;
+		}
+
+		/**
+		 * Returns the status of the last parsed line.
+		 *
+		 * @return the status
+		 */
+		ParseStatus status() {
+			return this.status;
+		}
+
+		/**
+		 * Parses a single line without the line separator.
+		 *
+		 * @param buffer the buffer to read from
+		 * @param offset the absolute position of the line in the buffer
+		 * @param length the length of the line
+		 * @return the new grid or {@code null} if the line is invalid
+		 */
+		Grid parse(final ByteBuffer buffer, final int offset, final int length) {
+			final var geometry = Geometry.ofCells(length);
+			if (geometry == null)
+				return fail(ParseStatus.INVALID_LENGTH);
+
+			final var size = geometry.size();
+			final var values = new byte[length];
+			final var units = new int[geometry.units()];
+			for (var index = 0; index < length; index++) {
+				final var value = VALUES[buffer.get(offset + index) & 0xFF];
+				if (value == 0)
+					continue;
+				if (value < 0 || value > size)
+					return fail(ParseStatus.INVALID_CHARACTER);
+
+				final var bit = 1 << (value - 1);
+				final var row = geometry.rowUnit(index);
+				final var column = geometry.columnUnit(index);
+				final var box = geometry.boxUnit(index);
+				if (((units[row] | units[column] | units[box]) & bit) != 0)
+					return fail(ParseStatus.DUPLICATE_VALUE);
+				units[row] |= bit;
+				units[column] |= bit;
+				units[box] |= bit;
+				values[index] = this.locked ? (byte) -value : value;
+			}
+
+			this.status = ParseStatus.VALID;
+			return Grid.of(geometry, values, units);
+		}
+
+		private Grid fail(final ParseStatus status) {
+			this.status = status;
+			return null;
+		}
+	}
+
+	/**
+	 * The grids and errors of a range of lines.
+	 */
+	private static final class Chunk {
+
+		private final ByteBuffer buffer;
+		private final int start;
+		private final int end;
+		private final LineParser parser;
+
+		final List<Grid> grids = new ArrayList<>();
+		int lines;
+		int errorCount;
+		int[] errorLines = new int[0];
+		ParseStatus[] errorStatus = new ParseStatus[0];
+
+		Chunk(final ByteBuffer buffer, final int start, final int end, final boolean locked) {
+			this.buffer = buffer;
+			this.start = start;
+			this.end = end;
+			this.parser = new LineParser(locked);
+		}
+
+		void parse() {
+			final var buffer = this.buffer;
+			var lineStart = this.start;
+			while (lineStart < this.end) {
+				var lineEnd = lineStart;
+				while (lineEnd < this.end && buffer.get(lineEnd) != LINE_FEED)
+					lineEnd++;
+				this.lines++;
+
+				var length = lineEnd - lineStart;
+				if (length > 0 && buffer.get(lineStart + length - 1) == CARRIAGE_RETURN)
+					length--;
+				if (length > 0 && buffer.get(lineStart) != COMMENT_PREFIX) {
+					final var grid = this.parser.parse(buffer, lineStart, length);
+					if (grid != null)
+						this.grids.add(grid);
+					else
+						addError(this.parser.status());
+				}
+				lineStart = lineEnd + 1;
+			}
+		}
+
+		private void addError(final ParseStatus status) {
+			if (this.errorCount == this.errorLines.length) {
+				final var capacity = Math.max(8, this.errorCount * 2);
+				this.errorLines = Arrays.copyOf(this.errorLines, capacity);
+				this.errorStatus = Arrays.copyOf(this.errorStatus, capacity);
+			}
+			this.errorLines[this.errorCount] = this.lines;
+			this.errorStatus[this.errorCount] = status;
+			this.errorCount++;
+		}
+	}
+
+	private ByteGridParser() {
+		// hidden
+	}
+}
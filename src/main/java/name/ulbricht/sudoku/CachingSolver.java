@@ -0,0 +1,138 @@
+package name.ulbricht.sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import name.ulbricht.sudoku.SolverStatistics.Counters;
+
+/**
+ * Solves a grid using a {@link SolutionCache}. The grid is mapped to its
+ * canonical form, which is solved by the configured engine only if the cache
+ * does not contain its solutions. The canonical solutions are mapped back to
+ * the orientation of the grid. Since all solutions are needed for the cache, a
+ * consumer receives the solutions after the canonical grid has been solved.
+ * <p>
+ * A miss is recorded by the {@link SolveEvent} of the engine, a hit by its own
+ * event with the engine {@link SolveEvent#CACHE}.
+ */
+final class CachingSolver implements Solver {
+
+	private final Grid grid;
+	private final SolverOptions options;
+	private final SolutionCache cache;
+	private final List<Grid> solutions = new ArrayList<>();
+	private int solutionCount;
+	private long solutionTime;
+	private SolverStatistics statistics = SolverStatistics.EMPTY;
+	private volatile Solver delegate;
+	private volatile boolean cancelled;
+
+	CachingSolver(final Grid grid, final SolverOptions options) {
+		this.grid = Objects.requireNonNull(grid, "grid must not be null");
+		this.cache = options.cache();
+		this.options = options.withCache(null);
+	}
+
+	@Override
+	public long solutionTime() {
+		return this.solutionTime;
+	}
+
+	@Override
+	public int solutionCount() {
+		return this.solutionCount;
+	}
+
+	@Override
+	public List<Grid> solutions() {
+		return new ArrayList<>(this.solutions);
+	}
+
+	@Override
+	public SolverStatistics statistics() {
+		return this.statistics;
+	}
+
+	@Override
+	public void solve() {
+		this.solutions.clear();
+		this.cancelled = false;
+
+		this.solutionTime = 0;
+		final var event = new SolveEvent();
+		event.begin();
+		final var startTime = System.nanoTime();
+
+		final var canonical = CanonicalForm.of(this.grid);
+		final var key = canonical.grid();
+		final var maxSolutions = this.options.maxSolutions();
+
+		var canonicalSolutions = this.cache.get(key, maxSolutions);
+		SolverStatistics solverStatistics = null;
+		if (canonicalSolutions == null) {
+			final var solver = Solver.of(key, this.options);
+			this.delegate = solver;
+			if (this.cancelled)
+				solver.cancel();
+			solver.solve();
+			this.delegate = null;
+
+			canonicalSolutions = solver.solutions();
+			solverStatistics = solver.statistics();
+			if (!this.cancelled)
+				this.cache.put(key, canonicalSolutions, canonicalSolutions.size() < maxSolutions);
+		}
+
+		final var transform = canonical.transform();
+		for (final var canonicalSolution : canonicalSolutions)
+			this.solutions.add(lockGivens(transform.revert(canonicalSolution)));
+
+		this.solutionCount = this.solutions.size();
+
+		final var wallTime = System.nanoTime() - startTime;
+		this.statistics = solverStatistics != null ? solverStatistics : new SolverStatistics(new Counters(), wallTime);
+		this.solutionTime = wallTime / 1_000_000;
+		if (solverStatistics == null)
+			event.finish(SolveEvent.CACHE, this.grid, this.solutionCount, this.statistics);
+	}
+
+	@Override
+	public void solve(final Consumer<? super Grid> consumer) {
+		Objects.requireNonNull(consumer, "consumer must not be null");
+		solve();
+
+		final var solutions = new ArrayList<>(this.solutions);
+		this.solutions.clear();
+		this.solutionCount = 0;
+		for (final var solution : solutions) {
+			if (this.cancelled)
+				break;
+			this.solutionCount++;
+			consumer.accept(solution);
+		}
+	}
+
+	@Override
+	public void cancel() {
+		this.cancelled = true;
+		final var solver = this.delegate;
+		if (solver != null)
+			solver.cancel();
+	}
+
+	/**
+	 * Locks the cells of the solution that are locked in the grid, like the
+	 * solutions of the engines.
+	 */
+	private Grid lockGivens(final Grid solution) {
+		for (var row = 1; row <= 9; row++) {
+			for (var column = 1; column <= 9; column++) {
+				if (this.grid.locked(column, row))
+					solution.lock(column, row, solution.get(column, row));
+			}
+		}
+		return solution;
+	}
+}
@@ -0,0 +1,293 @@
+package name.ulbricht.sudoku;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The canonical form of a grid is the minimal grid of all grids that are
+ * equivalent by a {@link GridTransform}. Two grids are equivalent if and only
+ * if their canonical grids are equal, so the canonical grid can be used as key
+ * for all grids of an equivalence class.
+ * <p>
+ * Grids are compared row by row and cell by cell, an empty cell is smaller than
+ * any value. Since the values are relabeled in the order of their first
+ * occurrence, the canonical grid is searched over the transposition and the
+ * row and column permutations only. Branches of the search are pruned as soon
+ * as their rows are greater than the rows of the best grid found so far.
+ */
+public final class CanonicalForm {
+
+	/**
+	 * All 1296 permutations of the columns that keep the columns within their
+	 * stacks.
+	 */
+	private static final int[][] COLUMN_PERMUTATIONS = columnPermutations();
+
+	private static int[][] columnPermutations() {
+		final int[][] orders = { { 0, 1, 2 }, { 0, 2, 1 }, { 1, 0, 2 }, { 1, 2, 0 }, { 2, 0, 1 }, { 2, 1, 0 } };
+		final var permutations = new int[6 * 6 * 6 * 6][];
+		var i = 0;
+		for (final var stacks : orders) {
+			for (final var first : orders) {
+				for (final var second : orders) {
+					for (final var third : orders) {
+						final int[][] columns = { first, second, third };
+						final var permutation = new int[9];
+						for (var column = 0; column < 9; column++)
+							permutation[column] = (stacks[column / 3] * 3) + columns[column / 3][column % 3];
+						permutations[i++] = permutation;
+					}
+				}
+			}
+		}
+		return permutations;
+	}
+
+	/**
+	 * Computes the canonical form of the specified grid. The locks of the cells
+	 * are ignored, the canonical grid has no locked cells.
+	 *
+	 * @param grid the classic grid
+	 * @return the canonical form
+	 */
+	public static CanonicalForm of(final Grid grid) {
+		Grid.requireClassic(Objects.requireNonNull(grid, "grid must not be null"));
+		final var search = new Search(grid);
+		search.run();
+
+		final var transform = search.bestTransform();
+		final var canonical = Grid.empty();
+		for (var index = 0; index < 81; index++) {
+			final var value = search.best[index];
+			if (value != 0)
+				canonical.place(index, value);
+		}
+		return new CanonicalForm(canonical, transform);
+	}
+
+	private final Grid grid;
+	private final GridTransform transform;
+
+	private CanonicalForm(final Grid grid, final GridTransform transform) {
+		this.grid = grid;
+		this.transform = transform;
+	}
+
+	/**
+	 * Returns the canonical grid.
+	 *
+	 * @return a new grid without locked cells
+	 */
+	public Grid grid() {
+		return Grid.copyOf(this.grid);
+	}
+
+	/**
+	 * Returns the transform that maps the original grid to the canonical grid. Its
+	 * {@link GridTransform#revert(Grid)} method maps the canonical grid and its
+	 * solutions back to the original orientation.
+	 *
+	 * @return the transform
+	 */
+	public GridTransform transform() {
+		return this.transform;
+	}
+
+	/**
+	 * The column permutations that produced the same rows so far, each with its
+	 * relabeling of the values. The label of a value {@code v} is stored in the 4
+	 * bits at position {@code 4 * v}.
+	 */
+	private static final class Candidates {
+
+		final int[] permutations = new int[COLUMN_PERMUTATIONS.length];
+		final long[] labels = new long[COLUMN_PERMUTATIONS.length];
+		final byte[] nextLabels = new byte[COLUMN_PERMUTATIONS.length];
+		int size;
+	}
+
+	/**
+	 * Searches the minimal grid depth-first, one target row per level. The rows of
+	 * a band are chosen together, so each row of a band is followed only by the
+	 * other rows of the same band.
+	 */
+	private static final class Search {
+
+		/**
+		 * The cell values of the grid and of its transposed grid.
+		 */
+		private final int[][] sources = new int[2][81];
+		private final boolean[][] emptyRows = new boolean[2][9];
+
+		/**
+		 * The candidates of each level, level zero contains all permutations.
+		 */
+		private final Candidates[] levels = new Candidates[10];
+
+		private final int[] current = new int[81];
+		private final int[] rows = new int[9];
+		private final boolean[] usedRows = new boolean[9];
+		private final int[] best = new int[81];
+		private boolean found;
+
+		private boolean bestTransposed;
+		private final int[] bestRows = new int[9];
+		private int bestPermutation;
+		private long bestLabels;
+
+		Search(final Grid grid) {
+			for (var index = 0; index < 81; index++) {
+				final var value = grid.value(index);
+				this.sources[0][index] = value;
+				this.sources[1][((index % 9) * 9) + (index / 9)] = value;
+			}
+			for (var t = 0; t < 2; t++) {
+				for (var row = 0; row < 9; row++) {
+					var empty = true;
+					for (var column = 0; column < 9; column++)
+						empty &= this.sources[t][(row * 9) + column] == 0;
+					this.emptyRows[t][row] = empty;
+				}
+			}
+
+			for (var level = 0; level < this.levels.length; level++)
+				this.levels[level] = new Candidates();
+			final var all = this.levels[0];
+			for (var i = 0; i < COLUMN_PERMUTATIONS.length; i++) {
+				all.permutations[i] = i;
+				all.nextLabels[i] = 1;
+			}
+			all.size = COLUMN_PERMUTATIONS.length;
+		}
+
+		void run() {
+			for (var t = 0; t < 2; t++)
+				search(t, 0, this.levels[0]);
+		}
+
+		private void search(final int t, final int level, final Candidates candidates) {
+			if (level == 9) {
+				if (!this.found || compare(level) < 0)
+					accept(t, candidates);
+				return;
+			}
+
+			final var band = level % 3 == 0 ? -1 : this.rows[level - 1] / 3;
+			for (var row = 0; row < 9; row++) {
+				if (this.usedRows[row] || (band >= 0 && row / 3 != band))
+					continue;
+
+				final Candidates next;
+				if (this.emptyRows[t][row]) {
+					next = candidates;
+					Arrays.fill(this.current, level * 9, (level + 1) * 9, 0);
+				} else
+					next = fillRow(t, row, level, candidates, this.found && compare(level) == 0);
+
+				if (next == null || (this.found && compare(level + 1) > 0))
+					continue;
+
+				this.rows[level] = row;
+				this.usedRows[row] = true;
+				search(t, level + 1, next);
+				this.usedRows[row] = false;
+			}
+		}
+
+		/**
+		 * Fills the target row with the minimal row of all candidates and collects the
+		 * candidates that produce this row. If the previous rows are equal to the best
+		 * grid, only candidates that are not greater than the best row are collected.
+		 *
+		 * @return the remaining candidates or {@code null} if there are none
+		 */
+		private Candidates fillRow(final int t, final int row, final int level, final Candidates candidates,
+				final boolean bounded) {
+			final var source = this.sources[t];
+			final var offset = level * 9;
+			final var result = this.levels[level + 1];
+			result.size = 0;
+			if (bounded)
+				System.arraycopy(this.best, offset, this.current, offset, 9);
+
+			final var values = new int[9];
+			for (var i = 0; i < candidates.size; i++) {
+				final var permutation = COLUMN_PERMUTATIONS[candidates.permutations[i]];
+				var labels = candidates.labels[i];
+				var nextLabel = candidates.nextLabels[i];
+
+				// compares the row with the minimal row so far, the first row is the minimum
+				var comparison = result.size == 0 && !bounded ? -1 : 0;
+				for (var column = 0; column < 9; column++) {
+					final var value = source[(row * 9) + permutation[column]];
+					var label = 0;
+					if (value != 0) {
+						label = (int) (labels >>> (value * 4)) & 0xF;
+						if (label == 0) {
+							label = nextLabel++;
+							labels |= (long) label << (value * 4);
+						}
+					}
+					values[column] = label;
+					if (comparison == 0)
+						comparison = Integer.compare(label, this.current[offset + column]);
+					if (comparison > 0)
+						break;
+				}
+				if (comparison > 0)
+					continue;
+
+				if (comparison < 0) {
+					result.size = 0;
+					System.arraycopy(values, 0, this.current, offset, 9);
+				}
+				final var j = result.size++;
+				result.permutations[j] = candidates.permutations[i];
+				result.labels[j] = labels;
+				result.nextLabels[j] = nextLabel;
+			}
+			return result.size > 0 ? result : null;
+		}
+
+		/**
+		 * Compares the first rows of the current grid with the best grid.
+		 *
+		 * @param level the number of rows to compare
+		 * @return a negative value, zero or a positive value if the current rows are
+		 *         less, equal or greater than the best rows
+		 */
+		private int compare(final int level) {
+			final var end = level * 9;
+			for (var index = 0; index < end; index++) {
+				if (this.current[index] != this.best[index])
+					return Integer.compare(this.current[index], this.best[index]);
+			}
+			return 0;
+		}
+
+		private void accept(final int t, final Candidates candidates) {
+			System.arraycopy(this.current, 0, this.best, 0, 81);
+			this.found = true;
+			this.bestTransposed = t == 1;
+			System.arraycopy(this.rows, 0, this.bestRows, 0, 9);
+			this.bestPermutation = candidates.permutations[0];
+			this.bestLabels = candidates.labels[0];
+		}
+
+		GridTransform bestTransform() {
+			// values that do not occur in the grid get the remaining labels
+			final var values = new int[10];
+			var nextLabel = 1;
+			for (var value = 1; value <= 9; value++) {
+				values[value] = (int) (this.bestLabels >>> (value * 4)) & 0xF;
+				nextLabel = Math.max(nextLabel, values[value] + 1);
+			}
+			for (var value = 1; value <= 9; value++) {
+				if (values[value] == 0)
+					values[value] = nextLabel++;
+			}
+			return new GridTransform(this.bestTransposed, this.bestRows.clone(),
+					COLUMN_PERMUTATIONS[this.bestPermutation].clone(), values);
+		}
+	}
+}
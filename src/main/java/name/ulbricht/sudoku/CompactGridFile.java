@@ -0,0 +1,318 @@
+package name.ulbricht.sudoku;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parses and writes files with one Sudoku grid per line. Each line consists of
+ * 81 characters representing the cells row by row. The characters '1' to '9'
+ * representing the cell values, a dot or '0' represents an empty cell. Empty
+ * lines and lines starting with the comment character '#' are ignored.
+ * <p>
+ * Larger grids have lines with 256 or 625 characters, the values from 10 are
+ * represented by the letters 'A' to 'P' like in {@link GridFile}. The size of
+ * each grid is defined by the length of its line.
+ * <p>
+ * Files are read lazily, so files with millions of grids can be processed
+ * without loading them completely.
+ */
+public final class CompactGridFile {
+
+	private static final char COMMENT_PREFIX = '#';
+	private static final char EMPTY_CELL = '.';
+	private static final char ZERO_CELL = '0';
+
+	/**
+	 * The maximum size of a memory-mapped region of a file.
+	 */
+	private static final long MAPPING_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * Returns a lazy stream of the grids in the given file. All non-empty cells
+	 * will be locked. The stream must be closed to release the file.
+	 *
+	 * @param file the file to read from
+	 * @return a stream of grids
+	 * @throws IOException if the file cannot be opened
+	 * @see #parse(Path, boolean)
+	 */
+	public static Stream<Grid> parse(final Path file) throws IOException {
+		return parse(file, true);
+	}
+
+	/**
+	 * Returns a lazy stream of the grids in the given file. The stream must be
+	 * closed to release the file. Errors while reading are thrown as
+	 * {@link UncheckedIOException} by the terminal operation of the stream.
+	 *
+	 * @param file   the file to read from
+	 * @param locked defines if the non-empty cells should be locked
+	 * @return a stream of grids
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static Stream<Grid> parse(final Path file, final boolean locked) throws IOException {
+		final var reader = Files.newBufferedReader(file);
+		try {
+			return parse(reader, locked).onClose(() -> close(reader));
+		} catch (final RuntimeException ex) {
+			reader.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Returns a lazy stream of the grids from the given reader source. The reader
+	 * is not closed by the stream.
+	 *
+	 * @param in     the source to read from
+	 * @param locked defines if the non-empty cells should be locked
+	 * @return a stream of grids
+	 */
+	public static Stream<Grid> parse(final Reader in, final boolean locked) {
+		final var br = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+		final var lineNumber = new int[1];
+		return br.lines().filter(line -> {
+			lineNumber[0]++;
+			return !ignored(line);
+		}).map(line -> {
+			try {
+				return parseLine(line, locked);
+			} catch (final IOException ex) {
+				throw new UncheckedIOException(String.format("Line %d: %s", lineNumber[0], ex.getMessage()), ex);
+			}
+		});
+	}
+
+	/**
+	 * Returns a lazy stream of the grids in the given file. The file is read
+	 * through memory-mapped regions of a {@link FileChannel}, so the data is not
+	 * copied by any reader. The stream must be closed to release the file.
+	 *
+	 * @param file   the file to read from
+	 * @param locked defines if the non-empty cells should be locked
+	 * @return a stream of grids
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static Stream<Grid> map(final Path file, final boolean locked) throws IOException {
+		return map(file, locked, MAPPING_SIZE);
+	}
+
+	static Stream<Grid> map(final Path file, final boolean locked, final long mappingSize) throws IOException {
+		final var channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			final var iterator = new MappedGridIterator(channel, locked, mappingSize);
+			return StreamSupport
+					.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+							false)
+					.onClose(() -> close(channel));
+		} catch (final IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Parses a single line with 81 characters (or 256 or 625 for larger grids)
+	 * into a new grid.
+	 *
+	 * @param line   the line to parse
+	 * @param locked defines if the non-empty cells should be locked
+	 * @return a new grid
+	 * @throws IOException if the line is not a valid grid
+	 */
+	public static Grid parseLine(final CharSequence line, final boolean locked) throws IOException {
+		final var grid = emptyGrid(line.length());
+		for (var index = 0; index < line.length(); index++)
+			setCell(grid, index, line.charAt(index), locked);
+		return grid;
+	}
+
+	/**
+	 * Creates an empty grid with the specified number of cells.
+	 */
+	private static Grid emptyGrid(final int cells) throws IOException {
+		final var geometry = Geometry.ofCells(cells);
+		if (geometry == null)
+			throw new IOException("Unexpected line length: " + cells);
+		return Grid.empty(geometry.boxSize());
+	}
+
+	private static void setCell(final Grid grid, final int index, final char c, final boolean locked)
+			throws IOException {
+		if (c == EMPTY_CELL || c == ZERO_CELL)
+			return;
+
+		try {
+			final var value = GridFile.value(c);
+			final var size = grid.size();
+			if (locked)
+				grid.lock((index % size) + 1, (index / size) + 1, value);
+			else
+				grid.set((index % size) + 1, (index / size) + 1, value);
+		} catch (IllegalArgumentException | RuleViolationException ex) {
+			throw new IOException("Invalid value", ex);
+		}
+	}
+
+	private static boolean ignored(final CharSequence line) {
+		return line.length() == 0 || line.charAt(0) == COMMENT_PREFIX;
+	}
+
+	/**
+	 * Writes the given grid as a single line to the specified writer. The line is
+	 * terminated by a line separator.
+	 *
+	 * @param out  the writer to write to
+	 * @param grid the grid to write
+	 * @throws IOException if there is a problem while writing the grid data
+	 */
+	public static void write(final Writer out, final Grid grid) throws IOException {
+		final var line = new char[grid.size() * grid.size()];
+		for (var index = 0; index < line.length; index++) {
+			final var value = grid.value(index);
+			line[index] = value == 0 ? EMPTY_CELL : GridFile.symbol(value);
+		}
+		out.write(line);
+		out.write(System.lineSeparator());
+	}
+
+	/**
+	 * Writes all grids of the given stream into the specified file, one grid per
+	 * line.
+	 *
+	 * @param file  the file to write to
+	 * @param grids the grids to write
+	 * @throws IOException if there is a problem while writing the grid data
+	 */
+	public static void write(final Path file, final Stream<Grid> grids) throws IOException {
+		try (final var writer = GridWriter.open(file, GridFormat.LINE)) {
+			final var iterator = grids.iterator();
+			while (iterator.hasNext())
+				writer.write(iterator.next());
+		}
+	}
+
+	private static void close(final AutoCloseable closeable) {
+		try {
+			closeable.close();
+		} catch (final Exception ex) {
+			throw new IllegalStateException("Could not close the file", ex);
+		}
+	}
+
+	/**
+	 * Iterates the grids of a file using memory-mapped regions. A region always
+	 * starts at the beginning of a line. If a line is incomplete at the end of a
+	 * region, the next region starts at the beginning of this line.
+	 */
+	private static final class MappedGridIterator implements Iterator<Grid> {
+
+		private final FileChannel channel;
+		private final ByteGridParser.LineParser parser;
+		private final long mappingSize;
+		private final long size;
+
+		private MappedByteBuffer buffer;
+		private long regionStart;
+		private long lineNumber;
+		private Grid next;
+
+		MappedGridIterator(final FileChannel channel, final boolean locked, final long mappingSize)
+				throws IOException {
+			this.channel = channel;
+			this.parser = new ByteGridParser.LineParser(locked);
+			this.mappingSize = mappingSize;
+			this.size = channel.size();
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (this.next == null) {
+				try {
+					this.next = readNext();
+				} catch (final IOException ex) {
+					throw new UncheckedIOException(String.format("Line %d: %s", this.lineNumber, ex.getMessage()),
+							ex);
+				}
+			}
+			return this.next != null;
+		}
+
+		@Override
+		public Grid next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			final var grid = this.next;
+			this.next = null;
+			return grid;
+		}
+
+		private Grid readNext() throws IOException {
+			while (true) {
+				if (this.buffer == null || !this.buffer.hasRemaining()) {
+					if (!map(this.regionStart + (this.buffer != null ? this.buffer.position() : 0)))
+						return null;
+				}
+
+				// find the end of the line within the current region
+				final var lineStart = this.buffer.position();
+				var lineEnd = lineStart;
+				final var limit = this.buffer.limit();
+				while (lineEnd < limit && this.buffer.get(lineEnd) != '\n')
+					lineEnd++;
+
+				if (lineEnd == limit && this.regionStart + limit < this.size) {
+					// the line continues in the next region
+					if (lineStart == 0)
+						throw new IOException("Line too long");
+					map(this.regionStart + lineStart);
+					continue;
+				}
+
+				this.lineNumber++;
+				this.buffer.position(Math.min(lineEnd + 1, limit));
+
+				var length = lineEnd - lineStart;
+				if (length > 0 && this.buffer.get(lineStart + length - 1) == '\r')
+					length--;
+				if (length == 0 || this.buffer.get(lineStart) == COMMENT_PREFIX)
+					continue;
+
+				final var grid = this.parser.parse(this.buffer, lineStart, length);
+				if (grid == null) {
+					if (this.parser.status() == ParseStatus.INVALID_LENGTH)
+						throw new IOException("Unexpected line length: " + length);
+					throw new IOException("Invalid value");
+				}
+				return grid;
+			}
+		}
+
+		private boolean map(final long position) throws IOException {
+			if (position >= this.size)
+				return false;
+			this.regionStart = position;
+			this.buffer = this.channel.map(MapMode.READ_ONLY, position, Math.min(this.mappingSize, this.size - position));
+			return true;
+		}
+	}
+
+	private CompactGridFile() {
+		// hidden
+	}
+}
@@ -0,0 +1,364 @@
+package name.ulbricht.sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import name.ulbricht.sudoku.SolverStatistics.Counters;
+
+/**
+ * Solves a grid as an exact cover problem using Knuth's Algorithm X with
+ * Dancing Links. For the classic grid the matrix has 324 columns (81 cells, 81
+ * row/value, 81 column/value and 81 box/value constraints) and 729 rows (one
+ * for each value of each cell). All nodes are stored in preallocated primitive
+ * arrays, so backtracking is done in place without any allocation.
+ */
+final class DancingLinksSolver implements Solver {
+
+	private static final int ROOT = 0;
+
+	/**
+	 * The initial matrices by box size. Each matrix is built when the first grid
+	 * of its size is solved and copied for each solution run, so the large
+	 * matrices cost nothing if only classic grids are solved.
+	 */
+	private static final ConcurrentMap<Integer, Matrix> matrices = new ConcurrentHashMap<>();
+
+	/**
+	 * The complete matrix of a grid size. Each matrix row has 4 nodes, one for the
+	 * cell, the row/value, the column/value and the box/value constraint.
+	 */
+	private static final class Matrix {
+
+		final int values;
+		final int columns;
+		final int nodes;
+
+		final int[] left;
+		final int[] right;
+		final int[] up;
+		final int[] down;
+		final int[] size;
+
+		/**
+		 * Maps each node to its column header.
+		 */
+		final int[] columnOf;
+
+		Matrix(final Geometry geometry) {
+			final var values = geometry.size();
+			final var cells = geometry.cells();
+			this.values = values;
+			this.columns = cells * 4;
+			this.nodes = this.columns + 1 + (cells * values * 4);
+			this.left = new int[this.nodes];
+			this.right = new int[this.nodes];
+			this.up = new int[this.nodes];
+			this.down = new int[this.nodes];
+			this.size = new int[this.columns + 1];
+			this.columnOf = new int[this.nodes];
+
+			// the header list
+			for (var header = 0; header <= this.columns; header++) {
+				this.left[header] = header == 0 ? this.columns : header - 1;
+				this.right[header] = header == this.columns ? 0 : header + 1;
+				this.up[header] = header;
+				this.down[header] = header;
+				this.columnOf[header] = header;
+			}
+
+			// the rows, each with 4 nodes
+			for (var matrixRow = 0; matrixRow < cells * values; matrixRow++) {
+				final var index = matrixRow / values;
+				final var digit = matrixRow % values;
+				final var row = index / values;
+				final var column = index % values;
+				final var box = geometry.boxUnit(index) - (2 * values);
+
+				final var columns = new int[] { 1 + index, 1 + cells + (row * values) + digit,
+						1 + (2 * cells) + (column * values) + digit, 1 + (3 * cells) + (box * values) + digit };
+
+				final var first = rowNode(matrixRow);
+				for (var i = 0; i < 4; i++) {
+					final var node = first + i;
+					final var header = columns[i];
+
+					this.left[node] = i == 0 ? first + 3 : node - 1;
+					this.right[node] = i == 3 ? first : node + 1;
+
+					this.up[node] = this.up[header];
+					this.down[node] = header;
+					this.down[this.up[header]] = node;
+					this.up[header] = node;
+
+					this.columnOf[node] = header;
+					this.size[header]++;
+				}
+			}
+		}
+
+		int rowNode(final int matrixRow) {
+			return this.columns + 1 + (matrixRow * 4);
+		}
+
+		int matrixRow(final int node) {
+			return (node - this.columns - 1) / 4;
+		}
+	}
+
+	private final Grid grid;
+	private final int maxSolutions;
+	private final List<Grid> solutions = new ArrayList<>();
+	private int solutionCount;
+	private Consumer<? super Grid> consumer;
+	private long solutionTime;
+	private SolverStatistics statistics = SolverStatistics.EMPTY;
+	private Counters counters;
+	private volatile boolean cancelled;
+
+	private final Matrix matrix;
+	private final int[] columnOf;
+	private final int[] left;
+	private final int[] right;
+	private final int[] up;
+	private final int[] down;
+	private final int[] size;
+
+	/**
+	 * The selected matrix rows of the current partial solution.
+	 */
+	private final int[] selected;
+
+	DancingLinksSolver(final Grid grid, final SolverOptions options) {
+		this.grid = Objects.requireNonNull(grid, "grid must not be null");
+		this.maxSolutions = options.maxSolutions();
+
+		this.matrix = matrices.computeIfAbsent(grid.boxSize(), boxSize -> new Matrix(Geometry.of(boxSize)));
+		this.columnOf = this.matrix.columnOf;
+		this.left = new int[this.matrix.nodes];
+		this.right = new int[this.matrix.nodes];
+		this.up = new int[this.matrix.nodes];
+		this.down = new int[this.matrix.nodes];
+		this.size = new int[this.matrix.columns + 1];
+		this.selected = new int[grid.geometry().cells()];
+	}
+
+	@Override
+	public long solutionTime() {
+		return this.solutionTime;
+	}
+
+	@Override
+	public int solutionCount() {
+		return this.solutionCount;
+	}
+
+	@Override
+	public List<Grid> solutions() {
+		return new ArrayList<>(this.solutions);
+	}
+
+	@Override
+	public SolverStatistics statistics() {
+		return this.statistics;
+	}
+
+	@Override
+	public void solve() {
+		run(null);
+	}
+
+	@Override
+	public void solve(final Consumer<? super Grid> consumer) {
+		run(Objects.requireNonNull(consumer, "consumer must not be null"));
+	}
+
+	private void run(final Consumer<? super Grid> consumer) {
+		this.solutions.clear();
+		this.solutionCount = 0;
+		this.consumer = consumer;
+		this.cancelled = false;
+		this.counters = new Counters();
+
+		this.solutionTime = 0;
+		final var event = new SolveEvent();
+		event.begin();
+		final var startTime = System.nanoTime();
+		final var cpuStartTime = Counters.currentCpuTime();
+
+		reset();
+		final var givens = selectGivens();
+		if (givens >= 0)
+			search(givens, givens);
+
+		final var endTime = System.nanoTime();
+		this.counters.cpuTime = Counters.currentCpuTime() - cpuStartTime;
+		this.counters.branchingTime = endTime - startTime;
+
+		final var wallTime = endTime - startTime;
+		this.statistics = new SolverStatistics(this.counters, wallTime);
+		this.solutionTime = wallTime / 1_000_000;
+		event.finish(Engine.DLX.name(), this.grid, this.solutionCount, this.statistics);
+	}
+
+	@Override
+	public void cancel() {
+		this.cancelled = true;
+	}
+
+	private void reset() {
+		final var matrix = this.matrix;
+		System.arraycopy(matrix.left, 0, this.left, 0, matrix.nodes);
+		System.arraycopy(matrix.right, 0, this.right, 0, matrix.nodes);
+		System.arraycopy(matrix.up, 0, this.up, 0, matrix.nodes);
+		System.arraycopy(matrix.down, 0, this.down, 0, matrix.nodes);
+		System.arraycopy(matrix.size, 0, this.size, 0, matrix.columns + 1);
+	}
+
+	/**
+	 * Removes the rows of all non-empty cells from the matrix.
+	 *
+	 * @return the number of selected rows or -1 if the givens contradict each other
+	 */
+	private int selectGivens() {
+		final var columnOf = this.columnOf;
+		final var values = this.matrix.values;
+		var depth = 0;
+		for (var index = 0; index < this.selected.length; index++) {
+			final var value = this.grid.value(index);
+			if (value != 0) {
+				final var node = this.matrix.rowNode((index * values) + (value - 1));
+
+				// a covered column means the constraint is already satisfied
+				var j = node;
+				do {
+					final var header = columnOf[j];
+					if (this.right[this.left[header]] != header)
+						return -1;
+					j = this.right[j];
+				} while (j != node);
+
+				do {
+					cover(columnOf[j]);
+					j = this.right[j];
+				} while (j != node);
+
+				this.selected[depth++] = this.matrix.matrixRow(node);
+			}
+		}
+		return depth;
+	}
+
+	/**
+	 * Searches the remaining matrix recursively.
+	 *
+	 * @param depth  the number of selected rows
+	 * @param givens the number of rows selected by the givens
+	 * @return {@code true} if the search should proceed, otherwise {@code false}
+	 */
+	private boolean search(final int depth, final int givens) {
+		this.counters.nodes++;
+		this.counters.depth(depth - givens);
+
+		if (this.right[ROOT] == ROOT)
+			return addSolution(depth);
+
+		// choose the column with the fewest rows
+		var header = this.right[ROOT];
+		var minSize = this.size[header];
+		for (var h = this.right[header]; h != ROOT && minSize > 1; h = this.right[h]) {
+			if (this.size[h] < minSize) {
+				header = h;
+				minSize = this.size[h];
+			}
+		}
+		if (minSize == 0) {
+			this.counters.backtracks++;
+			return true;
+		}
+
+		final var columnOf = this.columnOf;
+		cover(header);
+		var proceed = true;
+		for (var r = this.down[header]; proceed && r != header; r = this.down[r]) {
+			this.selected[depth] = this.matrix.matrixRow(r);
+			if (minSize == 1)
+				this.counters.singles++;
+			else
+				this.counters.guesses++;
+			for (var j = this.right[r]; j != r; j = this.right[j])
+				cover(columnOf[j]);
+
+			proceed = search(depth + 1, givens) && !this.cancelled;
+
+			for (var j = this.left[r]; j != r; j = this.left[j])
+				uncover(columnOf[j]);
+		}
+		uncover(header);
+
+		return proceed;
+	}
+
+	private void cover(final int header) {
+		final var left = this.left;
+		final var right = this.right;
+		final var up = this.up;
+		final var down = this.down;
+		final var columnOf = this.columnOf;
+
+		right[left[header]] = right[header];
+		left[right[header]] = left[header];
+		for (var i = down[header]; i != header; i = down[i]) {
+			for (var j = right[i]; j != i; j = right[j]) {
+				down[up[j]] = down[j];
+				up[down[j]] = up[j];
+				this.size[columnOf[j]]--;
+			}
+		}
+	}
+
+	private void uncover(final int header) {
+		final var left = this.left;
+		final var right = this.right;
+		final var up = this.up;
+		final var down = this.down;
+		final var columnOf = this.columnOf;
+
+		for (var i = up[header]; i != header; i = up[i]) {
+			for (var j = left[i]; j != i; j = left[j]) {
+				this.size[columnOf[j]]++;
+				down[up[j]] = j;
+				up[down[j]] = j;
+			}
+		}
+		right[left[header]] = header;
+		left[right[header]] = header;
+	}
+
+	/**
+	 * Creates a solution grid from the selected rows.
+	 *
+	 * @param depth the number of selected rows
+	 * @return {@code true} if the search should proceed, otherwise {@code false}
+	 */
+	private boolean addSolution(final int depth) {
+		final var solution = Grid.copyOf(this.grid);
+		this.counters.gridCopies++;
+		final var values = this.matrix.values;
+		for (var i = 0; i < depth; i++) {
+			final var matrixRow = this.selected[i];
+			final var index = matrixRow / values;
+			if (solution.value(index) == 0)
+				solution.place(index, (matrixRow % values) + 1);
+		}
+		this.solutionCount++;
+		if (this.consumer == null)
+			this.solutions.add(solution);
+		else
+			this.consumer.accept(solution);
+		return this.solutionCount < this.maxSolutions && !this.cancelled;
+	}
+}
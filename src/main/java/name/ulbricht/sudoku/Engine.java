@@ -0,0 +1,21 @@
+package name.ulbricht.sudoku;
+
+/**
+ * Defines the available algorithms to solve a Sudoku grid.
+ *
+ * @see Solver#of(Grid, Engine)
+ */
+public enum Engine {
+
+	/**
+	 * Fills cells with a single candidate and tries all candidates of the cell with
+	 * the fewest candidates on independent copies of the grid.
+	 */
+	BRUTE_FORCE,
+
+	/**
+	 * Models the grid as an exact cover problem with 324 constraints and solves it
+	 * with Knuth's Algorithm X using Dancing Links.
+	 */
+	DLX
+}
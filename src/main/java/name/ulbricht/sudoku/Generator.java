@@ -0,0 +1,194 @@
+package name.ulbricht.sudoku;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Generates random puzzles with a unique solution. A puzzle is generated from a
+ * random solved grid by removing clues in random order. A clue is only removed
+ * if the remaining clues still have exactly one solution, so the generated
+ * puzzles are minimal for the chosen symmetry.
+ * <p>
+ * Multiple puzzles are generated in parallel. Each puzzle gets its own seed,
+ * derived from the seed of the options in the order of the puzzles, so the
+ * result does not depend on the number of threads.
+ */
+public final class Generator {
+
+	/**
+	 * Creates a new generator with the specified options.
+	 *
+	 * @param options the options
+	 * @return a new generator
+	 */
+	public static Generator of(final GeneratorOptions options) {
+		return new Generator(Objects.requireNonNull(options, "options must not be null"));
+	}
+
+	private final GeneratorOptions options;
+
+	/**
+	 * The options to check if a grid has a unique solution, each check runs in the
+	 * generating thread.
+	 */
+	private final SolverOptions uniquenessCheck = SolverOptions.defaults().withParallelism(1).withUniquenessCheck();
+
+	private Generator(final GeneratorOptions options) {
+		this.options = options;
+	}
+
+	/**
+	 * Generates the specified number of puzzles.
+	 *
+	 * @param count the number of puzzles
+	 * @return the puzzles in the order of their seeds
+	 * @see #generate(long, Consumer)
+	 */
+	public List<Grid> generate(final int count) {
+		final var puzzles = new ArrayList<Grid>(Math.max(count, 0));
+		generate(count, puzzles::add);
+		return puzzles;
+	}
+
+	/**
+	 * Generates the specified number of puzzles and passes them to the consumer.
+	 * The puzzles are generated in parallel by a bounded pool of threads, but the
+	 * consumer is called by the calling thread in the order of the puzzles.
+	 *
+	 * @param count    the number of puzzles
+	 * @param consumer receives the generated puzzles
+	 */
+	public void generate(final long count, final Consumer<Grid> consumer) {
+		if (count < 0)
+			throw new IllegalArgumentException("Invalid number of puzzles: " + count);
+
+		final var seeds = new SplittableRandom(this.options.seed());
+		final var threads = this.options.parallelism();
+		if (threads == 1) {
+			for (var i = 0L; i < count; i++)
+				consumer.accept(puzzle(seeds.nextLong()));
+			return;
+		}
+
+		final var executor = Executors.newFixedThreadPool(threads);
+		try {
+			final var pending = new ArrayDeque<Future<Grid>>();
+			final var window = threads * 4;
+			var next = 0L;
+			while (next < count || !pending.isEmpty()) {
+				while (next < count && pending.size() < window) {
+					final var seed = seeds.nextLong();
+					pending.add(executor.submit(() -> puzzle(seed)));
+					next++;
+				}
+				consumer.accept(pending.remove().get());
+			}
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Generation interrupted", ex);
+		} catch (final ExecutionException ex) {
+			throw new IllegalStateException("Generation failed", ex.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Generates a single puzzle in the calling thread. The same seed always
+	 * generates the same puzzle.
+	 *
+	 * @param seed the seed of the puzzle
+	 * @return a new puzzle with locked clues
+	 */
+	public Grid puzzle(final long seed) {
+		final var random = new SplittableRandom(seed);
+		final var puzzle = solvedGrid(random);
+
+		final var symmetry = this.options.symmetry();
+		final var cells = shuffledCells(random);
+		for (final var index : cells) {
+			final var value = puzzle.value(index);
+			if (value == 0)
+				continue;
+			final var symmetricIndex = symmetry.symmetricCell(index);
+			final var symmetricValue = puzzle.value(symmetricIndex);
+
+			puzzle.remove(index);
+			if (symmetricIndex != index)
+				puzzle.remove(symmetricIndex);
+
+			if (!unique(puzzle)) {
+				puzzle.place(index, value);
+				if (symmetricIndex != index)
+					puzzle.place(symmetricIndex, symmetricValue);
+			}
+		}
+
+		final var locked = Grid.empty();
+		for (var index = 0; index < 81; index++) {
+			final var value = puzzle.value(index);
+			if (value != 0)
+				locked.lock((index % 9) + 1, (index / 9) + 1, value);
+		}
+		return locked;
+	}
+
+	/**
+	 * Creates a random solved grid. The three boxes on the diagonal do not depend
+	 * on each other, so they are filled with random permutations first. The rest of
+	 * the grid is filled by the solver.
+	 */
+	private static Grid solvedGrid(final SplittableRandom random) {
+		final var grid = Grid.empty();
+		for (var box = 0; box < 3; box++) {
+			final var values = shuffledValues(random);
+			for (var i = 0; i < 9; i++) {
+				final var row = (box * 3) + (i / 3);
+				final var column = (box * 3) + (i % 3);
+				grid.place((row * 9) + column, values[i]);
+			}
+		}
+
+		final var solver = Solver.of(grid, SolverOptions.defaults().withParallelism(1).withMaxSolutions(1));
+		solver.solve();
+		return solver.solutions().get(0);
+	}
+
+	private boolean unique(final Grid puzzle) {
+		final var solver = Solver.of(puzzle, this.uniquenessCheck);
+		solver.solve();
+		return solver.unique();
+	}
+
+	private static int[] shuffledValues(final SplittableRandom random) {
+		final var values = new int[9];
+		for (var i = 0; i < 9; i++)
+			values[i] = i + 1;
+		shuffle(values, random);
+		return values;
+	}
+
+	private static int[] shuffledCells(final SplittableRandom random) {
+		final var cells = new int[81];
+		for (var i = 0; i < 81; i++)
+			cells[i] = i;
+		shuffle(cells, random);
+		return cells;
+	}
+
+	private static void shuffle(final int[] array, final SplittableRandom random) {
+		for (var i = array.length - 1; i > 0; i--) {
+			final var j = random.nextInt(i + 1);
+			final var swap = array[i];
+			array[i] = array[j];
+			array[j] = swap;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package name.ulbricht.sudoku;
+
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Contains the options to create a generator. Instances are immutable, all
+ * {@code with} methods return a new instance.
+ *
+ * @see Generator#of(GeneratorOptions)
+ */
+public final class GeneratorOptions {
+
+	/**
+	 * Returns the default options. The clues have no symmetry, the puzzles are
+	 * generated with as many threads as processors are available and the seed is
+	 * random.
+	 *
+	 * @return the default options
+	 */
+	public static GeneratorOptions defaults() {
+		return new GeneratorOptions(Symmetry.NONE, Runtime.getRuntime().availableProcessors(), new Random().nextLong());
+	}
+
+	private final Symmetry symmetry;
+	private final int parallelism;
+	private final long seed;
+
+	private GeneratorOptions(final Symmetry symmetry, final int parallelism, final long seed) {
+		this.symmetry = symmetry;
+		this.parallelism = parallelism;
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the symmetry of the clues.
+	 *
+	 * @return the symmetry
+	 */
+	public Symmetry symmetry() {
+		return this.symmetry;
+	}
+
+	/**
+	 * Returns new options with the specified symmetry of the clues.
+	 *
+	 * @param symmetry the symmetry
+	 * @return new options
+	 */
+	public GeneratorOptions withSymmetry(final Symmetry symmetry) {
+		return new GeneratorOptions(Objects.requireNonNull(symmetry, "symmetry must not be null"), this.parallelism,
+				this.seed);
+	}
+
+	/**
+	 * Returns the number of threads used to generate multiple puzzles. Each puzzle
+	 * is generated by a single thread.
+	 *
+	 * @return the number of threads
+	 */
+	public int parallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Returns new options with the specified number of threads.
+	 *
+	 * @param parallelism the number of threads, at least one
+	 * @return new options
+	 */
+	public GeneratorOptions withParallelism(final int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+		return new GeneratorOptions(this.symmetry, parallelism, this.seed);
+	}
+
+	/**
+	 * Returns the seed of the random numbers. The same seed and symmetry always
+	 * generate the same puzzles in the same order, regardless of the number of
+	 * threads.
+	 *
+	 * @return the seed
+	 */
+	public long seed() {
+		return this.seed;
+	}
+
+	/**
+	 * Returns new options with the specified seed.
+	 *
+	 * @param seed the seed
+	 * @return new options
+	 * @see #seed()
+	 */
+	public GeneratorOptions withSeed(final long seed) {
+		return new GeneratorOptions(this.symmetry, this.parallelism, seed);
+	}
+}
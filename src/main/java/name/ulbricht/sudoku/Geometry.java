@@ -0,0 +1,261 @@
+package name.ulbricht.sudoku;
+
+/**
+ * Describes the layout of a grid with boxes of {@code n} by {@code n} cells,
+ * so the grid has {@code n * n} rows, columns, boxes and values. The tables of
+ * the units and peers of the cells are generated once for each supported box
+ * size when the class is loaded and shared by all grids of the same size.
+ * <p>
+ * The units of a grid are numbered like the units of the classic grid: the rows
+ * first, then the columns and then the boxes. The values of a unit or cell are
+ * stored as {@code int} bit masks, bit {@code v - 1} represents the value
+ * {@code v}.
+ */
+final class Geometry {
+
+	/**
+	 * The smallest supported box size (4 by 4 cells).
+	 */
+	static final int MIN_BOX_SIZE = 2;
+
+	/**
+	 * The largest supported box size (25 by 25 cells), the masks of all values
+	 * must fit into an {@code int}.
+	 */
+	static final int MAX_BOX_SIZE = 5;
+
+	private static final Geometry[] geometries = new Geometry[MAX_BOX_SIZE + 1];
+
+	static {
+		for (var boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; boxSize++)
+			geometries[boxSize] = new Geometry(boxSize);
+	}
+
+	/**
+	 * The geometry of the classic grid with 9 by 9 cells.
+	 */
+	static final Geometry CLASSIC = of(3);
+
+	/**
+	 * Returns the geometry for the specified box size.
+	 *
+	 * @param boxSize the number of rows and columns of a box
+	 * @return the geometry
+	 */
+	static Geometry of(final int boxSize) {
+		if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE)
+			throw new IllegalArgumentException("Invalid box size: " + boxSize);
+		return geometries[boxSize];
+	}
+
+	/**
+	 * Returns the geometry of the grids with the specified number of rows and
+	 * columns.
+	 *
+	 * @param size the number of rows and columns
+	 * @return the geometry or {@code null} if there is no supported grid of this
+	 *         size
+	 */
+	static Geometry ofSize(final int size) {
+		for (var boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; boxSize++) {
+			if (geometries[boxSize].size == size)
+				return geometries[boxSize];
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the geometry of the grids with the specified number of cells.
+	 *
+	 * @param cells the number of cells
+	 * @return the geometry or {@code null} if there is no supported grid with this
+	 *         number of cells
+	 */
+	static Geometry ofCells(final int cells) {
+		for (var boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; boxSize++) {
+			if (geometries[boxSize].cells == cells)
+				return geometries[boxSize];
+		}
+		return null;
+	}
+
+	private final int boxSize;
+	private final int size;
+	private final int cells;
+	private final int peers;
+	private final int allValues;
+
+	/**
+	 * These arrays map a cell index to the indices of its row, column and box
+	 * unit.
+	 */
+	private final short[] rowUnits;
+	private final short[] columnUnits;
+	private final short[] boxUnits;
+
+	/**
+	 * The indices of the cells of each unit. A row unit lists its cells by column,
+	 * a column unit by row and a box unit row by row.
+	 */
+	private final short[] unitCells;
+
+	/**
+	 * The indices of the peers of each cell. The peers of a cell are the other
+	 * cells in its box, followed by the cells of its row and then of its column
+	 * outside of the box.
+	 */
+	private final short[] peerCells;
+
+	private Geometry(final int boxSize) {
+		final var size = boxSize * boxSize;
+		this.boxSize = boxSize;
+		this.size = size;
+		this.cells = size * size;
+		this.peers = (size - 1) + (2 * (size - boxSize));
+		this.allValues = (1 << size) - 1;
+
+		this.rowUnits = new short[this.cells];
+		this.columnUnits = new short[this.cells];
+		this.boxUnits = new short[this.cells];
+		this.unitCells = new short[3 * size * size];
+		final var unitSizes = new int[3 * size];
+		for (var index = 0; index < this.cells; index++) {
+			final var row = index / size;
+			final var column = index % size;
+			this.rowUnits[index] = (short) row;
+			this.columnUnits[index] = (short) (size + column);
+			this.boxUnits[index] = (short) ((2 * size) + ((row / boxSize) * boxSize) + (column / boxSize));
+
+			for (final var unit : new int[] { this.rowUnits[index], this.columnUnits[index], this.boxUnits[index] })
+				this.unitCells[(unit * size) + unitSizes[unit]++] = (short) index;
+		}
+
+		this.peerCells = new short[this.cells * this.peers];
+		for (var index = 0; index < this.cells; index++) {
+			var i = index * this.peers;
+			final var box = this.boxUnits[index];
+			for (var j = 0; j < size; j++) {
+				final var peer = unitCell(box, j);
+				if (peer != index)
+					this.peerCells[i++] = (short) peer;
+			}
+			for (var j = 0; j < size; j++) {
+				final var peer = unitCell(this.rowUnits[index], j);
+				if (this.boxUnits[peer] != box)
+					this.peerCells[i++] = (short) peer;
+			}
+			for (var j = 0; j < size; j++) {
+				final var peer = unitCell(this.columnUnits[index], j);
+				if (this.boxUnits[peer] != box)
+					this.peerCells[i++] = (short) peer;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of rows and columns of a box.
+	 *
+	 * @return the box size
+	 */
+	int boxSize() {
+		return this.boxSize;
+	}
+
+	/**
+	 * Returns the number of rows, columns, boxes and values of the grid.
+	 *
+	 * @return the size of the grid
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the number of cells of the grid.
+	 *
+	 * @return the number of cells
+	 */
+	int cells() {
+		return this.cells;
+	}
+
+	/**
+	 * Returns the number of units (rows, columns and boxes) of the grid.
+	 *
+	 * @return the number of units
+	 */
+	int units() {
+		return 3 * this.size;
+	}
+
+	/**
+	 * Returns the number of peers of each cell.
+	 *
+	 * @return the number of peers
+	 */
+	int peers() {
+		return this.peers;
+	}
+
+	/**
+	 * Returns the mask with the bits of all values set.
+	 *
+	 * @return the mask of all values
+	 */
+	int allValues() {
+		return this.allValues;
+	}
+
+	/**
+	 * Returns the row unit of a cell.
+	 *
+	 * @param index the zero-based index of the cell
+	 * @return the unit
+	 */
+	int rowUnit(final int index) {
+		return this.rowUnits[index];
+	}
+
+	/**
+	 * Returns the column unit of a cell.
+	 *
+	 * @param index the zero-based index of the cell
+	 * @return the unit
+	 */
+	int columnUnit(final int index) {
+		return this.columnUnits[index];
+	}
+
+	/**
+	 * Returns the box unit of a cell.
+	 *
+	 * @param index the zero-based index of the cell
+	 * @return the unit
+	 */
+	int boxUnit(final int index) {
+		return this.boxUnits[index];
+	}
+
+	/**
+	 * Returns the index of a peer of the given cell.
+	 *
+	 * @param index the zero-based index of the cell
+	 * @param i     the number of the peer, less than {@link #peers()}
+	 * @return the zero-based index of the peer
+	 */
+	int peer(final int index, final int i) {
+		return this.peerCells[(index * this.peers) + i];
+	}
+
+	/**
+	 * Returns the index of a cell of the given unit.
+	 *
+	 * @param unit the unit
+	 * @param i    the number of the cell within the unit, less than
+	 *             {@link #size()}
+	 * @return the zero-based index of the cell
+	 */
+	int unitCell(final int unit, final int i) {
+		return this.unitCells[(unit * this.size) + i];
+	}
+}
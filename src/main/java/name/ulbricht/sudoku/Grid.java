@@ -4,9 +4,12 @@ import static java.lang.Math.abs;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Objects;
 
 /**
- * Represents a Sudoku grid with 9 by 9 cells.
+ * Represents a Sudoku grid with boxes of {@code n} by {@code n} cells. The
+ * classic grid has boxes of 3 by 3 cells, so it has 9 by 9 cells and the values
+ * 1 to 9. Grids with 16 by 16 and 25 by 25 cells are supported as well.
  */
 public final class Grid {
 
@@ -16,7 +19,17 @@ public final class Grid {
 	 * @return a new empty grid
 	 */
 	public static Grid empty() {
-		return new Grid();
+		return new Grid(Geometry.CLASSIC);
+	}
+
+	/**
+	 * Creates a new grid with the specified box size and all cells empty.
+	 * 
+	 * @param boxSize the number of rows and columns of a box (2 to 5)
+	 * @return a new empty grid with {@code boxSize * boxSize} rows and columns
+	 */
+	public static Grid empty(final int boxSize) {
+		return new Grid(Geometry.of(boxSize));
 	}
 
 	/**
@@ -62,104 +75,177 @@ public final class Grid {
 	}
 
 	/**
-	 * This array contains the indices of the cells a cell depends on. This is
-	 * pre-defined by performance reasons. Each cell depends on 8 cells in its box,
-	 * 6 cell in its row (outside of the box) and 6 cells in its column (outside of
-	 * the box). In the end, each cell has 20 dependencies. Therefore, this array
-	 * has 1.6020 entries (20 * 81).
-	 */
-	private static byte[] dependencies = { //
-			1, 2, 9, 10, 11, 18, 19, 20, 3, 4, 5, 6, 7, 8, 27, 36, 45, 54, 63, 72, // 0
-			0, 2, 9, 10, 11, 18, 19, 20, 3, 4, 5, 6, 7, 8, 28, 37, 46, 55, 64, 73, // 1
-			0, 1, 9, 10, 11, 18, 19, 20, 3, 4, 5, 6, 7, 8, 29, 38, 47, 56, 65, 74, // 2
-			4, 5, 12, 13, 14, 21, 22, 23, 0, 1, 2, 6, 7, 8, 30, 39, 48, 57, 66, 75, // 3
-			3, 5, 12, 13, 14, 21, 22, 23, 0, 1, 2, 6, 7, 8, 31, 40, 49, 58, 67, 76, // 4
-			3, 4, 12, 13, 14, 21, 22, 23, 0, 1, 2, 6, 7, 8, 32, 41, 50, 59, 68, 77, // 5
-			7, 8, 15, 16, 17, 24, 25, 26, 0, 1, 2, 3, 4, 5, 33, 42, 51, 60, 69, 78, // 6
-			6, 8, 15, 16, 17, 24, 25, 26, 0, 1, 2, 3, 4, 5, 34, 43, 52, 61, 70, 79, // 7
-			6, 7, 15, 16, 17, 24, 25, 26, 0, 1, 2, 3, 4, 5, 35, 44, 53, 62, 71, 80, // 8
-			0, 1, 2, 10, 11, 18, 19, 20, 12, 13, 14, 15, 16, 17, 27, 36, 45, 54, 63, 72, // 9
-			0, 1, 2, 9, 11, 18, 19, 20, 12, 13, 14, 15, 16, 17, 28, 37, 46, 55, 64, 73, // 10
-			0, 1, 2, 9, 10, 18, 19, 20, 12, 13, 14, 15, 16, 17, 29, 38, 47, 56, 65, 74, // 11
-			3, 4, 5, 13, 14, 21, 22, 23, 9, 10, 11, 15, 16, 17, 30, 39, 48, 57, 66, 75, // 12
-			3, 4, 5, 12, 14, 21, 22, 23, 9, 10, 11, 15, 16, 17, 31, 40, 49, 58, 67, 76, // 13
-			3, 4, 5, 12, 13, 21, 22, 23, 9, 10, 11, 15, 16, 17, 32, 41, 50, 59, 68, 77, // 14
-			6, 7, 8, 16, 17, 24, 25, 26, 9, 10, 11, 12, 13, 14, 33, 42, 51, 60, 69, 78, // 15
-			6, 7, 8, 15, 17, 24, 25, 26, 9, 10, 11, 12, 13, 14, 34, 43, 52, 61, 70, 79, // 16
-			6, 7, 8, 15, 16, 24, 25, 26, 9, 10, 11, 12, 13, 14, 35, 44, 53, 62, 71, 80, // 17
-			0, 1, 2, 9, 10, 11, 19, 20, 21, 22, 23, 24, 25, 26, 27, 36, 45, 54, 63, 72, // 18
-			0, 1, 2, 9, 10, 11, 18, 20, 21, 22, 23, 24, 25, 26, 28, 37, 46, 55, 64, 73, // 19
-			0, 1, 2, 9, 10, 11, 18, 19, 21, 22, 23, 24, 25, 26, 29, 38, 47, 56, 65, 74, // 20
-			3, 4, 5, 12, 13, 14, 22, 23, 18, 19, 20, 24, 25, 26, 30, 39, 48, 57, 66, 75, // 21
-			3, 4, 5, 12, 13, 14, 21, 23, 18, 19, 20, 24, 25, 26, 31, 40, 49, 58, 67, 76, // 22
-			3, 4, 5, 12, 13, 14, 21, 22, 18, 19, 20, 24, 25, 26, 32, 41, 50, 59, 68, 77, // 23
-			6, 7, 8, 15, 16, 17, 25, 26, 18, 19, 20, 21, 22, 23, 33, 42, 51, 60, 69, 78, // 24
-			6, 7, 8, 15, 16, 17, 24, 26, 18, 19, 20, 21, 22, 23, 34, 43, 52, 61, 70, 79, // 25
-			6, 7, 8, 15, 16, 17, 24, 25, 18, 19, 20, 21, 22, 23, 35, 44, 53, 62, 71, 80, // 26
-			28, 29, 36, 37, 38, 45, 46, 47, 30, 31, 32, 33, 34, 35, 0, 9, 18, 54, 63, 72, // 27
-			27, 29, 36, 37, 38, 45, 46, 47, 30, 31, 32, 33, 34, 35, 1, 10, 19, 55, 64, 73, // 28
-			27, 28, 36, 37, 38, 45, 46, 47, 30, 31, 32, 33, 34, 35, 2, 11, 20, 56, 65, 74, // 29
-			31, 32, 39, 40, 41, 48, 49, 50, 27, 28, 29, 33, 34, 35, 3, 12, 21, 57, 66, 75, // 30
-			30, 32, 39, 40, 41, 48, 49, 50, 27, 28, 29, 33, 34, 35, 4, 13, 22, 58, 67, 76, // 31
-			30, 31, 39, 40, 41, 48, 49, 50, 27, 28, 29, 33, 34, 35, 5, 14, 23, 59, 68, 77, // 32
-			34, 35, 42, 43, 44, 51, 52, 53, 27, 28, 29, 30, 31, 32, 6, 15, 24, 60, 69, 78, // 33
-			33, 35, 42, 43, 44, 51, 52, 53, 27, 28, 29, 30, 31, 32, 7, 16, 25, 61, 70, 79, // 34
-			33, 34, 42, 43, 44, 51, 52, 53, 27, 28, 29, 30, 31, 32, 8, 17, 26, 62, 71, 80, // 35
-			27, 28, 29, 37, 38, 45, 46, 47, 39, 40, 41, 42, 43, 44, 0, 9, 18, 54, 63, 72, // 36
-			27, 28, 29, 36, 38, 45, 46, 47, 39, 40, 41, 42, 43, 44, 1, 10, 19, 55, 64, 73, // 37
-			27, 28, 29, 36, 37, 45, 46, 47, 39, 40, 41, 42, 43, 44, 2, 11, 20, 56, 65, 74, // 38
-			30, 31, 32, 40, 41, 48, 49, 50, 36, 37, 38, 42, 43, 44, 3, 12, 21, 57, 66, 75, // 39
-			30, 31, 32, 39, 41, 48, 49, 50, 36, 37, 38, 42, 43, 44, 4, 13, 22, 58, 67, 76, // 40
-			30, 31, 32, 39, 40, 48, 49, 50, 36, 37, 38, 42, 43, 44, 5, 14, 23, 59, 68, 77, // 41
-			33, 34, 35, 43, 44, 51, 52, 53, 36, 37, 38, 39, 40, 41, 6, 15, 24, 60, 69, 78, // 42
-			33, 34, 35, 42, 44, 51, 52, 53, 36, 37, 38, 39, 40, 41, 7, 16, 25, 61, 70, 79, // 43
-			33, 34, 35, 42, 43, 51, 52, 53, 36, 37, 38, 39, 40, 41, 8, 17, 26, 62, 71, 80, // 44
-			27, 28, 29, 36, 37, 38, 46, 47, 48, 49, 50, 51, 52, 53, 0, 9, 18, 54, 63, 72, // 45
-			27, 28, 29, 36, 37, 38, 45, 47, 48, 49, 50, 51, 52, 53, 1, 10, 19, 55, 64, 73, // 46
-			27, 28, 29, 36, 37, 38, 45, 46, 48, 49, 50, 51, 52, 53, 2, 11, 20, 56, 65, 74, // 47
-			30, 31, 32, 39, 40, 41, 49, 50, 45, 46, 47, 51, 52, 53, 3, 12, 21, 57, 66, 75, // 48
-			30, 31, 32, 39, 40, 41, 48, 50, 45, 46, 47, 51, 52, 53, 4, 13, 22, 58, 67, 76, // 49
-			30, 31, 32, 39, 40, 41, 48, 49, 45, 46, 47, 51, 52, 53, 5, 14, 23, 59, 68, 77, // 50
-			33, 34, 35, 42, 43, 44, 52, 53, 45, 46, 47, 48, 49, 50, 6, 15, 24, 60, 69, 78, // 51
-			33, 34, 35, 42, 43, 44, 51, 53, 45, 46, 47, 48, 49, 50, 7, 16, 25, 61, 70, 79, // 52
-			33, 34, 35, 42, 43, 44, 51, 52, 45, 46, 47, 48, 49, 50, 8, 17, 26, 62, 71, 80, // 53
-			55, 56, 63, 64, 65, 72, 73, 74, 57, 58, 59, 60, 61, 62, 0, 9, 18, 27, 36, 45, // 54
-			54, 56, 63, 64, 65, 72, 73, 74, 57, 58, 59, 60, 61, 62, 1, 10, 19, 28, 37, 46, // 55
-			54, 55, 63, 64, 65, 72, 73, 74, 57, 58, 59, 60, 61, 62, 2, 11, 20, 29, 38, 47, // 56
-			58, 59, 66, 67, 68, 75, 76, 77, 54, 55, 56, 60, 61, 62, 3, 12, 21, 30, 39, 48, // 57
-			57, 59, 66, 67, 68, 75, 76, 77, 54, 55, 56, 60, 61, 62, 4, 13, 22, 31, 40, 49, // 58
-			57, 58, 66, 67, 68, 75, 76, 77, 54, 55, 56, 60, 61, 62, 5, 14, 23, 32, 41, 50, // 59
-			61, 62, 69, 70, 71, 78, 79, 80, 54, 55, 56, 57, 58, 59, 6, 15, 24, 33, 42, 51, // 60
-			60, 62, 69, 70, 71, 78, 79, 80, 54, 55, 56, 57, 58, 59, 7, 16, 25, 34, 43, 52, // 61
-			60, 61, 69, 70, 71, 78, 79, 80, 54, 55, 56, 57, 58, 59, 8, 17, 26, 35, 44, 53, // 62
-			54, 55, 56, 64, 65, 72, 73, 74, 66, 67, 68, 69, 70, 71, 0, 9, 18, 27, 36, 45, // 63
-			54, 55, 56, 63, 65, 72, 73, 74, 66, 67, 68, 69, 70, 71, 1, 10, 19, 28, 37, 46, // 64
-			54, 55, 56, 63, 64, 72, 73, 74, 66, 67, 68, 69, 70, 71, 2, 11, 20, 29, 38, 47, // 65
-			57, 58, 59, 67, 68, 75, 76, 77, 63, 64, 65, 69, 70, 71, 3, 12, 21, 30, 39, 48, // 66
-			57, 58, 59, 66, 68, 75, 76, 77, 63, 64, 65, 69, 70, 71, 4, 13, 22, 31, 40, 49, // 67
-			57, 58, 59, 66, 67, 75, 76, 77, 63, 64, 65, 69, 70, 71, 5, 14, 23, 32, 41, 50, // 68
-			60, 61, 62, 70, 71, 78, 79, 80, 63, 64, 65, 66, 67, 68, 6, 15, 24, 33, 42, 51, // 69
-			60, 61, 62, 69, 71, 78, 79, 80, 63, 64, 65, 66, 67, 68, 7, 16, 25, 34, 43, 52, // 70
-			60, 61, 62, 69, 70, 78, 79, 80, 63, 64, 65, 66, 67, 68, 8, 17, 26, 35, 44, 53, // 71
-			54, 55, 56, 63, 64, 65, 73, 74, 75, 76, 77, 78, 79, 80, 0, 9, 18, 27, 36, 45, // 72
-			54, 55, 56, 63, 64, 65, 72, 74, 75, 76, 77, 78, 79, 80, 1, 10, 19, 28, 37, 46, // 73
-			54, 55, 56, 63, 64, 65, 72, 73, 75, 76, 77, 78, 79, 80, 2, 11, 20, 29, 38, 47, // 74
-			57, 58, 59, 66, 67, 68, 76, 77, 72, 73, 74, 78, 79, 80, 3, 12, 21, 30, 39, 48, // 75
-			57, 58, 59, 66, 67, 68, 75, 77, 72, 73, 74, 78, 79, 80, 4, 13, 22, 31, 40, 49, // 76
-			57, 58, 59, 66, 67, 68, 75, 76, 72, 73, 74, 78, 79, 80, 5, 14, 23, 32, 41, 50, // 77
-			60, 61, 62, 69, 70, 71, 79, 80, 72, 73, 74, 75, 76, 77, 6, 15, 24, 33, 42, 51, // 78
-			60, 61, 62, 69, 70, 71, 78, 80, 72, 73, 74, 75, 76, 77, 7, 16, 25, 34, 43, 52, // 79
-			60, 61, 62, 69, 70, 71, 78, 79, 72, 73, 74, 75, 76, 77, 8, 17, 26, 35, 44, 53,// 80
-	};
+	 * The number of long values of a packed grid.
+	 * 
+	 * @see #pack()
+	 */
+	public static final int PACKED_LENGTH = 7;
+
+	/**
+	 * The position of the first lock flag in a packed grid.
+	 */
+	private static final int LOCK_OFFSET = 81 * 4;
+
+	/**
+	 * Creates a new grid from values and locks packed by {@link #pack()}.
+	 * 
+	 * @param packed the packed grid
+	 * @return a new grid
+	 * @throws RuleViolationException if the values violate the Sudoku rules
+	 * @see #pack()
+	 */
+	public static Grid unpack(final long[] packed) {
+		if (packed.length != PACKED_LENGTH)
+			throw new IllegalArgumentException("Invalid array length: " + packed.length);
+
+		final var grid = new Grid(Geometry.CLASSIC);
+		for (var index = 0; index < 81; index++) {
+			final var valueBit = index * 4;
+			final var value = grid.validValue((int) (packed[valueBit >>> 6] >>> (valueBit & 63)) & 0xF);
+			final var lockBit = LOCK_OFFSET + index;
+			final var locked = (packed[lockBit >>> 6] & (1L << (lockBit & 63))) != 0;
+
+			if (value != 0) {
+				grid.validateRules(index, value);
+				grid.updateUnits(index, 0, value);
+				grid.values[index] = (byte) (locked ? -value : value);
+			} else if (locked)
+				throw new IllegalArgumentException("Cannot lock empty cell");
+		}
+		return grid;
+	}
+
+	/**
+	 * Creates a new grid from values that have been checked against the Sudoku
+	 * rules already. The arrays are used by the grid and must not be modified
+	 * afterwards.
+	 * 
+	 * @param geometry the geometry of the grid
+	 * @param values   the values of the cells, negative values are locked
+	 * @param units    the masks of the used values of each unit
+	 * @return a new grid
+	 */
+	static Grid of(final Geometry geometry, final byte[] values, final int[] units) {
+		return new Grid(geometry, values, units);
+	}
+
+	/**
+	 * Returns the row unit of a cell of the classic grid.
+	 * 
+	 * @param index the zero-based index of the cell
+	 * @return the unit (0 to 8)
+	 */
+	static int rowUnit(final int index) {
+		return Geometry.CLASSIC.rowUnit(index);
+	}
+
+	/**
+	 * Returns the column unit of a cell of the classic grid.
+	 * 
+	 * @param index the zero-based index of the cell
+	 * @return the unit (9 to 17)
+	 */
+	static int columnUnit(final int index) {
+		return Geometry.CLASSIC.columnUnit(index);
+	}
+
+	/**
+	 * Returns the box unit of a cell of the classic grid.
+	 * 
+	 * @param index the zero-based index of the cell
+	 * @return the unit (18 to 26)
+	 */
+	static int boxUnit(final int index) {
+		return Geometry.CLASSIC.boxUnit(index);
+	}
+
+	/**
+	 * Returns the index of a cell the given cell of the classic grid depends on.
+	 * Each cell depends on 8 cells in its box, 6 cells in its row (outside of the
+	 * box) and 6 cells in its column (outside of the box).
+	 * 
+	 * @param index the zero-based index of the cell
+	 * @param i     the number of the dependency (0 to 19)
+	 * @return the zero-based index of the dependent cell
+	 */
+	static int peer(final int index, final int i) {
+		return Geometry.CLASSIC.peer(index, i);
+	}
+
+	/**
+	 * Returns the index of a cell of the given unit of the classic grid.
+	 * 
+	 * @param unit the unit (rows 0 to 8, columns 9 to 17, boxes 18 to 26)
+	 * @param i    the number of the cell within the unit (0 to 8)
+	 * @return the zero-based index of the cell
+	 */
+	static int unitCell(final int unit, final int i) {
+		return Geometry.CLASSIC.unitCell(unit, i);
+	}
+
+	/**
+	 * Checks that the specified grid is a classic grid with 9 by 9 cells.
+	 * 
+	 * @param grid the grid to check
+	 * @return the given grid
+	 */
+	static Grid requireClassic(final Grid grid) {
+		if (grid.geometry != Geometry.CLASSIC)
+			throw new IllegalArgumentException("Invalid grid size: " + grid.size());
+		return grid;
+	}
 
+	private final Geometry geometry;
 	private final byte[] values;
 
-	private Grid() {
-		this.values = new byte[81];
+	/**
+	 * Contains a mask of the digits used for each row, column and box. Bit
+	 * {@code n - 1} is set if the value {@code n} exists in the unit. The masks are
+	 * kept in sync with {@link #values} by every modification.
+	 */
+	private final int[] units;
+
+	/**
+	 * The listeners notified about changes or {@code null} if there are none.
+	 * Copies of a grid do not inherit the listeners.
+	 */
+	private GridListener[] listeners;
+
+	private Grid(final Geometry geometry) {
+		this.geometry = geometry;
+		this.values = new byte[geometry.cells()];
+		this.units = new int[geometry.units()];
+	}
+
+	private Grid(final Geometry geometry, final byte[] values, final int[] units) {
+		this.geometry = geometry;
+		this.values = values;
+		this.units = units;
 	}
 
 	private Grid(final Grid other) {
-		this.values = Arrays.copyOf(other.values, 81);
+		this.geometry = other.geometry;
+		this.values = other.values.clone();
+		this.units = other.units.clone();
+	}
+
+	/**
+	 * Returns the number of rows and columns of a box.
+	 * 
+	 * @return the box size, 3 for the classic grid
+	 */
+	public int boxSize() {
+		return this.geometry.boxSize();
+	}
+
+	/**
+	 * Returns the number of rows and columns of this grid, which is also the
+	 * largest value of a cell.
+	 * 
+	 * @return the size, 9 for the classic grid
+	 */
+	public int size() {
+		return this.geometry.size();
 	}
 
 	/**
@@ -195,7 +281,11 @@ public final class Grid {
 			throw new RuleViolationException("Cannot change a locked cell");
 		if (currentValue != newValue) {
 			validateRules(index, validValue(newValue));
+			final var masks = this.listeners != null ? peerCandidateMasks(index) : null;
+			updateUnits(index, currentValue, newValue);
 			this.values[index] = (byte) newValue;
+			if (masks != null)
+				fireChanged(index, currentValue, newValue, masks);
 		}
 	}
 
@@ -239,9 +329,15 @@ public final class Grid {
 			throw new IllegalArgumentException("Cannot lock empty cell");
 		final var index = index(column, row);
 		final var currentValue = this.values[index];
-		if (abs(currentValue) != newValue)
+		if (abs(currentValue) != newValue) {
 			validateRules(index, newValue);
-		this.values[index] = (byte) -newValue;
+			final var masks = this.listeners != null ? peerCandidateMasks(index) : null;
+			updateUnits(index, abs(currentValue), newValue);
+			this.values[index] = (byte) -newValue;
+			if (masks != null)
+				fireChanged(index, abs(currentValue), newValue, masks);
+		} else
+			this.values[index] = (byte) -newValue;
 	}
 
 	/**
@@ -271,8 +367,55 @@ public final class Grid {
 			this.values[index] = (byte) abs(currentValue);
 	}
 
+	/**
+	 * Adds a listener that is notified about the changes of values and candidates
+	 * by {@link #set(int, int, int)}, {@link #clear(int, int)} and
+	 * {@link #lock(int, int, int)}. The listeners are called in the order they
+	 * were added, after the grid has been changed.
+	 * 
+	 * @param listener the listener to add
+	 * @see #removeListener(GridListener)
+	 */
+	public void addListener(final GridListener listener) {
+		Objects.requireNonNull(listener, "listener must not be null");
+		final var listeners = this.listeners;
+		if (listeners == null)
+			this.listeners = new GridListener[] { listener };
+		else {
+			final var newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+			newListeners[listeners.length] = listener;
+			this.listeners = newListeners;
+		}
+	}
+
+	/**
+	 * Removes a listener that was added before. Nothing happens if the listener
+	 * was not added.
+	 * 
+	 * @param listener the listener to remove
+	 * @see #addListener(GridListener)
+	 */
+	public void removeListener(final GridListener listener) {
+		final var listeners = this.listeners;
+		if (listeners == null)
+			return;
+		for (var i = 0; i < listeners.length; i++) {
+			if (listeners[i] == listener) {
+				if (listeners.length == 1)
+					this.listeners = null;
+				else {
+					final var newListeners = new GridListener[listeners.length - 1];
+					System.arraycopy(listeners, 0, newListeners, 0, i);
+					System.arraycopy(listeners, i + 1, newListeners, i, newListeners.length - i);
+					this.listeners = newListeners;
+				}
+				return;
+			}
+		}
+	}
+
 	public boolean solved() {
-		for (var index = 0; index < 81; index++) {
+		for (var index = 0; index < this.values.length; index++) {
 			if (this.values[index] == 0)
 				return false;
 		}
@@ -291,51 +434,286 @@ public final class Grid {
 	 * @return an array with candidates or {@code null}
 	 */
 	public int[] candidates(final int column, final int row) {
-		final var index = index(column, row);
-		if (this.values[index] != 0)
+		var mask = candidateMask(index(column, row));
+		if (mask == 0)
 			return null;
 
-		final var candidates = new int[9];
-		var candidatesdIndex = 0;
+		final var candidates = new int[Integer.bitCount(mask)];
+		for (var i = 0; mask != 0; i++) {
+			candidates[i] = Integer.numberOfTrailingZeros(mask) + 1;
+			mask &= mask - 1;
+		}
+		return candidates;
+	}
 
-		final var dependenciesIndex = index(column, row) * 20;
+	/**
+	 * Returns the values that will be candidates for this cell as a bit mask. Bit
+	 * {@code n - 1} is set if the value {@code n} is a candidate. If the cell
+	 * already has a value or there are no candidates for this cell, zero is
+	 * returned. In contrast to {@link #candidates(int, int)} this method does not
+	 * allocate any memory.
+	 * 
+	 * @param column the column index of the cell (one-based)
+	 * @param row    the row index of the cell (one-based)
+	 * @return a mask with the candidates, 9 bits for the classic grid
+	 * @see #candidates(int, int)
+	 */
+	public int candidateMask(final int column, final int row) {
+		return candidateMask(index(column, row));
+	}
 
-		for (var value = 1; value <= 9; value++) {
+	/**
+	 * Fills the candidate masks of all cells into the specified array. The masks
+	 * are stored row by row, the mask of a cell is stored at the index
+	 * {@code (row - 1) * size + (column - 1)}. The content of each mask is the same
+	 * as returned by {@link #candidateMask(int, int)}. Short masks can hold the
+	 * candidates of grids with up to 16 values.
+	 * 
+	 * @param masks an array with at least one element for each cell to fill
+	 * @return the given array
+	 * @see #candidateMask(int, int)
+	 * @see #candidateMasks(int[])
+	 */
+	public short[] candidateMasks(final short[] masks) {
+		if (this.geometry.size() > Short.SIZE)
+			throw new IllegalStateException("Too many values for short masks: " + this.geometry.size());
+		if (masks.length < this.values.length)
+			throw new IllegalArgumentException("Invalid array length: " + masks.length);
+		fillCandidateMasks(masks);
+		return masks;
+	}
 
-			var exists = false;
+	/**
+	 * Fills the candidate masks of all cells into the specified array. The masks
+	 * are stored row by row, the mask of a cell is stored at the index
+	 * {@code (row - 1) * size + (column - 1)}. The content of each mask is the same
+	 * as returned by {@link #candidateMask(int, int)}.
+	 * 
+	 * @param masks an array with at least one element for each cell to fill
+	 * @return the given array
+	 * @see #candidateMask(int, int)
+	 */
+	public int[] candidateMasks(final int[] masks) {
+		if (masks.length < this.values.length)
+			throw new IllegalArgumentException("Invalid array length: " + masks.length);
+		for (var index = 0; index < this.values.length; index++)
+			masks[index] = candidateMask(index);
+		return masks;
+	}
 
-			for (var i = dependenciesIndex; i < (dependenciesIndex + 20); i++) {
-				if (abs(this.values[dependencies[i]]) == value) {
-					exists = true;
-					break;
+	/**
+	 * Returns the values and locks of this grid packed into 7 long values. Each
+	 * cell value uses 4 bits, starting with the first cell in the lowest bits of
+	 * the first long (324 bits). The following 81 bits contain the lock flags of
+	 * the cells in the same order. Only classic grids can be packed.
+	 * 
+	 * @return a new array with {@link #PACKED_LENGTH} elements
+	 * @see #unpack(long[])
+	 */
+	public long[] pack() {
+		if (this.geometry != Geometry.CLASSIC)
+			throw new IllegalStateException("Cannot pack grid of size " + this.geometry.size());
+		final var packed = new long[PACKED_LENGTH];
+		for (var index = 0; index < 81; index++) {
+			final var value = this.values[index];
+			if (value != 0) {
+				final var valueBit = index * 4;
+				packed[valueBit >>> 6] |= (long) abs(value) << (valueBit & 63);
+				if (value < 0) {
+					final var lockBit = LOCK_OFFSET + index;
+					packed[lockBit >>> 6] |= 1L << (lockBit & 63);
 				}
 			}
+		}
+		return packed;
+	}
 
-			if (!exists) {
-				candidates[candidatesdIndex] = value;
-				candidatesdIndex++;
-			}
+	/**
+	 * Returns the candidate mask of the cell with the given zero-based index. The
+	 * index is not checked.
+	 * 
+	 * @param index the zero-based index of the cell
+	 * @return a mask with the candidates
+	 */
+	int candidateMask(final int index) {
+		if (this.values[index] != 0)
+			return 0;
+		return ~usedValues(index) & this.geometry.allValues();
+	}
+
+	/**
+	 * Fills the candidate masks of all cells into the specified array. The length
+	 * of the array is not checked.
+	 * 
+	 * @param masks an array with at least one element for each cell to fill
+	 */
+	void fillCandidateMasks(final short[] masks) {
+		final var values = this.values;
+		final var units = this.units;
+		final var geometry = this.geometry;
+		final var allValues = geometry.allValues();
+		for (var index = 0; index < values.length; index++) {
+			masks[index] = values[index] != 0 ? 0
+					: (short) (~(units[geometry.rowUnit(index)] | units[geometry.columnUnit(index)]
+							| units[geometry.boxUnit(index)]) & allValues);
 		}
+	}
+
+	/**
+	 * Returns the geometry of this grid.
+	 * 
+	 * @return the geometry
+	 */
+	Geometry geometry() {
+		return this.geometry;
+	}
+
+	/**
+	 * Returns the (positive) value of the cell with the given zero-based index. The
+	 * index is not checked.
+	 * 
+	 * @param index the zero-based index of the cell
+	 * @return the value of the cell or zero if the cell is empty
+	 */
+	int value(final int index) {
+		return abs(this.values[index]);
+	}
 
-		if (candidatesdIndex > 0)
-			return Arrays.copyOf(candidates, candidatesdIndex);
+	/**
+	 * Sets the value of an empty cell with the given zero-based index. The index
+	 * and the Sudoku rules are not checked, the value must be a candidate of the
+	 * cell.
+	 * 
+	 * @param index the zero-based index of the cell
+	 * @param value the new value of the cell
+	 */
+	void place(final int index, final int value) {
+		updateUnits(index, 0, value);
+		this.values[index] = (byte) value;
+	}
+
+	/**
+	 * Empties the cell with the given zero-based index. The index is not checked,
+	 * the cell must not be locked.
+	 * 
+	 * @param index the zero-based index of the cell
+	 * @see #place(int, int)
+	 */
+	void remove(final int index) {
+		updateUnits(index, this.values[index], 0);
+		this.values[index] = 0;
+	}
 
-		return null;
+	/**
+	 * Returns the number of empty cells.
+	 * 
+	 * @return the number of empty cells
+	 */
+	int emptyCells() {
+		var emptyCells = 0;
+		for (var index = 0; index < this.values.length; index++) {
+			if (this.values[index] == 0)
+				emptyCells++;
+		}
+		return emptyCells;
 	}
 
-	private static int validValue(final int value) {
-		if (value < 0 || value > 9)
+	/**
+	 * Returns the mask of all values used in the given unit.
+	 * 
+	 * @param unit the unit (rows, then columns, then boxes)
+	 * @return a mask of the used values
+	 */
+	int unitMask(final int unit) {
+		return this.units[unit];
+	}
+
+	private int validValue(final int value) {
+		if (value < 0 || value > this.geometry.size())
 			throw new IllegalArgumentException("Invalid value: " + value);
 		return value;
 	}
 
 	private void validateRules(final int index, final int newValue) throws RuleViolationException {
 		if (newValue != 0) {
-			final var dependenciesIndex = index * 20;
+			// the own value of the cell is not a violation
+			final var ownValue = abs(this.values[index]);
+			final var ownBit = ownValue != 0 ? 1 << (ownValue - 1) : 0;
+			if (((usedValues(index) & ~ownBit) & (1 << (newValue - 1))) != 0)
+				throw new RuleViolationException(String.format("value %d already exists", newValue));
+		}
+	}
 
-			for (var i = dependenciesIndex; i < (dependenciesIndex + 20); i++) {
-				if (abs(this.values[dependencies[i]]) == newValue)
-					throw new RuleViolationException(String.format("value %d already exists", newValue));
+	/**
+	 * Returns the mask of all values used in the row, column and box of the
+	 * specified cell.
+	 * 
+	 * @param index the zero-based index of the cell
+	 * @return a mask of the used values
+	 */
+	private int usedValues(final int index) {
+		final var geometry = this.geometry;
+		return this.units[geometry.rowUnit(index)] | this.units[geometry.columnUnit(index)]
+				| this.units[geometry.boxUnit(index)];
+	}
+
+	/**
+	 * Replaces the old value of a cell by the new value in the masks of its row,
+	 * column and box.
+	 * 
+	 * @param index    the zero-based index of the cell
+	 * @param oldValue the old (positive) value or zero
+	 * @param newValue the new (positive) value or zero
+	 */
+	private void updateUnits(final int index, final int oldValue, final int newValue) {
+		final var delta = (oldValue != 0 ? 1 << (oldValue - 1) : 0) ^ (newValue != 0 ? 1 << (newValue - 1) : 0);
+		final var geometry = this.geometry;
+		this.units[geometry.rowUnit(index)] ^= delta;
+		this.units[geometry.columnUnit(index)] ^= delta;
+		this.units[geometry.boxUnit(index)] ^= delta;
+	}
+
+	/**
+	 * Returns the candidate masks of a cell and its peers. The mask of the cell is
+	 * stored at the last element, the masks of the peers in the order of
+	 * {@link Geometry#peer(int, int)}.
+	 * 
+	 * @param index the zero-based index of the cell
+	 * @return a new array with the masks
+	 */
+	private int[] peerCandidateMasks(final int index) {
+		final var peers = this.geometry.peers();
+		final var masks = new int[peers + 1];
+		for (var i = 0; i < peers; i++)
+			masks[i] = candidateMask(this.geometry.peer(index, i));
+		masks[peers] = candidateMask(index);
+		return masks;
+	}
+
+	/**
+	 * Notifies the listeners about a changed value and all candidate masks that
+	 * differ from the masks before the change.
+	 * 
+	 * @param index    the zero-based index of the changed cell
+	 * @param oldValue the old (positive) value or zero
+	 * @param newValue the new (positive) value or zero
+	 * @param masks    the masks of {@link #peerCandidateMasks(int)} before the
+	 *                 change
+	 */
+	private void fireChanged(final int index, final int oldValue, final int newValue, final int[] masks) {
+		final var size = this.geometry.size();
+		final var peers = this.geometry.peers();
+		for (final var listener : this.listeners) {
+			listener.valueChanged(this, (index % size) + 1, (index / size) + 1, oldValue, newValue);
+
+			final var mask = candidateMask(index);
+			if (mask != masks[peers])
+				listener.candidatesChanged(this, (index % size) + 1, (index / size) + 1, masks[peers], mask);
+			for (var i = 0; i < peers; i++) {
+				final var peer = this.geometry.peer(index, i);
+				final var peerMask = candidateMask(peer);
+				if (peerMask != masks[i])
+					listener.candidatesChanged(this, (peer % size) + 1, (peer / size) + 1, masks[i], peerMask);
 			}
 		}
 	}
@@ -347,17 +725,18 @@ public final class Grid {
 	 * @param row    a one-based row
 	 * @return a zero-based one-dimensional index
 	 */
-	private static int index(final int column, final int row) {
-		if (column < 1 || column > 9)
+	private int index(final int column, final int row) {
+		final var size = this.geometry.size();
+		if (column < 1 || column > size)
 			throw new IllegalArgumentException("Invalid column: " + column);
-		if (row < 1 || row > 9)
+		if (row < 1 || row > size)
 			throw new IllegalArgumentException("Invalid row: " + row);
-		return ((row - 1) * 9) + (column - 1);
+		return ((row - 1) * size) + (column - 1);
 	}
 
 	@Override
 	public int hashCode() {
-		return this.values.hashCode();
+		return Arrays.hashCode(this.values);
 	}
 
 	@Override
@@ -372,21 +751,23 @@ public final class Grid {
 
 	@Override
 	public String toString() {
-		final var line = "-".repeat(31) + '\n';
+		final var size = this.geometry.size();
+		final var boxSize = this.geometry.boxSize();
+		final var line = "-".repeat(1 + (size * 3) + boxSize) + '\n';
 		final var sb = new StringBuilder(line);
 
-		for (var row = 1; row <= 9; row++) {
+		for (var row = 1; row <= size; row++) {
 			sb.append('|');
-			for (var column = 1; column <= 9; column++) {
+			for (var column = 1; column <= size; column++) {
 				final var value = this.values[index(column, row)];
 				sb.append(value < 0 ? '<' : ' ');
-				sb.append(value != 0 ? (char) (abs(value) + 0x30) : '.');
+				sb.append(value != 0 ? GridFile.symbol(abs(value)) : '.');
 				sb.append(value < 0 ? '>' : ' ');
-				if (column % 3 == 0)
+				if (column % boxSize == 0)
 					sb.append('|');
 			}
 			sb.append('\n');
-			if (row % 3 == 0)
+			if (row % boxSize == 0)
 				sb.append(line);
 		}
 
@@ -18,11 +18,42 @@ import java.nio.file.Path;
  * representing the cells in the rows. The characters '1' to '9' representing
  * the cell values, a single dot represents an empty cell. Empty lines and lines
  * starting with the comment character '#' are ignored.
+ * <p>
+ * Larger grids are written the same way with 16 or 25 lines of 16 or 25
+ * characters, the size of the grid is defined by the length of the first line.
+ * The values from 10 are represented by the letters 'A' to 'P'.
  */
 public final class GridFile {
 
 	private static final char COMMENT_PREFIX = '#';
 	private static final char EMPTY_CELL = '.';
+	private static final String FORMAT = "block";
+
+	/**
+	 * Returns the character representing a value.
+	 * 
+	 * @param value the value (1 to 25)
+	 * @return the character
+	 */
+	static char symbol(final int value) {
+		return (char) (value < 10 ? '0' + value : 'A' + (value - 10));
+	}
+
+	/**
+	 * Returns the value represented by a character.
+	 * 
+	 * @param c the character
+	 * @return the value or -1 if the character does not represent a value
+	 */
+	static int value(final char c) {
+		if (c >= '0' && c <= '9')
+			return c - '0';
+		if (c >= 'A' && c <= 'Z')
+			return (c - 'A') + 10;
+		if (c >= 'a' && c <= 'z')
+			return (c - 'a') + 10;
+		return -1;
+	}
 
 	/**
 	 * Parses the content of the given file and creates a new grid. All non-empty
@@ -97,25 +128,33 @@ public final class GridFile {
 	 * @throws IOException if there is a problem reading the data
 	 */
 	public static Grid parse(final Reader in, final boolean locked) throws IOException {
+		final var event = new GridFileEvent();
+		event.begin();
 		try (final var br = new BufferedReader(in)) {
-			final var grid = Grid.empty();
+			Grid grid = null;
 
 			var row = 1;
 			String line = null;
 			while ((line = br.readLine()) != null) {
-				if (row > 9)
-					throw new IOException("Too many rows");
-
 				if (line.length() > 0 && line.charAt(0) == COMMENT_PREFIX)
 					continue;
 
+				if (grid == null) {
+					final var geometry = Geometry.ofSize(line.length());
+					if (geometry == null)
+						throw new IOException("Unexpected line length: " + line.length());
+					grid = Grid.empty(geometry.boxSize());
+				} else if (row > grid.size())
+					throw new IOException("Too many rows");
+
 				parseLine(grid, row, line, locked);
 				row++;
 			}
 
-			if (row < 9)
+			if (grid == null || row <= grid.size())
 				throw new IOException("Too few rows");
 
+			event.finish(GridFileEvent.PARSE, FORMAT, 1, 0, 0);
 			return grid;
 		}
 	}
@@ -157,17 +196,18 @@ public final class GridFile {
 	 */
 	private static void parseLine(final Grid grid, final int row, final String line, final boolean locked)
 			throws IOException {
-		if (line.length() != 9)
+		final var size = grid.size();
+		if (line.length() != size)
 			throw new IOException("Unexpected line length: " + line.length());
 
-		for (var column = 1; column <= 9; column++) {
+		for (var column = 1; column <= size; column++) {
 			var c = line.charAt(column - 1);
 
 			if (c == EMPTY_CELL)
 				continue;
 
 			try {
-				final var value = c - 0x30;
+				final var value = value(c);
 				if (locked)
 					grid.lock(column, row, value);
 				else
@@ -212,18 +252,22 @@ public final class GridFile {
 	 * @throws IOException if there is a problem while writing the grid data
 	 */
 	public static void write(final Writer out, final Grid grid) throws IOException {
-		final var lineSeparator = System.getProperty("line.separator");
+		final var event = new GridFileEvent();
+		event.begin();
+		final var lineSeparator = System.lineSeparator();
 
-		for (var row = 1; row <= 9; row++) {
+		final var size = grid.size();
+		for (var row = 1; row <= size; row++) {
 			if (row > 1)
 				out.write(lineSeparator);
-			for (var column = 1; column <= 9; column++) {
+			for (var column = 1; column <= size; column++) {
 				final var value = grid.get(column, row);
 				if (value == 0)
 					out.write(EMPTY_CELL);
 				else
-					out.write(value + 0x30);
+					out.write(symbol(value));
 			}
 		}
+		event.finish(GridFileEvent.WRITE, FORMAT, 1, 0, 0);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package name.ulbricht.sudoku;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event for parsing or writing grids.
+ */
+@Name("name.ulbricht.sudoku.GridFile")
+@Label("Grid File")
+@Category("Sudoku")
+@Description("Parsing or writing grids")
+final class GridFileEvent extends Event {
+
+	static final String PARSE = "parse";
+	static final String WRITE = "write";
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Format")
+	@Description("The format of the grids: block, line or packed")
+	String format;
+
+	@Label("Grids")
+	long grids;
+
+	@Label("Invalid Grids")
+	long errors;
+
+	@Label("Bytes")
+	@Description("The number of bytes, zero if not known")
+	@DataAmount
+	long bytes;
+
+	/**
+	 * Ends the event and commits it, if it is enabled and exceeds the threshold.
+	 *
+	 * @param operation the operation
+	 * @param format    the format of the grids
+	 * @param grids     the number of grids
+	 * @param errors    the number of invalid grids
+	 * @param bytes     the number of bytes or zero
+	 */
+	void finish(final String operation, final String format, final long grids, final long errors,
+			final long bytes) {
+		end();
+		if (shouldCommit()) {
+			this.operation = operation;
+			this.format = format;
+			this.grids = grids;
+			this.errors = errors;
+			this.bytes = bytes;
+			commit();
+		}
+	}
+}
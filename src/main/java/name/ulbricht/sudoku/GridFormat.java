@@ -0,0 +1,20 @@
+package name.ulbricht.sudoku;
+
+/**
+ * Defines the text formats of grids written by a {@link GridWriter}.
+ *
+ * @see GridWriter
+ */
+public enum GridFormat {
+
+	/**
+	 * Each grid is written as one line per row like {@link GridFile}. The grids
+	 * are separated by an empty line.
+	 */
+	BLOCK,
+
+	/**
+	 * Each grid is written as a single line like {@link CompactGridFile}.
+	 */
+	LINE
+}
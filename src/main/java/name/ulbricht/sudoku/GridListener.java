@@ -0,0 +1,42 @@
+package name.ulbricht.sudoku;
+
+/**
+ * Receives the changes of a grid, so a user interface only has to update the
+ * affected cells. A value change is reported first, followed by the changed
+ * candidates of the cell itself and of its peers in the same row, column and
+ * box. Cells whose candidates did not change are not reported.
+ * <p>
+ * Only the public modification methods of {@link Grid} notify the listeners.
+ * The coordinates are one-based like in {@link Grid#get(int, int)}, the
+ * candidates are masks like returned by {@link Grid#candidateMask(int, int)}.
+ *
+ * @see Grid#addListener(GridListener)
+ */
+public interface GridListener {
+
+	/**
+	 * Called after the value of a cell has changed.
+	 *
+	 * @param grid     the changed grid
+	 * @param column   the column of the cell (one-based)
+	 * @param row      the row of the cell (one-based)
+	 * @param oldValue the previous value or zero if the cell was empty
+	 * @param newValue the new value or zero if the cell is empty
+	 */
+	void valueChanged(Grid grid, int column, int row, int oldValue, int newValue);
+
+	/**
+	 * Called after the candidates of a cell have changed because of a value
+	 * change. The default implementation does nothing.
+	 *
+	 * @param grid    the changed grid
+	 * @param column  the column of the cell (one-based)
+	 * @param row     the row of the cell (one-based)
+	 * @param oldMask the previous mask of the candidates
+	 * @param newMask the new mask of the candidates
+	 */
+	default void candidatesChanged(final Grid grid, final int column, final int row, final int oldMask,
+			final int newMask) {
+		// nothing to do
+	}
+}
@@ -0,0 +1,132 @@
+package name.ulbricht.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * Transforms a grid into an equivalent grid. A transform may transpose the
+ * grid, permute the bands and the rows within each band, permute the stacks
+ * and the columns within each stack and relabel the values. Rotations and
+ * reflections are combinations of these operations. The transformed grid has
+ * the same number of solutions, transformed the same way. Instances are
+ * immutable.
+ *
+ * @see CanonicalForm
+ */
+public final class GridTransform {
+
+	private static final GridTransform IDENTITY = new GridTransform(false, new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8 },
+			new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8 }, new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+
+	/**
+	 * Returns the transform that does not change a grid.
+	 *
+	 * @return the identity transform
+	 */
+	public static GridTransform identity() {
+		return IDENTITY;
+	}
+
+	private final boolean transposed;
+	private final int[] rows;
+	private final int[] columns;
+	private final int[] values;
+	private final int[] originalValues;
+
+	/**
+	 * Creates a new transform. The arrays are not copied and must not be modified.
+	 *
+	 * @param transposed defines if the grid is transposed before the permutations
+	 * @param rows       the zero-based source row for each target row
+	 * @param columns    the zero-based source column for each target column
+	 * @param values     the target value for each source value, zero maps to zero
+	 */
+	GridTransform(final boolean transposed, final int[] rows, final int[] columns, final int[] values) {
+		this.transposed = transposed;
+		this.rows = rows;
+		this.columns = columns;
+		this.values = values;
+		this.originalValues = new int[10];
+		for (var value = 0; value <= 9; value++)
+			this.originalValues[values[value]] = value;
+	}
+
+	/**
+	 * Applies this transform to the specified grid. The locks of the cells are
+	 * transformed with their values.
+	 *
+	 * @param grid the classic grid to transform
+	 * @return a new transformed grid
+	 * @see #revert(Grid)
+	 */
+	public Grid apply(final Grid grid) {
+		Grid.requireClassic(grid);
+		final var result = Grid.empty();
+		for (var index = 0; index < 81; index++)
+			copyCell(grid, sourceIndex(index), result, index, this.values);
+		return result;
+	}
+
+	/**
+	 * Reverts this transform on the specified grid. The result of
+	 * {@code revert(apply(grid))} equals the original grid.
+	 *
+	 * @param grid the transformed classic grid
+	 * @return a new grid in the original orientation
+	 * @see #apply(Grid)
+	 */
+	public Grid revert(final Grid grid) {
+		Grid.requireClassic(grid);
+		final var result = Grid.empty();
+		for (var index = 0; index < 81; index++)
+			copyCell(grid, index, result, sourceIndex(index), this.originalValues);
+		return result;
+	}
+
+	/**
+	 * Returns the index of the original cell that is moved to the specified cell.
+	 *
+	 * @param index the zero-based index of the transformed cell
+	 * @return the zero-based index of the original cell
+	 */
+	private int sourceIndex(final int index) {
+		final var row = this.rows[index / 9];
+		final var column = this.columns[index % 9];
+		return this.transposed ? (column * 9) + row : (row * 9) + column;
+	}
+
+	private static void copyCell(final Grid source, final int sourceIndex, final Grid target, final int targetIndex,
+			final int[] values) {
+		final var value = source.value(sourceIndex);
+		if (value != 0) {
+			final var column = (sourceIndex % 9) + 1;
+			final var row = (sourceIndex / 9) + 1;
+			if (source.locked(column, row))
+				target.lock((targetIndex % 9) + 1, (targetIndex / 9) + 1, values[value]);
+			else
+				target.place(targetIndex, values[value]);
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return ((((Boolean.hashCode(this.transposed) * 31) + Arrays.hashCode(this.rows)) * 31)
+				+ Arrays.hashCode(this.columns)) * 31 + Arrays.hashCode(this.values);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || this.getClass() != obj.getClass())
+			return false;
+		final var other = (GridTransform) obj;
+		return this.transposed == other.transposed && Arrays.equals(this.rows, other.rows)
+				&& Arrays.equals(this.columns, other.columns) && Arrays.equals(this.values, other.values);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("GridTransform[transposed=%s, rows=%s, columns=%s, values=%s]", this.transposed,
+				Arrays.toString(this.rows), Arrays.toString(this.columns), Arrays.toString(this.values));
+	}
+}
@@ -0,0 +1,232 @@
+package name.ulbricht.sudoku;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Writes many grids to a channel or a stream. The grids are encoded into a
+ * reusable byte buffer, which is written as a single block when it is full, so
+ * no strings or characters are created for each grid.
+ * <p>
+ * The writer is a consumer of grids, so it can receive the solutions of
+ * {@link Solver#solve(Consumer)} directly. Errors while writing are thrown as
+ * {@link UncheckedIOException} by {@link #accept(Grid)}. A writer is not
+ * thread-safe.
+ */
+public final class GridWriter implements Consumer<Grid>, Flushable, Closeable {
+
+	private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+	/**
+	 * The characters of the values, the dot represents an empty cell.
+	 */
+	private static final byte[] SYMBOLS = new byte[26];
+
+	static {
+		SYMBOLS[0] = '.';
+		for (var value = 1; value < SYMBOLS.length; value++)
+			SYMBOLS[value] = (byte) GridFile.symbol(value);
+	}
+
+	/**
+	 * Creates a new writer for the given file. An existing file is overwritten.
+	 *
+	 * @param file   the file to write to
+	 * @param format the format of the grids
+	 * @return a new writer
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static GridWriter open(final Path file, final GridFormat format) throws IOException {
+		return of(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE), format);
+	}
+
+	/**
+	 * Creates a new writer for the given channel. The channel is closed when the
+	 * writer is closed.
+	 *
+	 * @param channel the channel to write to
+	 * @param format  the format of the grids
+	 * @return a new writer
+	 */
+	public static GridWriter of(final WritableByteChannel channel, final GridFormat format) {
+		return new GridWriter(Objects.requireNonNull(channel, "channel must not be null"), null, format,
+				DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a new writer for the given stream. The stream is closed when the
+	 * writer is closed.
+	 *
+	 * @param out    the stream to write to
+	 * @param format the format of the grids
+	 * @return a new writer
+	 */
+	public static GridWriter of(final OutputStream out, final GridFormat format) {
+		return of(out, format, DEFAULT_BUFFER_SIZE);
+	}
+
+	static GridWriter of(final OutputStream out, final GridFormat format, final int bufferSize) {
+		return new GridWriter(null, Objects.requireNonNull(out, "out must not be null"), format, bufferSize);
+	}
+
+	private final WritableByteChannel channel;
+	private final OutputStream out;
+	private final GridFormat format;
+	private final byte[] lineSeparator;
+	private final byte[] bytes;
+	private final ByteBuffer buffer;
+	private int position;
+	private long count;
+
+	/**
+	 * The number of grids in the buffer.
+	 */
+	private int buffered;
+
+	private GridWriter(final WritableByteChannel channel, final OutputStream out, final GridFormat format,
+			final int bufferSize) {
+		this.channel = channel;
+		this.out = out;
+		this.format = Objects.requireNonNull(format, "format must not be null");
+		this.lineSeparator = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+		this.bytes = new byte[Math.max(bufferSize, maxGridLength(this.lineSeparator.length))];
+		this.buffer = ByteBuffer.wrap(this.bytes);
+	}
+
+	/**
+	 * Returns the maximum number of bytes of a single grid including its
+	 * separators.
+	 */
+	private static int maxGridLength(final int separatorLength) {
+		final var size = Geometry.of(5).size();
+		return (size * size) + ((size + 1) * separatorLength);
+	}
+
+	/**
+	 * Returns the format of the written grids.
+	 *
+	 * @return the format
+	 */
+	public GridFormat format() {
+		return this.format;
+	}
+
+	/**
+	 * Returns the number of grids written so far.
+	 *
+	 * @return the number of grids
+	 */
+	public long count() {
+		return this.count;
+	}
+
+	/**
+	 * Writes the given grid. The grid is encoded into the buffer, the buffer is
+	 * written to the target only if it is full.
+	 *
+	 * @param grid the grid to write
+	 * @throws IOException if there is a problem while writing the buffer
+	 */
+	public void write(final Grid grid) throws IOException {
+		final var size = grid.size();
+		final var separator = this.lineSeparator;
+		final var length = this.format == GridFormat.LINE ? (size * size) + separator.length
+				: (size * size) + ((size + 1) * separator.length);
+		if (this.position + length > this.bytes.length)
+			writeBuffer();
+
+		final var bytes = this.bytes;
+		var position = this.position;
+		if (this.format == GridFormat.BLOCK && this.count > 0)
+			position = putSeparator(bytes, position, separator);
+
+		var index = 0;
+		for (var row = 0; row < size; row++) {
+			for (var column = 0; column < size; column++)
+				bytes[position++] = SYMBOLS[grid.value(index++)];
+			if (this.format == GridFormat.BLOCK || row == size - 1)
+				position = putSeparator(bytes, position, separator);
+		}
+		this.position = position;
+		this.count++;
+		this.buffered++;
+	}
+
+	private static int putSeparator(final byte[] bytes, final int position, final byte[] separator) {
+		for (var i = 0; i < separator.length; i++)
+			bytes[position + i] = separator[i];
+		return position + separator.length;
+	}
+
+	/**
+	 * Writes the given grid and throws errors as {@link UncheckedIOException}.
+	 *
+	 * @param grid the grid to write
+	 */
+	@Override
+	public void accept(final Grid grid) {
+		try {
+			write(grid);
+		} catch (final IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Writes the buffered grids to the target and flushes it.
+	 *
+	 * @throws IOException if there is a problem while writing the buffer
+	 */
+	@Override
+	public void flush() throws IOException {
+		writeBuffer();
+		if (this.out != null)
+			this.out.flush();
+	}
+
+	/**
+	 * Writes the buffered grids and closes the target.
+	 *
+	 * @throws IOException if there is a problem while writing the buffer or
+	 *                     closing the target
+	 */
+	@Override
+	public void close() throws IOException {
+		final Closeable target = this.channel != null ? this.channel : this.out;
+		try {
+			writeBuffer();
+		} finally {
+			target.close();
+		}
+	}
+
+	private void writeBuffer() throws IOException {
+		if (this.position == 0)
+			return;
+
+		final var event = new GridFileEvent();
+		event.begin();
+		if (this.channel != null) {
+			this.buffer.clear().limit(this.position);
+			while (this.buffer.hasRemaining())
+				this.channel.write(this.buffer);
+		} else
+			this.out.write(this.bytes, 0, this.position);
+		event.finish(GridFileEvent.WRITE, this.format == GridFormat.LINE ? "line" : "block", this.buffered, 0,
+				this.position);
+		this.position = 0;
+		this.buffered = 0;
+	}
+}
@@ -0,0 +1,98 @@
+package name.ulbricht.sudoku;
+
+/**
+ * Contains the next value that can be placed by logic and the reason for it.
+ * Instances are immutable.
+ *
+ * @see HintFinder#find(Grid)
+ */
+public final class Hint {
+
+	private final Technique technique;
+	private final int index;
+	private final int value;
+	private final long supporting0;
+	private final long supporting1;
+
+	Hint(final Technique technique, final int index, final int value, final long supporting0,
+			final long supporting1) {
+		this.technique = technique;
+		this.index = index;
+		this.value = value;
+		this.supporting0 = supporting0;
+		this.supporting1 = supporting1;
+	}
+
+	/**
+	 * Returns the hardest technique needed to find the value. This is a single if
+	 * the value can be placed directly, otherwise the technique that removed the
+	 * candidates in the way.
+	 *
+	 * @return the technique
+	 */
+	public Technique technique() {
+		return this.technique;
+	}
+
+	/**
+	 * Returns the column of the cell.
+	 *
+	 * @return the column (one-based)
+	 */
+	public int column() {
+		return (this.index % 9) + 1;
+	}
+
+	/**
+	 * Returns the row of the cell.
+	 *
+	 * @return the row (one-based)
+	 */
+	public int row() {
+		return (this.index / 9) + 1;
+	}
+
+	/**
+	 * Returns the value of the cell.
+	 *
+	 * @return the value
+	 */
+	public int value() {
+		return this.value;
+	}
+
+	/**
+	 * Checks if the specified cell supports the hint. The supporting cells are the
+	 * filled cells that exclude the other candidates or cells, and the cells of
+	 * the patterns found by the techniques.
+	 *
+	 * @param column the column of the cell (one-based)
+	 * @param row    the row of the cell (one-based)
+	 * @return {@code true} if the cell supports the hint, otherwise {@code false}
+	 */
+	public boolean supporting(final int column, final int row) {
+		if (column < 1 || column > 9)
+			throw new IllegalArgumentException("Invalid column: " + column);
+		if (row < 1 || row > 9)
+			throw new IllegalArgumentException("Invalid row: " + row);
+		final var index = ((row - 1) * 9) + (column - 1);
+		return index < 64 ? (this.supporting0 & (1L << index)) != 0
+				: (this.supporting1 & (1L << (index - 64))) != 0;
+	}
+
+	/**
+	 * Returns the number of supporting cells.
+	 *
+	 * @return the number of cells
+	 * @see #supporting(int, int)
+	 */
+	public int supportingCells() {
+		return Long.bitCount(this.supporting0) + Long.bitCount(this.supporting1);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Hint[column=%d, row=%d, value=%d, technique=%s]", column(), row(), this.value,
+				this.technique);
+	}
+}
@@ -0,0 +1,162 @@
+package name.ulbricht.sudoku;
+
+import java.util.Objects;
+
+/**
+ * Finds the next value that can be placed by the techniques of human solvers.
+ * The singles are searched first, directly on the candidates of the grid. Only
+ * if there is no single, the techniques of the {@link Rater} are applied from
+ * the easiest to the hardest until a single appears. The hidden singles are
+ * searched in the boxes first, because they are found most easily by humans.
+ * <p>
+ * All working arrays are allocated once per finder, so the only allocation is
+ * the returned hint. An instance must not be shared between threads.
+ */
+public final class HintFinder {
+
+	private static final int CONTRADICTION = -2;
+	private static final int NONE = -1;
+
+	private final Rater rater = new Rater();
+	private Grid grid;
+	private long supporting0;
+	private long supporting1;
+
+	/**
+	 * Finds the next value for the specified grid. The grid is not modified.
+	 *
+	 * @param grid the classic grid
+	 * @return the hint or {@code null} if the grid is solved, has no solution or
+	 *         cannot be continued by the techniques
+	 */
+	public Hint find(final Grid grid) {
+		this.grid = Grid.requireClassic(Objects.requireNonNull(grid, "grid must not be null"));
+		this.supporting0 = 0;
+		this.supporting1 = 0;
+		try {
+			final var rater = this.rater;
+			rater.init(grid);
+
+			Technique technique = null;
+			while (!rater.contradiction()) {
+				var single = hiddenSingle();
+				if (single == CONTRADICTION)
+					return null;
+				if (single != NONE)
+					return hint(technique != null ? technique : Technique.HIDDEN_SINGLE, single);
+				single = nakedSingle();
+				if (single != NONE)
+					return hint(technique != null ? technique : Technique.NAKED_SINGLE, single);
+
+				final var applied = rater.eliminate();
+				if (applied == null)
+					return null;
+				if (technique == null || applied.compareTo(technique) > 0)
+					technique = applied;
+				this.supporting0 |= rater.pattern(0);
+				this.supporting1 |= rater.pattern(1);
+			}
+			return null;
+		} finally {
+			this.grid = null;
+		}
+	}
+
+	private Hint hint(final Technique technique, final int single) {
+		return new Hint(technique, single >>> 4, single & 0xF, this.supporting0, this.supporting1);
+	}
+
+	/**
+	 * Finds a value that fits into only one cell of a unit.
+	 *
+	 * @return the cell shifted by 4 bits and the value, {@link #NONE} or
+	 *         {@link #CONTRADICTION} if a value fits into no cell of a unit
+	 */
+	private int hiddenSingle() {
+		final var rater = this.rater;
+		for (var i = 0; i < 27; i++) {
+			final var unit = (i + 18) % 27;
+			var placed = 0;
+			var empty = 0;
+			var once = 0;
+			var twice = 0;
+			for (var j = 0; j < 9; j++) {
+				final var index = Grid.unitCell(unit, j);
+				final var value = rater.value(index);
+				if (value != 0)
+					placed |= 1 << (value - 1);
+				else {
+					empty++;
+					final var mask = rater.candidates(index);
+					twice |= once & mask;
+					once |= mask;
+				}
+			}
+			if ((once | placed) != 0x1FF)
+				return CONTRADICTION;
+
+			final var hidden = once & ~twice;
+			if (hidden != 0) {
+				final var bit = hidden & -hidden;
+				final var value = Integer.numberOfTrailingZeros(bit) + 1;
+				var single = NONE;
+				for (var j = 0; j < 9; j++) {
+					final var index = Grid.unitCell(unit, j);
+					if ((rater.candidates(index) & bit) != 0)
+						single = index;
+					else if (empty == 1)
+						// the last empty cell of the unit is supported by the other values
+						support(index);
+					else if (rater.value(index) == 0 && (this.grid.candidateMask(index) & bit) == 0)
+						support(index, value);
+				}
+				return (single << 4) | value;
+			}
+		}
+		return NONE;
+	}
+
+	/**
+	 * Finds a cell with only one candidate.
+	 *
+	 * @return the cell shifted by 4 bits and the value or {@link #NONE}
+	 */
+	private int nakedSingle() {
+		final var rater = this.rater;
+		for (var index = 0; index < 81; index++) {
+			final var mask = rater.candidates(index);
+			if (mask != 0 && (mask & (mask - 1)) == 0) {
+				final var gridMask = this.grid.candidateMask(index);
+				for (var value = 1; value <= 9; value++) {
+					if ((gridMask & (1 << (value - 1))) == 0)
+						support(index, value);
+				}
+				return (index << 4) | (Integer.numberOfTrailingZeros(mask) + 1);
+			}
+		}
+		return NONE;
+	}
+
+	/**
+	 * Adds the first peer of a cell with the given value to the supporting cells.
+	 *
+	 * @param index the zero-based index of the cell
+	 * @param value the value excluded from the cell
+	 */
+	private void support(final int index, final int value) {
+		for (var i = 0; i < 20; i++) {
+			final var peer = Grid.peer(index, i);
+			if (this.grid.value(peer) == value) {
+				support(peer);
+				return;
+			}
+		}
+	}
+
+	private void support(final int index) {
+		if (index < 64)
+			this.supporting0 |= 1L << index;
+		else
+			this.supporting1 |= 1L << (index - 64);
+	}
+}
@@ -0,0 +1,194 @@
+package name.ulbricht.sudoku;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads and writes binary files of packed Sudoku grids. A file starts with the
+ * four bytes {@code SDKP} and a version number as 32-bit integer, followed by
+ * the grids. Each grid is stored as the {@link Grid#PACKED_LENGTH} long values
+ * of {@link Grid#pack()} in big-endian byte order, so a grid takes 56 bytes
+ * including its locks.
+ * <p>
+ * Files are read lazily, so files with millions of grids can be processed
+ * without loading them completely.
+ */
+public final class PackedGridFile {
+
+	private static final int MAGIC = ('S' << 24) | ('D' << 16) | ('K' << 8) | 'P';
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 8;
+	private static final int RECORD_SIZE = Grid.PACKED_LENGTH * Long.BYTES;
+
+	/**
+	 * Returns a lazy stream of the grids in the given file. The stream must be
+	 * closed to release the file. Errors while reading are thrown as
+	 * {@link UncheckedIOException} by the terminal operation of the stream.
+	 *
+	 * @param file the file to read from
+	 * @return a stream of grids
+	 * @throws IOException if the file cannot be opened or has an invalid header
+	 */
+	public static Stream<Grid> parse(final Path file) throws IOException {
+		final var in = Files.newInputStream(file);
+		try {
+			return parse(in).onClose(() -> close(in));
+		} catch (final IOException | RuntimeException ex) {
+			in.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Returns a lazy stream of the grids from the given stream source. The header
+	 * is read immediately, the grids are read by the terminal operation of the
+	 * stream. The source is not closed by the stream.
+	 *
+	 * @param in the source to read from
+	 * @return a stream of grids
+	 * @throws IOException if there is a problem reading the header or the header
+	 *                     is invalid
+	 */
+	public static Stream<Grid> parse(final InputStream in) throws IOException {
+		final var bin = in instanceof BufferedInputStream ? (BufferedInputStream) in : new BufferedInputStream(in);
+
+		final var header = new byte[HEADER_SIZE];
+		if (bin.readNBytes(header, 0, HEADER_SIZE) != HEADER_SIZE)
+			throw new IOException("Unexpected end of file");
+		final var buffer = ByteBuffer.wrap(header);
+		if (buffer.getInt() != MAGIC)
+			throw new IOException("Invalid file header");
+		final var version = buffer.getInt();
+		if (version != VERSION)
+			throw new IOException("Unsupported version: " + version);
+
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new PackedGridIterator(bin),
+				Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * Writes all grids of the given stream into the specified file.
+	 *
+	 * @param file  the file to write to
+	 * @param grids the grids to write
+	 * @throws IOException if there is a problem while writing the grid data
+	 */
+	public static void write(final Path file, final Stream<Grid> grids) throws IOException {
+		try (final var out = Files.newOutputStream(file)) {
+			write(out, grids);
+		}
+	}
+
+	/**
+	 * Writes the header and all grids of the given stream to the specified stream.
+	 * The stream is flushed but not closed.
+	 *
+	 * @param out   the stream to write to
+	 * @param grids the grids to write
+	 * @throws IOException if there is a problem while writing the grid data
+	 */
+	public static void write(final OutputStream out, final Stream<Grid> grids) throws IOException {
+		final var event = new GridFileEvent();
+		event.begin();
+		final var bout = new BufferedOutputStream(out);
+		final var buffer = ByteBuffer.allocate(Math.max(HEADER_SIZE, RECORD_SIZE));
+
+		buffer.putInt(MAGIC).putInt(VERSION);
+		bout.write(buffer.array(), 0, HEADER_SIZE);
+
+		var count = 0L;
+		final var iterator = grids.iterator();
+		while (iterator.hasNext()) {
+			buffer.clear();
+			for (final var value : iterator.next().pack())
+				buffer.putLong(value);
+			bout.write(buffer.array(), 0, RECORD_SIZE);
+			count++;
+		}
+		bout.flush();
+		event.finish(GridFileEvent.WRITE, "packed", count, 0, HEADER_SIZE + (count * RECORD_SIZE));
+	}
+
+	private static void close(final AutoCloseable closeable) {
+		try {
+			closeable.close();
+		} catch (final Exception ex) {
+			throw new IllegalStateException("Could not close the file", ex);
+		}
+	}
+
+	/**
+	 * Iterates the grids of a stream, reading one grid ahead.
+	 */
+	private static final class PackedGridIterator implements Iterator<Grid> {
+
+		private final InputStream in;
+		private final byte[] record = new byte[RECORD_SIZE];
+		private final ByteBuffer buffer = ByteBuffer.wrap(this.record);
+		private final long[] packed = new long[Grid.PACKED_LENGTH];
+		private long gridNumber;
+		private Grid next;
+
+		PackedGridIterator(final InputStream in) {
+			this.in = in;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (this.next == null) {
+				try {
+					this.next = readNext();
+				} catch (final IOException ex) {
+					throw new UncheckedIOException(String.format("Grid %d: %s", this.gridNumber, ex.getMessage()), ex);
+				}
+			}
+			return this.next != null;
+		}
+
+		@Override
+		public Grid next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			final var grid = this.next;
+			this.next = null;
+			return grid;
+		}
+
+		private Grid readNext() throws IOException {
+			final var length = this.in.readNBytes(this.record, 0, RECORD_SIZE);
+			if (length == 0)
+				return null;
+
+			this.gridNumber++;
+			if (length != RECORD_SIZE)
+				throw new IOException("Unexpected end of file");
+
+			this.buffer.clear();
+			for (var i = 0; i < Grid.PACKED_LENGTH; i++)
+				this.packed[i] = this.buffer.getLong();
+
+			try {
+				return Grid.unpack(this.packed);
+			} catch (IllegalArgumentException | RuleViolationException ex) {
+				throw new IOException("Invalid value", ex);
+			}
+		}
+	}
+
+	private PackedGridFile() {
+		// hidden
+	}
+}
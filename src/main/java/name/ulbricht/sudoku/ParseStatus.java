@@ -0,0 +1,29 @@
+package name.ulbricht.sudoku;
+
+/**
+ * Defines the results of parsing a single line of a compact grid file.
+ *
+ * @see ByteGridParser
+ */
+public enum ParseStatus {
+
+	/**
+	 * The line is a valid grid.
+	 */
+	VALID,
+
+	/**
+	 * The length of the line does not match any supported grid size.
+	 */
+	INVALID_LENGTH,
+
+	/**
+	 * The line contains a character that is not a value of the grid.
+	 */
+	INVALID_CHARACTER,
+
+	/**
+	 * A value exists twice in a row, column or box.
+	 */
+	DUPLICATE_VALUE
+}
@@ -0,0 +1,25 @@
+package name.ulbricht.sudoku;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A flight recorder event for filling the singles of a grid. There is a
+ * propagation for each node of the search, so only the propagations taking at
+ * least 100 microseconds are recorded by default.
+ */
+@Name("name.ulbricht.sudoku.Propagation")
+@Label("Propagation")
+@Category("Sudoku")
+@Description("Filling the singles of a grid")
+@Threshold("100 us")
+final class PropagationEvent extends Event {
+
+	@Label("Filled Cells")
+	@Description("The number of filled cells or -1 if the grid cannot be solved")
+	int placed;
+}
@@ -0,0 +1,200 @@
+package name.ulbricht.sudoku;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Fills the cells of a grid that can be deduced by naked and hidden singles. A
+ * naked single is a cell with a single candidate, a hidden single is a value
+ * that fits only into a single cell of a row, column or box.
+ * <p>
+ * The cells are checked using a work list. Only the peers of a filled cell are
+ * checked again, instead of scanning the whole grid after every change. An
+ * instance holds the work list and must not be shared between threads.
+ */
+final class Propagator {
+
+	private final BooleanSupplier cancelled;
+
+	/**
+	 * The cells to check for naked singles, used as ring buffer. The arrays are
+	 * replaced if a grid of another size is propagated.
+	 */
+	private int[] queue = new int[81];
+	private boolean[] queued = new boolean[81];
+	private int head;
+	private int size;
+
+	/**
+	 * Creates a new propagator.
+	 *
+	 * @param cancelled returns {@code true} if the propagation should stop
+	 */
+	Propagator(final BooleanSupplier cancelled) {
+		this.cancelled = cancelled;
+	}
+
+	/**
+	 * Fills all naked and hidden singles of the grid until no more cells can be
+	 * filled.
+	 *
+	 * @param grid the grid to fill, will be modified
+	 * @return the number of filled cells or -1 if the grid cannot be solved or the
+	 *         propagation was cancelled
+	 */
+	int propagate(final Grid grid) {
+		return propagate(grid, null);
+	}
+
+	/**
+	 * Fills all naked and hidden singles of the grid until no more cells can be
+	 * filled. All filled cells are recorded in the given trail, also if the grid
+	 * cannot be solved.
+	 *
+	 * @param grid  the grid to fill, will be modified
+	 * @param trail the trail to record the filled cells or {@code null}
+	 * @return the number of filled cells or -1 if the grid cannot be solved or the
+	 *         propagation was cancelled
+	 */
+	int propagate(final Grid grid, final Trail trail) {
+		final var event = new PropagationEvent();
+		event.begin();
+		final var placed = fill(grid, trail);
+		event.end();
+		if (event.shouldCommit()) {
+			event.placed = placed;
+			event.commit();
+		}
+		return placed;
+	}
+
+	private int fill(final Grid grid, final Trail trail) {
+		final var cells = grid.geometry().cells();
+		if (this.queue.length != cells) {
+			this.queue = new int[cells];
+			this.queued = new boolean[cells];
+		}
+
+		this.head = 0;
+		this.size = 0;
+		for (var index = 0; index < cells; index++) {
+			this.queued[index] = false;
+			if (grid.value(index) == 0)
+				enqueue(index);
+		}
+
+		var placed = 0;
+		while (true) {
+			if (this.cancelled.getAsBoolean())
+				return clear(-1);
+
+			// naked singles
+			while (this.size > 0) {
+				final var index = dequeue();
+				if (grid.value(index) != 0)
+					continue;
+
+				final var mask = grid.candidateMask(index);
+				if (mask == 0)
+					return clear(-1);
+				if ((mask & (mask - 1)) == 0) {
+					place(grid, trail, index, mask);
+					placed++;
+				}
+			}
+
+			// hidden singles
+			final var hidden = placeHiddenSingles(grid, trail);
+			if (hidden < 0)
+				return clear(-1);
+			if (hidden == 0)
+				return placed;
+			placed += hidden;
+		}
+	}
+
+	/**
+	 * Places the hidden singles of all units. The peers of the filled cells are
+	 * added to the work list.
+	 *
+	 * @param grid  the grid to fill
+	 * @param trail the trail to record the filled cells or {@code null}
+	 * @return the number of filled cells or -1 if the grid cannot be solved
+	 */
+	private int placeHiddenSingles(final Grid grid, final Trail trail) {
+		final var geometry = grid.geometry();
+		final var size = geometry.size();
+		final var units = geometry.units();
+		var placed = 0;
+		for (var unit = 0; unit < units; unit++) {
+			// the values that are candidates of at least one or at least two cells
+			var once = 0;
+			var twice = 0;
+			for (var i = 0; i < size; i++) {
+				final var mask = grid.candidateMask(geometry.unitCell(unit, i));
+				twice |= once & mask;
+				once |= mask;
+			}
+
+			final var used = grid.unitMask(unit);
+			if ((once | used) != geometry.allValues())
+				return -1;
+
+			var hidden = once & ~twice;
+			while (hidden != 0) {
+				final var bit = hidden & -hidden;
+				hidden ^= bit;
+
+				var found = false;
+				for (var i = 0; i < size && !found; i++) {
+					final var index = geometry.unitCell(unit, i);
+					if ((grid.candidateMask(index) & bit) != 0) {
+						place(grid, trail, index, bit);
+						placed++;
+						found = true;
+					}
+				}
+				// a previous hidden single took the last possible cell
+				if (!found)
+					return -1;
+			}
+		}
+		return placed;
+	}
+
+	private void place(final Grid grid, final Trail trail, final int index, final int bit) {
+		final var value = Integer.numberOfTrailingZeros(bit) + 1;
+		if (trail != null)
+			trail.place(grid, index, value);
+		else
+			grid.place(index, value);
+		final var geometry = grid.geometry();
+		final var peers = geometry.peers();
+		for (var i = 0; i < peers; i++) {
+			final var peer = geometry.peer(index, i);
+			if (grid.value(peer) == 0)
+				enqueue(peer);
+		}
+	}
+
+	private void enqueue(final int index) {
+		if (!this.queued[index]) {
+			this.queued[index] = true;
+			this.queue[(this.head + this.size) % this.queue.length] = index;
+			this.size++;
+		}
+	}
+
+	private int dequeue() {
+		final var index = this.queue[this.head];
+		this.head = (this.head + 1) % this.queue.length;
+		this.size--;
+		this.queued[index] = false;
+		return index;
+	}
+
+	private int clear(final int result) {
+		while (this.size > 0)
+			dequeue();
+		return result;
+	}
+}
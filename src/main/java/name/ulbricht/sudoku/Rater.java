@@ -0,0 +1,611 @@
+package name.ulbricht.sudoku;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Rates the difficulty of grids by solving them with the techniques used by
+ * human solvers. After each step the easiest technique that makes progress is
+ * applied, so the rating reflects the hardest technique that cannot be
+ * avoided.
+ * <p>
+ * The candidates of the cells are kept as 9-bit masks. All working arrays are
+ * allocated once per rater, so a rater can grade many grids without allocation
+ * except for the returned ratings. An instance must not be shared between
+ * threads.
+ */
+public final class Rater {
+
+	private static final Technique[] TECHNIQUES = Technique.values();
+
+	private static boolean sees(final int index, final int other) {
+		return index != other && (Grid.rowUnit(index) == Grid.rowUnit(other)
+				|| Grid.columnUnit(index) == Grid.columnUnit(other) || Grid.boxUnit(index) == Grid.boxUnit(other));
+	}
+
+	private final int[] values = new int[81];
+	private final int[] candidates = new int[81];
+
+	/**
+	 * The mask of the values placed in each unit.
+	 */
+	private final int[] placed = new int[27];
+	private final int[] counts = new int[TECHNIQUES.length];
+	private int emptyCells;
+	private boolean contradiction;
+
+	/**
+	 * Working arrays of the techniques.
+	 */
+	private final int[] positions = new int[9];
+	private final int[] chainQueue = new int[81 * 9];
+	private final int[] chainParent = new int[81 * 9];
+	private final boolean[] chainVisited = new boolean[81 * 9];
+
+	/**
+	 * The cells of the pattern found by the last elimination, bit {@code i} of the
+	 * first mask and bit {@code i - 64} of the second mask for cell {@code i}.
+	 */
+	private long pattern0;
+	private long pattern1;
+
+	/**
+	 * Rates the specified grid. The grid is not modified.
+	 *
+	 * @param grid the classic grid to rate
+	 * @return the rating
+	 */
+	public Rating rate(final Grid grid) {
+		init(Grid.requireClassic(Objects.requireNonNull(grid, "grid must not be null")));
+
+		var hardest = Technique.HIDDEN_SINGLE;
+		while (this.emptyCells > 0 && !this.contradiction) {
+			Technique applied = null;
+			for (var i = 0; i < TECHNIQUES.length - 1 && applied == null; i++) {
+				final var applications = apply(TECHNIQUES[i]);
+				if (applications > 0) {
+					applied = TECHNIQUES[i];
+					this.counts[i] += applications;
+				}
+			}
+			if (applied == null)
+				break;
+			if (applied.compareTo(hardest) > 0)
+				hardest = applied;
+		}
+
+		if (this.emptyCells > 0 || this.contradiction) {
+			hardest = Technique.BACKTRACKING;
+			this.counts[hardest.ordinal()]++;
+		}
+		return new Rating(hardest, this.counts);
+	}
+
+	/**
+	 * Returns the value of a cell after the last rating.
+	 * 
+	 * @param index the zero-based index of the cell
+	 * @return the value or zero if the techniques could not fill the cell
+	 */
+	int value(final int index) {
+		return this.values[index];
+	}
+
+	/**
+	 * Returns the candidates of a cell after the last rating or elimination.
+	 * 
+	 * @param index the zero-based index of the cell
+	 * @return the mask of the candidates, zero if the cell has a value
+	 */
+	int candidates(final int index) {
+		return this.candidates[index];
+	}
+
+	/**
+	 * Checks if a cell without candidates has been found.
+	 * 
+	 * @return {@code true} if the grid cannot be solved
+	 */
+	boolean contradiction() {
+		return this.contradiction;
+	}
+
+	/**
+	 * Returns the cells of the pattern found by the last call of
+	 * {@link #eliminate()}.
+	 * 
+	 * @param i zero for the cells 0 to 63, one for the cells 64 to 80
+	 * @return the mask of the cells
+	 */
+	long pattern(final int i) {
+		return i == 0 ? this.pattern0 : this.pattern1;
+	}
+
+	/**
+	 * Applies the easiest technique after the singles that removes candidates. No
+	 * values are placed, the singles are left to the caller.
+	 * 
+	 * @return the applied technique or {@code null} if no technique makes progress
+	 */
+	Technique eliminate() {
+		this.pattern0 = 0;
+		this.pattern1 = 0;
+		for (var i = Technique.LOCKED_CANDIDATES.ordinal(); i < TECHNIQUES.length - 1; i++) {
+			if (apply(TECHNIQUES[i]) > 0)
+				return TECHNIQUES[i];
+		}
+		return null;
+	}
+
+	private void mark(final int index) {
+		if (index < 64)
+			this.pattern0 |= 1L << index;
+		else
+			this.pattern1 |= 1L << (index - 64);
+	}
+
+	/**
+	 * Initializes the values and candidates from the given grid.
+	 * 
+	 * @param grid the classic grid
+	 */
+	void init(final Grid grid) {
+		Arrays.fill(this.placed, 0);
+		Arrays.fill(this.counts, 0);
+		this.emptyCells = 0;
+		this.contradiction = false;
+
+		for (var index = 0; index < 81; index++) {
+			final var value = grid.value(index);
+			this.values[index] = value;
+			if (value != 0) {
+				final var bit = 1 << (value - 1);
+				this.placed[Grid.rowUnit(index)] |= bit;
+				this.placed[Grid.columnUnit(index)] |= bit;
+				this.placed[Grid.boxUnit(index)] |= bit;
+				this.candidates[index] = 0;
+			} else {
+				this.candidates[index] = grid.candidateMask(index);
+				this.emptyCells++;
+				if (this.candidates[index] == 0)
+					this.contradiction = true;
+			}
+		}
+	}
+
+	/**
+	 * Applies a single technique.
+	 *
+	 * @return the number of applications, zero if the technique makes no progress
+	 */
+	private int apply(final Technique technique) {
+		switch (technique) {
+		case HIDDEN_SINGLE:
+			return hiddenSingles();
+		case NAKED_SINGLE:
+			return nakedSingles();
+		case LOCKED_CANDIDATES:
+			return lockedCandidates() ? 1 : 0;
+		case NAKED_PAIR:
+			return nakedSubset(2) ? 1 : 0;
+		case HIDDEN_PAIR:
+			return hiddenSubset(2) ? 1 : 0;
+		case NAKED_TRIPLE:
+			return nakedSubset(3) ? 1 : 0;
+		case HIDDEN_TRIPLE:
+			return hiddenSubset(3) ? 1 : 0;
+		case X_WING:
+			return fish(2) ? 1 : 0;
+		case NAKED_QUAD:
+			return nakedSubset(4) ? 1 : 0;
+		case HIDDEN_QUAD:
+			return hiddenSubset(4) ? 1 : 0;
+		case SWORDFISH:
+			return fish(3) ? 1 : 0;
+		case XY_WING:
+			return xyWing() ? 1 : 0;
+		case XY_CHAIN:
+			return xyChain() ? 1 : 0;
+		default:
+			return 0;
+		}
+	}
+
+	private void place(final int index, final int bit) {
+		this.values[index] = Integer.numberOfTrailingZeros(bit) + 1;
+		this.candidates[index] = 0;
+		this.placed[Grid.rowUnit(index)] |= bit;
+		this.placed[Grid.columnUnit(index)] |= bit;
+		this.placed[Grid.boxUnit(index)] |= bit;
+		this.emptyCells--;
+		for (var i = 0; i < 20; i++)
+			eliminate(Grid.peer(index, i), bit);
+	}
+
+	/**
+	 * Removes candidates from a cell.
+	 *
+	 * @return {@code true} if at least one candidate was removed
+	 */
+	private boolean eliminate(final int index, final int bits) {
+		final var mask = this.candidates[index];
+		if ((mask & bits) == 0)
+			return false;
+		this.candidates[index] = mask & ~bits;
+		if (this.candidates[index] == 0)
+			this.contradiction = true;
+		return true;
+	}
+
+	private int hiddenSingles() {
+		var count = 0;
+		for (var unit = 0; unit < 27 && !this.contradiction; unit++) {
+			var once = 0;
+			var twice = 0;
+			for (var i = 0; i < 9; i++) {
+				final var mask = this.candidates[Grid.unitCell(unit, i)];
+				twice |= once & mask;
+				once |= mask;
+			}
+			if ((once | this.placed[unit]) != 0x1FF) {
+				this.contradiction = true;
+				break;
+			}
+
+			for (var hidden = once & ~twice; hidden != 0; hidden &= hidden - 1) {
+				final var bit = hidden & -hidden;
+				var found = false;
+				for (var i = 0; i < 9 && !found; i++) {
+					final var index = Grid.unitCell(unit, i);
+					if ((this.candidates[index] & bit) != 0) {
+						place(index, bit);
+						count++;
+						found = true;
+					}
+				}
+				// a previous hidden single took the last possible cell
+				if (!found)
+					this.contradiction = true;
+			}
+		}
+		return count;
+	}
+
+	private int nakedSingles() {
+		var count = 0;
+		for (var index = 0; index < 81 && !this.contradiction; index++) {
+			final var mask = this.candidates[index];
+			if (mask != 0 && (mask & (mask - 1)) == 0) {
+				place(index, mask);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finds a value in a unit whose candidates are all in the intersection with
+	 * another unit and removes the value from the rest of the other unit.
+	 */
+	private boolean lockedCandidates() {
+		for (var unit = 0; unit < 27; unit++) {
+			for (var bit = 1; bit < 0x200; bit <<= 1) {
+				if ((this.placed[unit] & bit) != 0)
+					continue;
+
+				// the units of the first candidate, cleared if another candidate differs
+				var row = -1;
+				var column = -1;
+				var box = -1;
+				for (var i = 0; i < 9; i++) {
+					final var index = Grid.unitCell(unit, i);
+					if ((this.candidates[index] & bit) == 0)
+						continue;
+					if (row == -1) {
+						row = Grid.rowUnit(index);
+						column = Grid.columnUnit(index);
+						box = Grid.boxUnit(index);
+					} else {
+						if (row != Grid.rowUnit(index))
+							row = -2;
+						if (column != Grid.columnUnit(index))
+							column = -2;
+						if (box != Grid.boxUnit(index))
+							box = -2;
+					}
+				}
+
+				final var other = unit >= 18 ? (row >= 0 ? row : column) : box;
+				if (other >= 0 && other != unit && eliminateOutside(other, unit, bit)) {
+					for (var i = 0; i < 9; i++) {
+						final var index = Grid.unitCell(unit, i);
+						if ((this.candidates[index] & bit) != 0)
+							mark(index);
+					}
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Removes candidates from all cells of a unit that are not part of another
+	 * unit.
+	 */
+	private boolean eliminateOutside(final int unit, final int excluded, final int bits) {
+		var eliminated = false;
+		for (var i = 0; i < 9; i++) {
+			final var index = Grid.unitCell(unit, i);
+			if (Grid.rowUnit(index) != excluded && Grid.columnUnit(index) != excluded
+					&& Grid.boxUnit(index) != excluded)
+				eliminated |= eliminate(index, bits);
+		}
+		return eliminated;
+	}
+
+	/**
+	 * Finds {@code size} cells of a unit with {@code size} candidates in total and
+	 * removes these candidates from the other cells of the unit.
+	 */
+	private boolean nakedSubset(final int size) {
+		for (var unit = 0; unit < 27; unit++) {
+			if (9 - Integer.bitCount(this.placed[unit]) > size && nakedSubset(unit, size, 0, 0, 0, 0))
+				return true;
+		}
+		return false;
+	}
+
+	private boolean nakedSubset(final int unit, final int size, final int start, final int depth, final int cells,
+			final int union) {
+		if (depth == size) {
+			if (Integer.bitCount(union) != size)
+				return false;
+			var eliminated = false;
+			for (var i = 0; i < 9; i++) {
+				if ((cells & (1 << i)) == 0)
+					eliminated |= eliminate(Grid.unitCell(unit, i), union);
+			}
+			if (eliminated)
+				markUnitCells(unit, cells);
+			return eliminated;
+		}
+
+		for (var i = start; i < 9; i++) {
+			final var mask = this.candidates[Grid.unitCell(unit, i)];
+			if (mask == 0)
+				continue;
+			final var newUnion = union | mask;
+			if (Integer.bitCount(newUnion) <= size
+					&& nakedSubset(unit, size, i + 1, depth + 1, cells | (1 << i), newUnion))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Finds {@code size} values that fit only into {@code size} cells of a unit and
+	 * removes all other candidates from these cells.
+	 */
+	private boolean hiddenSubset(final int size) {
+		final var positions = this.positions;
+		for (var unit = 0; unit < 27; unit++) {
+			if (9 - Integer.bitCount(this.placed[unit]) <= size)
+				continue;
+
+			Arrays.fill(positions, 0);
+			for (var i = 0; i < 9; i++) {
+				final var mask = this.candidates[Grid.unitCell(unit, i)];
+				for (var value = 0; value < 9; value++) {
+					if ((mask & (1 << value)) != 0)
+						positions[value] |= 1 << i;
+				}
+			}
+			if (hiddenSubset(unit, size, 0, 0, 0, 0))
+				return true;
+		}
+		return false;
+	}
+
+	private boolean hiddenSubset(final int unit, final int size, final int start, final int depth, final int values,
+			final int union) {
+		if (depth == size) {
+			if (Integer.bitCount(union) != size)
+				return false;
+			var eliminated = false;
+			for (var i = 0; i < 9; i++) {
+				if ((union & (1 << i)) != 0)
+					eliminated |= eliminate(Grid.unitCell(unit, i), ~values & 0x1FF);
+			}
+			if (eliminated)
+				markUnitCells(unit, union);
+			return eliminated;
+		}
+
+		for (var value = start; value < 9; value++) {
+			final var mask = this.positions[value];
+			if (mask == 0)
+				continue;
+			final var newUnion = union | mask;
+			if (Integer.bitCount(newUnion) <= size
+					&& hiddenSubset(unit, size, value + 1, depth + 1, values | (1 << value), newUnion))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Finds {@code size} rows whose candidates of a value are in {@code size}
+	 * columns and removes the value from the other cells of these columns, or the
+	 * other way round.
+	 */
+	private boolean fish(final int size) {
+		final var positions = this.positions;
+		for (var bit = 1; bit < 0x200; bit <<= 1) {
+			for (var base = 0; base < 18; base += 9) {
+				// the positions of the value within each row or column
+				for (var line = 0; line < 9; line++) {
+					var mask = 0;
+					for (var i = 0; i < 9; i++) {
+						if ((this.candidates[Grid.unitCell(base + line, i)] & bit) != 0)
+							mask |= 1 << i;
+					}
+					positions[line] = mask;
+				}
+				if (fish(base, size, bit, 0, 0, 0, 0))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean fish(final int base, final int size, final int bit, final int start, final int depth,
+			final int lines, final int union) {
+		if (depth == size) {
+			if (Integer.bitCount(union) != size)
+				return false;
+			// the cover lines are the columns for rows and the rows for columns
+			final var cover = base == 0 ? 9 : 0;
+			var eliminated = false;
+			for (var position = 0; position < 9; position++) {
+				if ((union & (1 << position)) == 0)
+					continue;
+				for (var line = 0; line < 9; line++) {
+					if ((lines & (1 << line)) == 0)
+						eliminated |= eliminate(Grid.unitCell(cover + position, line), bit);
+				}
+			}
+			if (eliminated) {
+				for (var line = 0; line < 9; line++) {
+					if ((lines & (1 << line)) != 0)
+						markUnitCells(base + line, union & this.positions[line]);
+				}
+			}
+			return eliminated;
+		}
+
+		for (var line = start; line < 9; line++) {
+			final var mask = this.positions[line];
+			final var count = Integer.bitCount(mask);
+			if (count < 2 || count > size)
+				continue;
+			final var newUnion = union | mask;
+			if (Integer.bitCount(newUnion) <= size
+					&& fish(base, size, bit, line + 1, depth + 1, lines | (1 << line), newUnion))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Finds a cell with the candidates AB and two of its peers with the candidates
+	 * AC and BC. One of the peers must contain C, so C is removed from all cells
+	 * seeing both peers.
+	 */
+	private boolean xyWing() {
+		for (var pivot = 0; pivot < 81; pivot++) {
+			final var pivotMask = this.candidates[pivot];
+			if (Integer.bitCount(pivotMask) != 2)
+				continue;
+
+			for (var i = 0; i < 20; i++) {
+				final var first = Grid.peer(pivot, i);
+				final var firstMask = this.candidates[first];
+				if (Integer.bitCount(firstMask) != 2 || Integer.bitCount(firstMask & pivotMask) != 1)
+					continue;
+
+				final var c = firstMask & ~pivotMask;
+				final var secondMask = (pivotMask & ~firstMask) | c;
+				for (var j = i + 1; j < 20; j++) {
+					final var second = Grid.peer(pivot, j);
+					if (this.candidates[second] == secondMask && eliminateSeenByBoth(first, second, c)) {
+						mark(pivot);
+						mark(first);
+						mark(second);
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Follows chains of cells with two candidates. If the start cell is not X, the
+	 * chain forces its end cell to be X, so X is removed from all cells seeing both
+	 * ends. The chains are searched breadth-first over pairs of cell and forced
+	 * value, so each pair is visited only once per start.
+	 */
+	private boolean xyChain() {
+		final var queue = this.chainQueue;
+		final var parent = this.chainParent;
+		final var visited = this.chainVisited;
+		for (var start = 0; start < 81; start++) {
+			final var startMask = this.candidates[start];
+			if (Integer.bitCount(startMask) != 2)
+				continue;
+
+			for (var x = startMask; x != 0; x &= x - 1) {
+				final var bit = x & -x;
+				Arrays.fill(visited, false);
+
+				// the start cell is assumed not to be X, so it is the other value
+				var head = 0;
+				var tail = 0;
+				final var first = (start * 9) + Integer.numberOfTrailingZeros(startMask & ~bit);
+				queue[tail++] = first;
+				parent[first] = -1;
+				visited[first] = true;
+
+				while (head < tail) {
+					final var state = queue[head++];
+					final var index = state / 9;
+					final var on = 1 << (state % 9);
+
+					if (on == bit && index != start && eliminateSeenByBoth(start, index, bit)) {
+						for (var chain = state; chain != -1; chain = parent[chain])
+							mark(chain / 9);
+						return true;
+					}
+
+					for (var i = 0; i < 20; i++) {
+						final var peer = Grid.peer(index, i);
+						final var mask = this.candidates[peer];
+						if (Integer.bitCount(mask) != 2 || (mask & on) == 0)
+							continue;
+						final var next = (peer * 9) + Integer.numberOfTrailingZeros(mask & ~on);
+						if (!visited[next]) {
+							visited[next] = true;
+							parent[next] = state;
+							queue[tail++] = next;
+						}
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Marks the cells of a unit as part of the found pattern.
+	 * 
+	 * @param unit  the unit
+	 * @param cells a mask of the positions within the unit
+	 */
+	private void markUnitCells(final int unit, final int cells) {
+		for (var i = 0; i < 9; i++) {
+			if ((cells & (1 << i)) != 0)
+				mark(Grid.unitCell(unit, i));
+		}
+	}
+
+	private boolean eliminateSeenByBoth(final int first, final int second, final int bits) {
+		var eliminated = false;
+		for (var i = 0; i < 20; i++) {
+			final var index = Grid.peer(first, i);
+			if (index != second && sees(index, second))
+				eliminated |= eliminate(index, bits);
+		}
+		return eliminated;
+	}
+}
@@ -0,0 +1,70 @@
+package name.ulbricht.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * Contains the difficulty rating of a grid. Instances are immutable.
+ *
+ * @see Rater#rate(Grid)
+ */
+public final class Rating {
+
+	private final Technique hardest;
+	private final int score;
+	private final int[] counts;
+
+	Rating(final Technique hardest, final int[] counts) {
+		this.hardest = hardest;
+		this.counts = Arrays.copyOf(counts, counts.length);
+		var score = 0;
+		for (final var technique : Technique.values())
+			score += counts[technique.ordinal()] * technique.weight();
+		this.score = score;
+	}
+
+	/**
+	 * Returns the hardest technique needed to solve the grid.
+	 *
+	 * @return the hardest technique, {@link Technique#BACKTRACKING} if the grid
+	 *         cannot be solved by the techniques
+	 */
+	public Technique hardest() {
+		return this.hardest;
+	}
+
+	/**
+	 * Returns the score of the grid. The score is the sum of the weights of all
+	 * applied techniques, so it grows with the number and the difficulty of the
+	 * steps.
+	 *
+	 * @return the score
+	 * @see Technique#weight()
+	 */
+	public int score() {
+		return this.score;
+	}
+
+	/**
+	 * Returns how often the specified technique was applied.
+	 *
+	 * @param technique the technique
+	 * @return the number of applications
+	 */
+	public int count(final Technique technique) {
+		return this.counts[technique.ordinal()];
+	}
+
+	/**
+	 * Checks if the grid was solved by the techniques.
+	 *
+	 * @return {@code true} if the grid was solved, otherwise {@code false}
+	 */
+	public boolean solved() {
+		return this.hardest != Technique.BACKTRACKING;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Rating[hardest=%s, score=%d]", this.hardest, this.score);
+	}
+}
@@ -0,0 +1,136 @@
+package name.ulbricht.sudoku;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the solutions of grids by their canonical form, so equivalent grids
+ * are solved only once. The solutions are stored packed in the orientation of
+ * the canonical grid. If the cache is full, the least recently used entry is
+ * removed. All methods are thread-safe, so a cache can be shared by multiple
+ * solvers.
+ *
+ * @see SolverOptions#withCache(SolutionCache)
+ */
+public final class SolutionCache {
+
+	private final int capacity;
+	private final Map<Grid, CachedSolutions> entries;
+	private long hits;
+	private long misses;
+
+	/**
+	 * Creates a new empty cache.
+	 *
+	 * @param capacity the maximum number of entries, at least one
+	 */
+	public SolutionCache(final int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		this.capacity = capacity;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Grid, CachedSolutions> eldest) {
+				return size() > SolutionCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the maximum number of entries.
+	 *
+	 * @return the capacity
+	 */
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Returns the current number of entries.
+	 *
+	 * @return the number of entries
+	 */
+	public synchronized int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Returns the number of lookups that found the solutions.
+	 *
+	 * @return the number of hits
+	 */
+	public synchronized long hits() {
+		return this.hits;
+	}
+
+	/**
+	 * Returns the number of lookups that did not find the solutions.
+	 *
+	 * @return the number of misses
+	 */
+	public synchronized long misses() {
+		return this.misses;
+	}
+
+	/**
+	 * Removes all entries and resets the hit and miss counters.
+	 */
+	public synchronized void clear() {
+		this.entries.clear();
+		this.hits = 0;
+		this.misses = 0;
+	}
+
+	/**
+	 * Looks up the solutions of a canonical grid. An entry can be used if it
+	 * contains all solutions or at least the requested number of solutions.
+	 *
+	 * @param canonical    the canonical grid
+	 * @param maxSolutions the maximum number of solutions requested
+	 * @return the canonical solutions or {@code null} if there is no usable entry
+	 */
+	synchronized List<Grid> get(final Grid canonical, final int maxSolutions) {
+		final var entry = this.entries.get(canonical);
+		if (entry == null || (!entry.complete && entry.solutions.length < maxSolutions)) {
+			this.misses++;
+			return null;
+		}
+		this.hits++;
+
+		final var count = Math.min(entry.solutions.length, maxSolutions);
+		final var solutions = new ArrayList<Grid>(count);
+		for (var i = 0; i < count; i++)
+			solutions.add(Grid.unpack(entry.solutions[i]));
+		return solutions;
+	}
+
+	/**
+	 * Stores the solutions of a canonical grid.
+	 *
+	 * @param canonical the canonical grid
+	 * @param solutions the solutions in the orientation of the canonical grid
+	 * @param complete  defines if the solutions are all solutions of the grid
+	 */
+	synchronized void put(final Grid canonical, final List<Grid> solutions, final boolean complete) {
+		final var packed = new long[solutions.size()][];
+		for (var i = 0; i < packed.length; i++)
+			packed[i] = solutions.get(i).pack();
+		this.entries.put(Grid.copyOf(canonical), new CachedSolutions(packed, complete));
+	}
+
+	private static final class CachedSolutions {
+
+		final long[][] solutions;
+		final boolean complete;
+
+		CachedSolutions(final long[][] solutions, final boolean complete) {
+			this.solutions = solutions;
+			this.complete = complete;
+		}
+	}
+}
@@ -0,0 +1,254 @@
+package name.ulbricht.sudoku;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts all solutions of a grid without creating solution grids. The search
+ * works like the brute force solver, but it branches only on the cells of the
+ * first band (row of boxes) that is not complete. When a band is completed,
+ * the rest of the grid only depends on the values used in each column of the
+ * completed bands, since all rows and boxes of the completed bands are full.
+ * The number of solutions of such a state is remembered, so other branches
+ * with the same column values reuse it instead of searching again.
+ * <p>
+ * The branches are searched in parallel like the brute force solver. Each task
+ * counts its own solutions, the counts are added when the tasks are joined.
+ */
+public final class SolutionCounter {
+
+	/**
+	 * The maximum number of remembered states of a single count.
+	 */
+	private static final int MAX_STATES = 1 << 20;
+
+	/**
+	 * Creates a new counter for the specified grid. The engine and the maximum
+	 * number of solutions of the options are ignored.
+	 *
+	 * @param grid    the grid to count the solutions of
+	 * @param options the options for the parallelism and the sequential cutoff
+	 * @return a new counter
+	 */
+	public static SolutionCounter of(final Grid grid, final SolverOptions options) {
+		return new SolutionCounter(Objects.requireNonNull(grid, "grid must not be null"),
+				Objects.requireNonNull(options, "options must not be null"));
+	}
+
+	private final Grid grid;
+	private final int parallelism;
+	private final int sequentialCutoff;
+	private final Map<BandKey, Long> states = new ConcurrentHashMap<>();
+	private final AtomicLong reusedStates = new AtomicLong();
+	private volatile boolean cancelled;
+
+	private SolutionCounter(final Grid grid, final SolverOptions options) {
+		this.grid = grid;
+		this.parallelism = options.parallelism();
+		this.sequentialCutoff = options.sequentialCutoff();
+	}
+
+	/**
+	 * Counts all solutions of the grid.
+	 *
+	 * @return the number of solutions, or the number found so far if the count was
+	 *         cancelled
+	 * @throws ArithmeticException if the number of solutions exceeds the range of
+	 *                             {@code long}
+	 */
+	public long count() {
+		this.states.clear();
+		this.reusedStates.set(0);
+		this.cancelled = false;
+
+		final var start = Grid.copyOf(this.grid);
+		if (this.parallelism > 1 && start.emptyCells() > this.sequentialCutoff)
+			return SolverPools.of(this.parallelism).invoke(new CountTask(start, 0));
+		return new Worker().count(start, false, 0);
+	}
+
+	/**
+	 * Stops a running count as soon as possible. This method may be called from
+	 * any thread.
+	 */
+	public void cancel() {
+		this.cancelled = true;
+	}
+
+	/**
+	 * Returns how often the remembered number of solutions of a state was used
+	 * by the last count.
+	 *
+	 * @return the number of reused states
+	 */
+	public long reusedStates() {
+		return this.reusedStates.get();
+	}
+
+	/**
+	 * Returns the number of leading bands without empty cells.
+	 */
+	private static int completedBands(final Grid grid) {
+		final var geometry = grid.geometry();
+		final var bandCells = geometry.boxSize() * geometry.size();
+		var index = 0;
+		while (index < geometry.cells() && grid.value(index) != 0)
+			index++;
+		return index / bandCells;
+	}
+
+	/**
+	 * Counts the solutions in a single thread. A worker owns its propagator and
+	 * trail, so nothing is shared between threads except the remembered states.
+	 */
+	private final class Worker {
+
+		private final Propagator propagator = new Propagator(() -> SolutionCounter.this.cancelled);
+		private final Trail trail = new Trail();
+
+		/**
+		 * Counts the solutions of the given grid.
+		 *
+		 * @param grid     the grid, will be restored before returning
+		 * @param parallel defines if the branches may be counted by parallel tasks
+		 * @param bands    the number of completed bands of the branch point above
+		 *                 this grid
+		 * @return the number of solutions
+		 */
+		long count(final Grid grid, final boolean parallel, final int bands) {
+			if (SolutionCounter.this.cancelled)
+				return 0;
+
+			final var mark = this.trail.mark();
+			try {
+				return search(grid, parallel, bands);
+			} finally {
+				this.trail.undo(grid, mark);
+			}
+		}
+
+		private long search(final Grid grid, final boolean parallel, final int previousBands) {
+			if (this.propagator.propagate(grid, this.trail) < 0)
+				return 0;
+
+			final var geometry = grid.geometry();
+			final var bands = completedBands(grid);
+			if (bands == geometry.boxSize())
+				return 1;
+
+			// only a state where a band has just been completed depends on the columns
+			// alone, the states below already contain guesses of the next band
+			BandKey key = null;
+			if (bands > previousBands) {
+				key = new BandKey(grid, bands);
+				final var count = SolutionCounter.this.states.get(key);
+				if (count != null) {
+					SolutionCounter.this.reusedStates.incrementAndGet();
+					return count;
+				}
+			}
+
+			// the cell with the fewest candidates of the first incomplete band
+			final var bandCells = geometry.boxSize() * geometry.size();
+			var fewestCandidates = 0;
+			var fewestCandidatesIndex = -1;
+			for (var index = bands * bandCells; index < (bands + 1) * bandCells; index++) {
+				final var mask = grid.candidateMask(index);
+				if (mask != 0 && (fewestCandidatesIndex < 0
+						|| Integer.bitCount(mask) < Integer.bitCount(fewestCandidates))) {
+					fewestCandidates = mask;
+					fewestCandidatesIndex = index;
+				}
+			}
+
+			var count = 0L;
+			if (parallel && grid.emptyCells() > SolutionCounter.this.sequentialCutoff) {
+				final var tasks = new ArrayList<CountTask>(Integer.bitCount(fewestCandidates));
+				for (var mask = fewestCandidates; mask != 0; mask &= mask - 1) {
+					final var branch = Grid.copyOf(grid);
+					branch.place(fewestCandidatesIndex, Integer.numberOfTrailingZeros(mask) + 1);
+					tasks.add(new CountTask(branch, bands));
+				}
+				ForkJoinTask.invokeAll(tasks);
+				for (final var task : tasks)
+					count = Math.addExact(count, task.join());
+			} else {
+				final var mark = this.trail.mark();
+				for (var mask = fewestCandidates; mask != 0; mask &= mask - 1) {
+					this.trail.place(grid, fewestCandidatesIndex, Integer.numberOfTrailingZeros(mask) + 1);
+					count = Math.addExact(count, count(grid, false, bands));
+					this.trail.undo(grid, mark);
+				}
+			}
+
+			if (key != null && !SolutionCounter.this.cancelled
+					&& SolutionCounter.this.states.size() < MAX_STATES)
+				SolutionCounter.this.states.put(key, count);
+			return count;
+		}
+	}
+
+	/**
+	 * Counts the solutions of a grid within the shared fork/join pool of the
+	 * counter.
+	 */
+	private final class CountTask extends RecursiveTask<Long> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Grid grid;
+		private final int bands;
+
+		CountTask(final Grid grid, final int bands) {
+			this.grid = grid;
+			this.bands = bands;
+		}
+
+		@Override
+		protected Long compute() {
+			return new Worker().count(this.grid, true, this.bands);
+		}
+	}
+
+	/**
+	 * The state of a grid after some bands have been completed: the number of
+	 * completed bands and the values used in each column of these bands. The
+	 * empty cells of the remaining bands have been filled by propagation only, so
+	 * they follow from the givens and the used values of the columns.
+	 */
+	private static final class BandKey {
+
+		private final int bands;
+		private final int[] columns;
+
+		BandKey(final Grid grid, final int bands) {
+			final var size = grid.size();
+			this.bands = bands;
+			this.columns = new int[size];
+			final var end = bands * grid.boxSize() * size;
+			for (var index = 0; index < end; index++)
+				this.columns[index % size] |= 1 << (grid.value(index) - 1);
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * this.bands) + Arrays.hashCode(this.columns);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || this.getClass() != obj.getClass())
+				return false;
+			final var other = (BandKey) obj;
+			return this.bands == other.bands && Arrays.equals(this.columns, other.columns);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package name.ulbricht.sudoku;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event for solving a grid. The duration is the wall time of
+ * the solver. Like all events of this package it costs nothing if no recording
+ * is running, the values are only collected if the event is committed.
+ */
+@Name("name.ulbricht.sudoku.Solve")
+@Label("Solve")
+@Category("Sudoku")
+@Description("Solving a grid")
+final class SolveEvent extends Event {
+
+	/**
+	 * The engine of grids whose solutions are taken from a {@link SolutionCache}.
+	 */
+	static final String CACHE = "cache";
+
+	@Label("Engine")
+	String engine;
+
+	@Label("Size")
+	@Description("The number of rows and columns")
+	int size;
+
+	@Label("Clues")
+	@Description("The number of filled cells of the grid")
+	int clues;
+
+	@Label("Solutions")
+	int solutions;
+
+	@Label("Nodes")
+	long nodes;
+
+	@Label("Guesses")
+	long guesses;
+
+	/**
+	 * Ends the event and commits it, if it is enabled and exceeds the threshold.
+	 *
+	 * @param engine     the name of the engine or {@link #CACHE}
+	 * @param grid       the solved grid
+	 * @param solutions  the number of found solutions
+	 * @param statistics the statistics of the solver
+	 */
+	void finish(final String engine, final Grid grid, final int solutions, final SolverStatistics statistics) {
+		end();
+		if (shouldCommit()) {
+			this.engine = engine;
+			this.size = grid.size();
+			final var cells = grid.geometry().cells();
+			for (var index = 0; index < cells; index++) {
+				if (grid.value(index) != 0)
+					this.clues++;
+			}
+			this.solutions = solutions;
+			this.nodes = statistics.nodes();
+			this.guesses = statistics.guesses();
+			commit();
+		}
+	}
+}
@@ -2,6 +2,8 @@ package name.ulbricht.sudoku;
 
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 public interface Solver {
 
@@ -13,14 +15,75 @@ public interface Solver {
 	}
 
 	static Solver of(final Grid grid) {
-		return new BruteForceSolver(grid);
+		return of(grid, SolverOptions.defaults());
+	}
+
+	static Solver of(final Grid grid, final Engine engine) {
+		return of(grid, SolverOptions.defaults().withEngine(engine));
+	}
+
+	static Solver of(final Grid grid, final SolverOptions options) {
+		// the canonical form is defined for classic grids only
+		if (Objects.requireNonNull(options, "options must not be null").cache() != null
+				&& (grid == null || grid.geometry() == Geometry.CLASSIC))
+			return new CachingSolver(grid, options);
+
+		switch (options.engine()) {
+		case DLX:
+			return new DancingLinksSolver(grid, options);
+		case BRUTE_FORCE:
+		default:
+			return new BruteForceSolver(grid, options);
+		}
 	}
 
 	void solve();
 
+	/**
+	 * Solves the grid and passes each solution to the consumer as soon as it is
+	 * found, instead of storing it. The search waits while the consumer processes
+	 * a solution, so solutions can be written while a long enumeration is running
+	 * without keeping them in memory. The consumer is never called concurrently,
+	 * but it may be called by different threads. To stop the search early, the
+	 * consumer may call {@link #cancel()}, no more solutions are passed after
+	 * that. If the consumer throws an exception, the search is cancelled and the
+	 * exception is thrown by this method.
+	 * <p>
+	 * The number of passed solutions is returned by {@link #solutionCount()},
+	 * {@link #solutions()} returns an empty list afterwards.
+	 * 
+	 * @param consumer receives the solutions
+	 */
+	void solve(Consumer<? super Grid> consumer);
+
+	/**
+	 * Stops a running search as soon as possible. The solutions found so far are
+	 * kept. This method may be called from any thread.
+	 */
+	void cancel();
+
 	long solutionTime();
 
 	int solutionCount();
 
 	List<Grid> solutions();
-}
\ No newline at end of file
+
+	/**
+	 * Returns the statistics of the last solution run.
+	 * 
+	 * @return the statistics
+	 */
+	SolverStatistics statistics();
+
+	/**
+	 * Checks if exactly one solution has been found. To check the uniqueness of a
+	 * grid, the solver should be created with
+	 * {@link SolverOptions#withUniquenessCheck()}.
+	 * 
+	 * @return {@code true} if there is exactly one solution, otherwise
+	 *         {@code false}
+	 */
+	default boolean unique() {
+		return solutionCount() == 1;
+	}
+}
@@ -2,46 +2,268 @@ package name.ulbricht.sudoku;
 
 import static name.ulbricht.sudoku.Messages.msg;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 final class SolverCommandLine {
 
+	private static final String STANDARD_INPUT = "-";
+	private static final String OPTION_PREFIX = "--";
+	private static final String QUIET_OPTION = "--quiet";
+	private static final String STATISTICS_OPTION = "--statistics";
+	private static final String THREADS_OPTION = "--threads=";
+	private static final String GENERATE_OPTION = "--generate=";
+	private static final String SYMMETRY_OPTION = "--symmetry=";
+	private static final String SEED_OPTION = "--seed=";
+	private static final String SERVER_OPTION = "--server=";
+	private static final String COMMENT_PREFIX = "# ";
+	private static final String FILE_EXTENSION = ".sudoku";
+
+	private final InputStream in;
 	private final PrintStream out;
 	private final Locale locale;
 
 	SolverCommandLine(final PrintStream out, final Locale locale) {
+		this(System.in, out, locale);
+	}
+
+	SolverCommandLine(final InputStream in, final PrintStream out, final Locale locale) {
+		this.in = in;
 		this.out = out;
 		this.locale = locale;
 	}
 
 	int run(final String... args) {
-		Path sourceFile = null;
+		final var sources = new ArrayList<String>();
+		var threads = Runtime.getRuntime().availableProcessors();
+		var quiet = false;
+		var statistics = false;
+		var count = -1L;
+		var port = -1;
+		var generatorOptions = GeneratorOptions.defaults();
 
 		for (final String arg : args) {
-			if (sourceFile != null) {
+			if (arg.equals(QUIET_OPTION)) {
+				quiet = true;
+			} else if (arg.equals(STATISTICS_OPTION)) {
+				statistics = true;
+			} else if (arg.startsWith(THREADS_OPTION)) {
+				threads = parseThreads(arg.substring(THREADS_OPTION.length()));
+				if (threads < 1) {
+					this.out.println(msg(this.locale, "SolverCommandLine.invalidThreads", arg));
+					return 1;
+				}
+			} else if (arg.startsWith(GENERATE_OPTION)) {
+				count = parseCount(arg.substring(GENERATE_OPTION.length()));
+				if (count < 0) {
+					this.out.println(msg(this.locale, "SolverCommandLine.invalidCount", arg));
+					return 1;
+				}
+			} else if (arg.startsWith(SYMMETRY_OPTION)) {
+				final var symmetry = parseSymmetry(arg.substring(SYMMETRY_OPTION.length()));
+				if (symmetry == null) {
+					this.out.println(msg(this.locale, "SolverCommandLine.invalidSymmetry", arg));
+					return 1;
+				}
+				generatorOptions = generatorOptions.withSymmetry(symmetry);
+			} else if (arg.startsWith(SEED_OPTION)) {
+				try {
+					generatorOptions = generatorOptions.withSeed(Long.parseLong(arg.substring(SEED_OPTION.length())));
+				} catch (final NumberFormatException ex) {
+					this.out.println(msg(this.locale, "SolverCommandLine.invalidSeed", arg));
+					return 1;
+				}
+			} else if (arg.startsWith(SERVER_OPTION)) {
+				port = parsePort(arg.substring(SERVER_OPTION.length()));
+				if (port < 0) {
+					this.out.println(msg(this.locale, "SolverCommandLine.invalidPort", arg));
+					return 1;
+				}
+			} else if (arg.startsWith(OPTION_PREFIX)) {
 				this.out.println(msg(this.locale, "SolverCommandLine.unexpectedArgument", arg));
 				return 1;
+			} else {
+				sources.add(arg);
 			}
-			try {
-				sourceFile = Path.of(arg);
-			} catch (final InvalidPathException ex) {
-				this.out.println(msg(this.locale, "SolverCommandLine.invalidFileName", arg));
+		}
+
+		if (count >= 0 || port >= 0) {
+			if (!sources.isEmpty()) {
+				this.out.println(msg(this.locale, "SolverCommandLine.unexpectedArgument", sources.get(0)));
 				return 1;
 			}
+			if (port >= 0)
+				return startServer(port, threads);
+			return generate(count, generatorOptions.withParallelism(threads), statistics);
 		}
 
-		if (sourceFile == null) {
+		if (sources.isEmpty()) {
 			this.out.println(msg(this.locale, "SolverCommandLine.noSourceFileSpecified"));
 			return 1;
 		}
 
+		final var inputs = new ArrayList<Stream<Input>>();
+		var batch = sources.size() > 1;
+		var standardInput = false;
+		for (final var source : sources) {
+			try {
+				if (source.equals(STANDARD_INPUT)) {
+					// the standard input can be read only once
+					if (standardInput) {
+						this.out.println(msg(this.locale, "SolverCommandLine.duplicateStandardInput"));
+						return 1;
+					}
+					standardInput = true;
+					final var in = new StandardInput(this.in);
+					batch |= in.compact();
+					inputs.add(in.inputs());
+					continue;
+				}
+
+				// glob characters are not allowed in file names on Windows
+				if (isGlob(source)) {
+					final var files = expandGlob(source);
+					if (files.isEmpty()) {
+						this.out.println(msg(this.locale, "SolverCommandLine.noMatchingFiles", source));
+						return 1;
+					}
+					batch = true;
+					inputs.add(files.stream());
+					continue;
+				}
+
+				final var file = Path.of(source);
+				if (Files.isDirectory(file)) {
+					batch = true;
+					inputs.add(listDirectory(file).stream());
+				} else {
+					inputs.add(Stream.of(new Input(source, () -> GridFile.parse(file))));
+				}
+			} catch (final InvalidPathException | PatternSyntaxException ex) {
+				this.out.println(msg(this.locale, "SolverCommandLine.invalidFileName", source));
+				return 1;
+			} catch (final IOException ex) {
+				this.out.println(msg(this.locale, "SolverCommandLine.parseGridFileError", ex.getLocalizedMessage()));
+				return 1;
+			}
+		}
+
+		if (!batch)
+			return solveSingle(inputs.get(0).findFirst().orElseThrow(), statistics);
+		return solveBatch(inputs.stream().flatMap(Function.identity()).iterator(), threads, quiet, statistics);
+	}
+
+	private static int parseThreads(final String s) {
+		try {
+			return Integer.parseInt(s);
+		} catch (final NumberFormatException ex) {
+			return 0;
+		}
+	}
+
+	private static long parseCount(final String s) {
+		try {
+			return Long.parseLong(s);
+		} catch (final NumberFormatException ex) {
+			return -1;
+		}
+	}
+
+	private static int parsePort(final String s) {
+		try {
+			final var port = Integer.parseInt(s);
+			return port <= 0xFFFF ? port : -1;
+		} catch (final NumberFormatException ex) {
+			return -1;
+		}
+	}
+
+	private static Symmetry parseSymmetry(final String s) {
+		try {
+			return Symmetry.valueOf(s.toUpperCase(Locale.ROOT));
+		} catch (final IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Generates puzzles and prints them one per line. The statistics are printed
+	 * as comments, so the output can be read as compact grid file.
+	 * 
+	 * @param count      the number of puzzles
+	 * @param options    the options of the generator
+	 * @param statistics defines if the statistics should be printed
+	 * @return the exit code
+	 * @see CompactGridFile
+	 */
+	private int generate(final long count, final GeneratorOptions options, final boolean statistics) {
+		final var startTime = System.nanoTime();
+
+		final var writer = GridWriter.of(this.out, GridFormat.LINE);
+		Generator.of(options).generate(count, writer);
+		try {
+			writer.flush();
+		} catch (final IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+
+		if (statistics) {
+			final var totalTime = System.nanoTime() - startTime;
+			final var seconds = Math.max(totalTime, 1) / 1_000_000_000.0;
+			this.out.println(COMMENT_PREFIX + msg(this.locale, "SolverCommandLine.numberOfPuzzles", count));
+			this.out.println(COMMENT_PREFIX + msg(this.locale, "SolverCommandLine.totalTime", totalTime / 1_000_000));
+			this.out.println(COMMENT_PREFIX + msg(this.locale, "SolverCommandLine.puzzlesPerSecond", count / seconds));
+		}
+		return 0;
+	}
+
+	/**
+	 * Starts the embedded server. The server keeps running after this method
+	 * returns, until the process is terminated.
+	 * 
+	 * @param port    the port to listen on, zero chooses a free port
+	 * @param threads the maximum number of requests solved at the same time
+	 * @return the exit code
+	 * @see SolverServer
+	 */
+	private int startServer(final int port, final int threads) {
+		try {
+			final var server = SolverServer.start(new InetSocketAddress(port),
+					SolverOptions.defaults().withParallelism(1), threads);
+			this.out.println(msg(this.locale, "SolverCommandLine.serverStarted", server.address().getPort()));
+			return 0;
+		} catch (final IOException ex) {
+			this.out.println(msg(this.locale, "SolverCommandLine.serverError", ex.getLocalizedMessage()));
+			return 1;
+		}
+	}
+
+	private int solveSingle(final Input input, final boolean statistics) {
 		Grid grid;
 		try {
-			grid = GridFile.parse(sourceFile);
+			grid = input.parser.parse();
 		} catch (final IOException ex) {
 			this.out.println(msg(this.locale, "SolverCommandLine.parseGridFileError", ex.getLocalizedMessage()));
 			return 1;
@@ -50,12 +272,298 @@ final class SolverCommandLine {
 		final var solver = Solver.of(grid);
 		solver.solve();
 
-		this.out.println(msg(this.locale, "SolverCommandLine.numberOfSolutions", solver.solutionCount()));
-		this.out.println(msg(this.locale, "SolverCommandLine.solutionTime", solver.solutionTime()));
+		printSolver(new PrintWriter(this.out, true), solver, statistics);
+
+		return 0;
+	}
+
+	/**
+	 * Solves all inputs on a bounded pool of worker threads. The results are
+	 * printed in the order of the inputs as soon as they are available. The
+	 * inputs are read only as far as the workers need them.
+	 * 
+	 * @param inputs     the inputs to solve
+	 * @param threads    the number of worker threads
+	 * @param quiet      defines if the results of successfully solved grids should
+	 *                   be omitted
+	 * @param statistics defines if the statistics of each grid should be printed
+	 * @return the exit code
+	 */
+	private int solveBatch(final Iterator<Input> inputs, final int threads, final boolean quiet,
+			final boolean statistics) {
+		final var startTime = System.nanoTime();
+		var count = 0L;
+		var failures = 0;
+
+		// each grid is solved sequentially, the parallelism comes from the workers
+		final var options = SolverOptions.defaults().withParallelism(1);
+
+		final var executor = Executors.newFixedThreadPool(threads);
+		try {
+			final var pending = new ArrayDeque<Future<Result>>();
+			final var window = threads * 4;
+			while (inputs.hasNext() || !pending.isEmpty()) {
+				while (inputs.hasNext() && pending.size() < window) {
+					final var input = inputs.next();
+					count++;
+					pending.add(executor.submit(() -> solve(input, options, quiet, statistics)));
+				}
+
+				final var result = pending.remove().get();
+				if (result.failed)
+					failures++;
+				this.out.print(result.output);
+			}
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return 1;
+		} catch (final ExecutionException ex) {
+			this.out.println(ex.getCause().toString());
+			return 1;
+		} finally {
+			executor.shutdownNow();
+		}
+
+		final var totalTime = System.nanoTime() - startTime;
+		final var seconds = Math.max(totalTime, 1) / 1_000_000_000.0;
+
+		this.out.println(msg(this.locale, "SolverCommandLine.numberOfPuzzles", count));
+		this.out.println(msg(this.locale, "SolverCommandLine.numberOfFailures", failures));
+		this.out.println(msg(this.locale, "SolverCommandLine.totalTime", totalTime / 1_000_000));
+		this.out.println(msg(this.locale, "SolverCommandLine.puzzlesPerSecond", count / seconds));
+
+		return failures == 0 ? 0 : 1;
+	}
+
+	private Result solve(final Input input, final SolverOptions options, final boolean quiet,
+			final boolean statistics) {
+		final var output = new StringWriter();
+		final var writer = new PrintWriter(output);
+
+		Grid grid;
+		try {
+			grid = input.parser.parse();
+		} catch (final IOException ex) {
+			writer.println(input.name);
+			writer.println(msg(this.locale, "SolverCommandLine.parseGridFileError", ex.getLocalizedMessage()));
+			writer.flush();
+			return new Result(output.toString(), true);
+		}
+
+		try {
+			final var solver = Solver.of(grid, options);
+			solver.solve();
+
+			if (!quiet) {
+				writer.println(input.name);
+				printSolver(writer, solver, statistics);
+			}
+		} catch (final RuntimeException ex) {
+			// an unexpected error fails this input only, the batch continues
+			writer.flush();
+			output.getBuffer().setLength(0);
+			writer.println(input.name);
+			writer.println(msg(this.locale, "SolverCommandLine.solveError", ex));
+			writer.flush();
+			return new Result(output.toString(), true);
+		}
+		writer.flush();
+		return new Result(output.toString(), false);
+	}
+
+	private void printSolver(final PrintWriter writer, final Solver solver, final boolean statistics) {
+		writer.println(msg(this.locale, "SolverCommandLine.numberOfSolutions", solver.solutionCount()));
+		writer.println(msg(this.locale, "SolverCommandLine.solutionTime", solver.solutionTime()));
+		if (statistics)
+			printStatistics(writer, solver.statistics());
 		for (final Grid solution : solver.solutions()) {
-			this.out.println(solution.toString());
+			writer.println(solution.toString());
 		}
+		writer.flush();
+	}
 
-		return 0;
+	private void printStatistics(final PrintWriter writer, final SolverStatistics statistics) {
+		writer.println(msg(this.locale, "SolverCommandLine.nodes", statistics.nodes()));
+		writer.println(msg(this.locale, "SolverCommandLine.guesses", statistics.guesses()));
+		writer.println(msg(this.locale, "SolverCommandLine.backtracks", statistics.backtracks()));
+		writer.println(msg(this.locale, "SolverCommandLine.singles", statistics.singles()));
+		writer.println(msg(this.locale, "SolverCommandLine.maxDepth", statistics.maxDepth()));
+		writer.println(msg(this.locale, "SolverCommandLine.gridCopies", statistics.gridCopies()));
+		writer.println(msg(this.locale, "SolverCommandLine.wallTime", statistics.wallTime()));
+		writer.println(msg(this.locale, "SolverCommandLine.cpuTime", statistics.cpuTime()));
+		writer.println(msg(this.locale, "SolverCommandLine.propagationTime", statistics.propagationTime()));
+		writer.println(msg(this.locale, "SolverCommandLine.branchingTime", statistics.branchingTime()));
+	}
+
+	private static boolean isGlob(final String source) {
+		for (var i = 0; i < source.length(); i++) {
+			if (isGlobCharacter(source.charAt(i)))
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean isGlobCharacter(final char c) {
+		return c == '*' || c == '?' || c == '[' || c == '{';
+	}
+
+	/**
+	 * Finds all files matching the given glob pattern. The search starts at the
+	 * deepest directory of the pattern without any glob characters and descends
+	 * only as deep as the pattern has segments, unless the pattern contains
+	 * {@code **}. Backslashes are treated as separators, not as escape characters.
+	 * 
+	 * @param source the pattern to match
+	 * @return the matching files sorted by their names
+	 * @throws IOException if the directory cannot be read
+	 */
+	private static List<Input> expandGlob(final String source) throws IOException {
+		final var glob = source.replace('\\', '/');
+		var baseEnd = -1;
+		for (var i = 0; i < glob.length() && !isGlobCharacter(glob.charAt(i)); i++) {
+			if (glob.charAt(i) == '/')
+				baseEnd = i;
+		}
+		final var baseDirectory = Path.of(baseEnd >= 0 ? glob.substring(0, baseEnd + 1) : "");
+		final var matcher = baseDirectory.getFileSystem().getPathMatcher("glob:" + glob);
+
+		if (!Files.isDirectory(baseDirectory.toAbsolutePath()))
+			return List.of();
+
+		var depth = 1;
+		if (glob.contains("**"))
+			depth = Integer.MAX_VALUE;
+		else {
+			for (var i = baseEnd + 1; i < glob.length(); i++) {
+				if (glob.charAt(i) == '/')
+					depth++;
+			}
+		}
+
+		try (final var files = Files.walk(baseDirectory, depth)) {
+			return files.filter(Files::isRegularFile).filter(matcher::matches).sorted()
+					.map(Input::of).collect(Collectors.toList());
+		}
+	}
+
+	private static List<Input> listDirectory(final Path directory) throws IOException {
+		try (final var files = Files.list(directory)) {
+			return files.filter(Files::isRegularFile)
+					.filter(file -> file.getFileName().toString().endsWith(FILE_EXTENSION)).sorted()
+					.map(Input::of).collect(Collectors.toList());
+		}
+	}
+
+	@FunctionalInterface
+	private interface Parser {
+
+		Grid parse() throws IOException;
+	}
+
+	/**
+	 * A single source of a grid, either a file or (a line of) the standard input.
+	 */
+	private static final class Input {
+
+		static Input of(final Path file) {
+			return new Input(file.toString(), () -> GridFile.parse(file));
+		}
+
+		final String name;
+		final Parser parser;
+
+		Input(final String name, final Parser parser) {
+			this.name = name;
+			this.parser = parser;
+		}
+	}
+
+	/**
+	 * The grids of the standard input. The standard input contains either a single
+	 * grid in the format of {@link GridFile} or any number of lines of a
+	 * {@link CompactGridFile}, which is detected by the length of the first line.
+	 * The lines are read only once and when they are needed, the standard input
+	 * is not closed.
+	 */
+	private static final class StandardInput {
+
+		private final BufferedReader reader;
+		private final String firstLine;
+		private int lineNumber;
+		private boolean failed;
+
+		StandardInput(final InputStream in) throws IOException {
+			this.reader = new BufferedReader(new InputStreamReader(in));
+			this.firstLine = nextLine();
+		}
+
+		/**
+		 * Checks if the standard input contains compact lines. A line with the length
+		 * of a row starts a grid file, this applies to the 16 characters of a compact
+		 * line with 4 by 4 cells too.
+		 */
+		boolean compact() {
+			return this.firstLine != null && Geometry.ofCells(this.firstLine.length()) != null
+					&& Geometry.ofSize(this.firstLine.length()) == null;
+		}
+
+		Stream<Input> inputs() throws IOException {
+			if (compact())
+				return Stream.iterate(lineInput(this.firstLine), input -> input != null, input -> nextInput());
+
+			final var text = new StringBuilder();
+			for (var line = this.firstLine; line != null; line = this.reader.readLine())
+				text.append(line).append('\n');
+			final var grid = text.toString();
+			return Stream.of(new Input(STANDARD_INPUT, () -> GridFile.parse(grid)));
+		}
+
+		/**
+		 * Reads the next compact line. An error while reading is reported by the
+		 * parser of the returned input, no more lines are read after that.
+		 */
+		private Input nextInput() {
+			if (this.failed)
+				return null;
+			try {
+				final var line = nextLine();
+				return line != null ? lineInput(line) : null;
+			} catch (final IOException ex) {
+				this.failed = true;
+				return new Input(STANDARD_INPUT, () -> {
+					throw ex;
+				});
+			}
+		}
+
+		private Input lineInput(final String line) {
+			return new Input(STANDARD_INPUT + ':' + this.lineNumber, () -> CompactGridFile.parseLine(line, true));
+		}
+
+		/**
+		 * Reads the next line that is neither empty nor a comment.
+		 */
+		private String nextLine() throws IOException {
+			String line;
+			do {
+				line = this.reader.readLine();
+				this.lineNumber++;
+			} while (line != null && (line.isEmpty() || line.charAt(0) == '#'));
+			return line;
+		}
+	}
+
+	/**
+	 * The printable result of a single grid.
+	 */
+	private static final class Result {
+
+		final String output;
+		final boolean failed;
+
+		Result(final String output, final boolean failed) {
+			this.output = output;
+			this.failed = failed;
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package name.ulbricht.sudoku;
+
+import java.util.Objects;
+
+/**
+ * Contains the options to create a solver. Instances are immutable, all
+ * {@code with} methods return a new instance.
+ *
+ * @see Solver#of(Grid, SolverOptions)
+ */
+public final class SolverOptions {
+
+	/**
+	 * The default number of empty cells a grid must have to search its branches in
+	 * parallel.
+	 */
+	public static final int DEFAULT_SEQUENTIAL_CUTOFF = 40;
+
+	/**
+	 * The default maximum number of solutions to search for.
+	 */
+	public static final int DEFAULT_MAX_SOLUTIONS = 10;
+
+	/**
+	 * Returns the default options. The brute force engine is used with as many
+	 * threads as processors are available.
+	 *
+	 * @return the default options
+	 */
+	public static SolverOptions defaults() {
+		return new SolverOptions(Engine.BRUTE_FORCE, Runtime.getRuntime().availableProcessors(),
+				DEFAULT_SEQUENTIAL_CUTOFF, DEFAULT_MAX_SOLUTIONS, null);
+	}
+
+	private final Engine engine;
+	private final int parallelism;
+	private final int sequentialCutoff;
+	private final int maxSolutions;
+	private final SolutionCache cache;
+
+	private SolverOptions(final Engine engine, final int parallelism, final int sequentialCutoff,
+			final int maxSolutions, final SolutionCache cache) {
+		this.engine = engine;
+		this.parallelism = parallelism;
+		this.sequentialCutoff = sequentialCutoff;
+		this.maxSolutions = maxSolutions;
+		this.cache = cache;
+	}
+
+	/**
+	 * Returns the engine used to solve the grid.
+	 *
+	 * @return the engine
+	 */
+	public Engine engine() {
+		return this.engine;
+	}
+
+	/**
+	 * Returns new options with the specified engine.
+	 *
+	 * @param engine the engine used to solve the grid
+	 * @return new options
+	 */
+	public SolverOptions withEngine(final Engine engine) {
+		return new SolverOptions(Objects.requireNonNull(engine, "engine must not be null"), this.parallelism,
+				this.sequentialCutoff, this.maxSolutions, this.cache);
+	}
+
+	/**
+	 * Returns the number of threads used to search the branches of a grid. A value
+	 * of one means that the search runs in the calling thread.
+	 *
+	 * @return the number of threads
+	 */
+	public int parallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Returns new options with the specified number of threads. The threads belong
+	 * to a pool that is shared by all solvers with the same parallelism. Grids
+	 * with no more empty cells than the sequential cutoff are solved by the
+	 * calling thread.
+	 *
+	 * @param parallelism the number of threads, at least one
+	 * @return new options
+	 */
+	public SolverOptions withParallelism(final int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+		return new SolverOptions(this.engine, parallelism, this.sequentialCutoff, this.maxSolutions, this.cache);
+	}
+
+	/**
+	 * Returns the number of empty cells a grid must exceed to search its branches
+	 * in parallel. Grids with fewer empty cells are searched sequentially in the
+	 * current thread, because the overhead of new tasks outweighs their work.
+	 *
+	 * @return the number of empty cells
+	 */
+	public int sequentialCutoff() {
+		return this.sequentialCutoff;
+	}
+
+	/**
+	 * Returns new options with the specified sequential cutoff.
+	 *
+	 * @param sequentialCutoff the number of empty cells, between 0 and the number
+	 *                         of cells of the largest grid
+	 * @return new options
+	 * @see #sequentialCutoff()
+	 */
+	public SolverOptions withSequentialCutoff(final int sequentialCutoff) {
+		if (sequentialCutoff < 0 || sequentialCutoff > Geometry.of(Geometry.MAX_BOX_SIZE).cells())
+			throw new IllegalArgumentException("Invalid sequential cutoff: " + sequentialCutoff);
+		return new SolverOptions(this.engine, this.parallelism, sequentialCutoff, this.maxSolutions, this.cache);
+	}
+
+	/**
+	 * Returns the maximum number of solutions to search for. The search stops as
+	 * soon as this number of solutions has been found.
+	 *
+	 * @return the maximum number of solutions
+	 */
+	public int maxSolutions() {
+		return this.maxSolutions;
+	}
+
+	/**
+	 * Returns new options with the specified maximum number of solutions.
+	 *
+	 * @param maxSolutions the maximum number of solutions, at least one
+	 * @return new options
+	 * @see #maxSolutions()
+	 */
+	public SolverOptions withMaxSolutions(final int maxSolutions) {
+		if (maxSolutions < 1)
+			throw new IllegalArgumentException("Invalid maximum number of solutions: " + maxSolutions);
+		return new SolverOptions(this.engine, this.parallelism, this.sequentialCutoff, maxSolutions, this.cache);
+	}
+
+	/**
+	 * Returns new options to check if a grid has a unique solution. The search
+	 * stops as soon as a second solution has been found.
+	 *
+	 * @return new options
+	 * @see Solver#unique()
+	 */
+	public SolverOptions withUniquenessCheck() {
+		return withMaxSolutions(2);
+	}
+
+	/**
+	 * Returns the cache for the solutions of equivalent grids.
+	 *
+	 * @return the cache or {@code null} if no cache is used
+	 */
+	public SolutionCache cache() {
+		return this.cache;
+	}
+
+	/**
+	 * Returns new options with the specified solution cache. If a cache is used,
+	 * the solver looks up the canonical form of the grid first and solves the grid
+	 * only if no equivalent grid has been solved before. Larger grids are always
+	 * solved without the cache.
+	 * <p>
+	 * The canonical form takes about 0.3 to 0.7 ms per grid, which is as long as
+	 * solving a hard grid. So a miss costs about twice as much as solving without
+	 * a cache, the cache pays off only if equivalent grids are solved repeatedly.
+	 *
+	 * @param cache the cache, may be shared by multiple solvers, or {@code null} to
+	 *              solve without a cache
+	 * @return new options
+	 * @see CanonicalForm
+	 */
+	public SolverOptions withCache(final SolutionCache cache) {
+		return new SolverOptions(this.engine, this.parallelism, this.sequentialCutoff, this.maxSolutions, cache);
+	}
+}
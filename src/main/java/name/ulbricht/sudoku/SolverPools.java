@@ -0,0 +1,31 @@
+package name.ulbricht.sudoku;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Provides the fork/join pools shared by all solvers. There is one pool for
+ * each parallelism, it is created when it is used first and kept until the JVM
+ * exits. Concurrent solvers with the same parallelism share their workers, so
+ * they do not oversubscribe the processors. The workers are daemon threads and
+ * terminate when they are idle for a while.
+ */
+final class SolverPools {
+
+	private static final ConcurrentMap<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the shared pool for the specified parallelism.
+	 *
+	 * @param parallelism the number of worker threads, at least 1
+	 * @return the pool
+	 */
+	static ForkJoinPool of(final int parallelism) {
+		return POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+	}
+
+	private SolverPools() {
+		// hidden
+	}
+}
@@ -0,0 +1,417 @@
+package name.ulbricht.sudoku;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * An embedded HTTP server that solves grids, based on the HTTP server of the
+ * JDK. All endpoints accept {@code POST} requests with a UTF-8 text body and
+ * respond with plain text:
+ * <dl>
+ * <dt>{@code /solve}</dt>
+ * <dd>Solves a grid in the format of {@link GridFile} or a single line of a
+ * {@link CompactGridFile} and responds with the first solution in the same
+ * format. If there is no solution, the status is 422.</dd>
+ * <dt>{@code /unique}</dt>
+ * <dd>Checks if a grid in one of these formats has a unique solution. The
+ * response is {@code unique}, {@code multiple} or {@code none}.</dd>
+ * <dt>{@code /batch}</dt>
+ * <dd>Solves all grids of a compact grid file. The response contains one line
+ * for each grid, either the solution or the comment {@code # no solution}. An
+ * invalid line is answered by a comment with its line number. The grids are
+ * read and the solutions are written while streaming.</dd>
+ * </dl>
+ * Since solving is bound by the CPU, the requests are handled by a fixed number
+ * of threads. A limited number of further requests waits for a free thread, if
+ * there are more, they are rejected with the status 503. Each request has a time
+ * limit, after that its search is cancelled and the status is 503. A batch
+ * request ends with the comment {@code # Time limit exceeded} instead, because
+ * its status has been sent already. Each request is solved by a single thread,
+ * so the options should use a parallelism of one.
+ */
+public final class SolverServer implements AutoCloseable {
+
+	/**
+	 * The maximum length of the body of a single grid request.
+	 */
+	private static final int MAX_BODY_LENGTH = 64 * 1024;
+
+	/**
+	 * The number of requests that may wait for each thread.
+	 */
+	private static final int QUEUED_REQUESTS = 4;
+
+	/**
+	 * The maximum number of rejected requests waiting for their response.
+	 */
+	private static final int REJECTED_REQUESTS = 100;
+
+	/**
+	 * The default time limit of a request.
+	 */
+	private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(60);
+
+	/**
+	 * The interval in milliseconds of checking the time limits of the searches.
+	 */
+	private static final long CANCEL_INTERVAL = 100;
+
+	/**
+	 * The time in milliseconds closing waits for the running requests.
+	 */
+	private static final long CLOSE_TIMEOUT = 10_000;
+
+	private static final String NO_SOLUTION = "# no solution";
+	private static final String TIME_LIMIT_EXCEEDED = "Time limit exceeded";
+
+	/**
+	 * Starts a new server with a time limit of 60 seconds for each request.
+	 *
+	 * @param address     the address to listen on, port zero chooses a free port
+	 * @param options     the options of the solvers
+	 * @param concurrency the maximum number of requests solved at the same time
+	 * @return the running server
+	 * @throws IOException if the server cannot listen on the address
+	 */
+	public static SolverServer start(final InetSocketAddress address, final SolverOptions options,
+			final int concurrency) throws IOException {
+		return start(address, options, concurrency, DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Starts a new server.
+	 *
+	 * @param address     the address to listen on, port zero chooses a free port
+	 * @param options     the options of the solvers
+	 * @param concurrency the maximum number of requests solved at the same time
+	 * @param timeout     the time limit of each request
+	 * @return the running server
+	 * @throws IOException if the server cannot listen on the address
+	 */
+	public static SolverServer start(final InetSocketAddress address, final SolverOptions options,
+			final int concurrency, final Duration timeout) throws IOException {
+		Objects.requireNonNull(address, "address must not be null");
+		Objects.requireNonNull(options, "options must not be null");
+		if (concurrency < 1)
+			throw new IllegalArgumentException("Invalid concurrency: " + concurrency);
+		if (Objects.requireNonNull(timeout, "timeout must not be null").isNegative() || timeout.isZero())
+			throw new IllegalArgumentException("Invalid timeout: " + timeout);
+
+		final var server = new SolverServer(HttpServer.create(address, 0), options, concurrency, timeout);
+		server.server.start();
+		return server;
+	}
+
+	private final HttpServer server;
+	private final ThreadPoolExecutor executor;
+	private final ThreadPoolExecutor rejector;
+	private final ScheduledExecutorService watchdog;
+	private final Set<Search> searches = ConcurrentHashMap.newKeySet();
+	private final long timeout;
+	private final SolverOptions solveOptions;
+	private final SolverOptions uniqueOptions;
+	private volatile boolean closed;
+
+	private SolverServer(final HttpServer server, final SolverOptions options, final int concurrency,
+			final Duration timeout) {
+		this.server = server;
+		this.rejector = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(REJECTED_REQUESTS), RejectingThread::new);
+		this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(concurrency * QUEUED_REQUESTS),
+				(command, executor) -> this.rejector.execute(command));
+		this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final var thread = new Thread(runnable, "SolverServer-watchdog");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.timeout = timeout.toNanos();
+		this.solveOptions = options.withMaxSolutions(1);
+		this.uniqueOptions = options.withUniquenessCheck();
+
+		this.watchdog.scheduleWithFixedDelay(this::cancelSearches, CANCEL_INTERVAL, CANCEL_INTERVAL,
+				TimeUnit.MILLISECONDS);
+		server.setExecutor(this.executor);
+		server.createContext("/solve", exchange -> handle(exchange, this::solve));
+		server.createContext("/unique", exchange -> handle(exchange, this::unique));
+		server.createContext("/batch", exchange -> handle(exchange, this::batch));
+	}
+
+	/**
+	 * Returns the address the server listens on.
+	 *
+	 * @return the address with the actual port
+	 */
+	public InetSocketAddress address() {
+		return this.server.getAddress();
+	}
+
+	/**
+	 * Stops the server. The searches of running requests are cancelled, waiting
+	 * requests are dropped.
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+		this.server.stop(0);
+		this.rejector.shutdownNow();
+		this.executor.shutdownNow();
+		this.searches.forEach(Search::cancel);
+		try {
+			this.executor.awaitTermination(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS);
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Cancels the searches that exceeded their time limit, or all searches if the
+	 * server is closed. The searches are cancelled repeatedly until they are
+	 * finished, because a solver may not have started to search yet.
+	 */
+	private void cancelSearches() {
+		final var now = System.nanoTime();
+		for (final var search : this.searches) {
+			if (this.closed || now - search.deadline >= 0)
+				search.cancel();
+		}
+		if (this.closed && this.searches.isEmpty())
+			this.watchdog.shutdown();
+	}
+
+	private void handle(final HttpExchange exchange, final Handler handler) throws IOException {
+		try {
+			if (Thread.currentThread() instanceof RejectingThread) {
+				send(exchange, 503, "Server busy");
+				return;
+			}
+			if (!exchange.getRequestURI().getPath().equals(exchange.getHttpContext().getPath())) {
+				send(exchange, 404, "Not found");
+				return;
+			}
+			if (!exchange.getRequestMethod().equals("POST")) {
+				exchange.getResponseHeaders().set("Allow", "POST");
+				send(exchange, 405, "Method not allowed");
+				return;
+			}
+
+			handler.handle(exchange, System.nanoTime() + this.timeout);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void solve(final HttpExchange exchange, final long deadline) throws IOException {
+		final var request = parse(exchange);
+		if (request == null)
+			return;
+
+		final var solver = search(request.grid, this.solveOptions, deadline);
+		if (solver == null) {
+			send(exchange, 503, TIME_LIMIT_EXCEEDED);
+			return;
+		}
+		if (solver.solutionCount() == 0) {
+			send(exchange, 422, "No solution");
+			return;
+		}
+
+		final var solution = solver.solutions().get(0);
+		final var writer = new StringWriter();
+		if (request.compact)
+			CompactGridFile.write(writer, solution);
+		else {
+			GridFile.write(writer, solution);
+			writer.write(System.lineSeparator());
+		}
+		send(exchange, 200, writer.toString());
+	}
+
+	private void unique(final HttpExchange exchange, final long deadline) throws IOException {
+		final var request = parse(exchange);
+		if (request == null)
+			return;
+
+		final var solver = search(request.grid, this.uniqueOptions, deadline);
+		if (solver == null) {
+			send(exchange, 503, TIME_LIMIT_EXCEEDED);
+			return;
+		}
+		final var count = solver.solutionCount();
+		send(exchange, 200, (count == 0 ? "none" : count == 1 ? "unique" : "multiple") + System.lineSeparator());
+	}
+
+	private void batch(final HttpExchange exchange, final long deadline) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+		exchange.sendResponseHeaders(200, 0);
+
+		// the status has been sent already, so errors are reported as comments
+		try (final var reader = new BufferedReader(
+				new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+				final var writer = new BufferedWriter(
+						new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+			var lineNumber = 0;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.isEmpty() || line.charAt(0) == '#')
+					continue;
+
+				final Grid grid;
+				try {
+					grid = CompactGridFile.parseLine(line, true);
+				} catch (final IOException ex) {
+					writeLine(writer, String.format("# Line %d: %s", lineNumber, ex.getMessage()));
+					continue;
+				}
+
+				final var solver = search(grid, this.solveOptions, deadline);
+				if (solver == null) {
+					writeLine(writer, "# " + TIME_LIMIT_EXCEEDED);
+					return;
+				}
+				if (solver.solutionCount() > 0)
+					CompactGridFile.write(writer, solver.solutions().get(0));
+				else
+					writeLine(writer, NO_SOLUTION);
+			}
+		}
+	}
+
+	private static void writeLine(final Writer writer, final String line) throws IOException {
+		writer.write(line);
+		writer.write(System.lineSeparator());
+	}
+
+	/**
+	 * Solves a grid, unless the time limit of the request is exceeded or the
+	 * server is closed.
+	 *
+	 * @return the solver or {@code null} if the search has been cancelled
+	 */
+	private Solver search(final Grid grid, final SolverOptions options, final long deadline) {
+		final var search = new Search(Solver.of(grid, options), deadline);
+		this.searches.add(search);
+		try {
+			if (this.closed || System.nanoTime() - deadline >= 0)
+				search.cancel();
+			else
+				search.solver.solve();
+		} finally {
+			this.searches.remove(search);
+		}
+		return search.cancelled ? null : search.solver;
+	}
+
+	/**
+	 * Parses the grid of a single grid request. If the body cannot be parsed, the
+	 * error response is sent.
+	 *
+	 * @return the parsed request or {@code null} if the body is invalid
+	 */
+	private static Request parse(final HttpExchange exchange) throws IOException {
+		final var body = exchange.getRequestBody().readNBytes(MAX_BODY_LENGTH + 1);
+		if (body.length > MAX_BODY_LENGTH) {
+			send(exchange, 413, "Request too large");
+			return null;
+		}
+
+		final var text = new String(body, StandardCharsets.UTF_8);
+		String singleLine = null;
+		var lines = 0;
+		for (final var line : text.split("\\r?\\n")) {
+			if (!line.isEmpty() && line.charAt(0) != '#') {
+				singleLine = line;
+				lines++;
+			}
+		}
+
+		try {
+			if (lines == 1)
+				return new Request(CompactGridFile.parseLine(singleLine, true), true);
+			return new Request(GridFile.parse(text, true), false);
+		} catch (final IOException ex) {
+			send(exchange, 400, ex.getMessage());
+			return null;
+		}
+	}
+
+	private static void send(final HttpExchange exchange, final int status, final String text) throws IOException {
+		final var bytes = text.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (final var out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	@FunctionalInterface
+	private interface Handler {
+
+		void handle(HttpExchange exchange, long deadline) throws IOException;
+	}
+
+	/**
+	 * A running search of a request.
+	 */
+	private static final class Search {
+
+		final Solver solver;
+		final long deadline;
+		volatile boolean cancelled;
+
+		Search(final Solver solver, final long deadline) {
+			this.solver = solver;
+			this.deadline = deadline;
+		}
+
+		void cancel() {
+			this.cancelled = true;
+			this.solver.cancel();
+		}
+	}
+
+	/**
+	 * The thread that responds to the requests rejected by the full queue.
+	 */
+	private static final class RejectingThread extends Thread {
+
+		RejectingThread(final Runnable runnable) {
+			super(runnable, "SolverServer-rejector");
+			setDaemon(true);
+		}
+	}
+
+	/**
+	 * The grid of a single grid request and its format.
+	 */
+	private static final class Request {
+
+		final Grid grid;
+		final boolean compact;
+
+		Request(final Grid grid, final boolean compact) {
+			this.grid = grid;
+			this.compact = compact;
+		}
+	}
+}
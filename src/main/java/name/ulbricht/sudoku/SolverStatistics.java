@@ -0,0 +1,183 @@
+package name.ulbricht.sudoku;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Contains the statistics of a solution run. All times are measured in
+ * nanoseconds.
+ *
+ * @see Solver#statistics()
+ */
+public final class SolverStatistics {
+
+	/**
+	 * Statistics of a solver that has not been run yet.
+	 */
+	static final SolverStatistics EMPTY = new SolverStatistics(new Counters(), 0);
+
+	private final long nodes;
+	private final long guesses;
+	private final long backtracks;
+	private final long singles;
+	private final int maxDepth;
+	private final long gridCopies;
+	private final long wallTime;
+	private final long cpuTime;
+	private final long propagationTime;
+	private final long branchingTime;
+
+	SolverStatistics(final Counters counters, final long wallTime) {
+		this.nodes = counters.nodes;
+		this.guesses = counters.guesses;
+		this.backtracks = counters.backtracks;
+		this.singles = counters.singles;
+		this.maxDepth = counters.maxDepth;
+		this.gridCopies = counters.gridCopies;
+		this.wallTime = wallTime;
+		this.cpuTime = counters.cpuTime;
+		this.propagationTime = counters.propagationTime;
+		this.branchingTime = counters.branchingTime;
+	}
+
+	/**
+	 * Returns the number of search nodes visited.
+	 *
+	 * @return the number of nodes
+	 */
+	public long nodes() {
+		return this.nodes;
+	}
+
+	/**
+	 * Returns the number of candidates tried at branch points.
+	 *
+	 * @return the number of guesses
+	 */
+	public long guesses() {
+		return this.guesses;
+	}
+
+	/**
+	 * Returns the number of search nodes that ended without a solution because a
+	 * cell had no candidates left.
+	 *
+	 * @return the number of backtracks
+	 */
+	public long backtracks() {
+		return this.backtracks;
+	}
+
+	/**
+	 * Returns the number of cells filled because they had a single candidate.
+	 *
+	 * @return the number of singles
+	 */
+	public long singles() {
+		return this.singles;
+	}
+
+	/**
+	 * Returns the maximum number of nested branch points.
+	 *
+	 * @return the maximum depth
+	 */
+	public int maxDepth() {
+		return this.maxDepth;
+	}
+
+	/**
+	 * Returns the number of grids copied by the search.
+	 *
+	 * @return the number of grid copies
+	 */
+	public long gridCopies() {
+		return this.gridCopies;
+	}
+
+	/**
+	 * Returns the elapsed time of the solution run.
+	 *
+	 * @return the wall time in nanoseconds
+	 */
+	public long wallTime() {
+		return this.wallTime;
+	}
+
+	/**
+	 * Returns the CPU time of all threads used by the solution run. The CPU time is
+	 * zero if the JVM does not support measuring it.
+	 *
+	 * @return the CPU time in nanoseconds
+	 */
+	public long cpuTime() {
+		return this.cpuTime;
+	}
+
+	/**
+	 * Returns the time spent filling cells by logical deduction, summed over all
+	 * threads.
+	 *
+	 * @return the propagation time in nanoseconds
+	 */
+	public long propagationTime() {
+		return this.propagationTime;
+	}
+
+	/**
+	 * Returns the time spent creating the branches at branch points, summed over
+	 * all threads.
+	 *
+	 * @return the branching time in nanoseconds
+	 */
+	public long branchingTime() {
+		return this.branchingTime;
+	}
+
+	/**
+	 * Collects the statistics of a single thread or task without any
+	 * synchronization. The counters of multiple threads are merged when the search
+	 * is finished.
+	 */
+	static final class Counters {
+
+		private static final boolean CPU_TIME_SUPPORTED = ManagementFactory.getThreadMXBean()
+				.isCurrentThreadCpuTimeSupported();
+
+		long nodes;
+		long guesses;
+		long backtracks;
+		long singles;
+		int maxDepth;
+		long gridCopies;
+		long cpuTime;
+		long propagationTime;
+		long branchingTime;
+
+		/**
+		 * Returns the CPU time of the current thread.
+		 *
+		 * @return the CPU time in nanoseconds or zero if not supported
+		 */
+		static long currentCpuTime() {
+			return CPU_TIME_SUPPORTED ? ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime() : 0;
+		}
+
+		void depth(final int depth) {
+			if (depth > this.maxDepth)
+				this.maxDepth = depth;
+		}
+
+		Counters merge(final Counters other) {
+			this.nodes += other.nodes;
+			this.guesses += other.guesses;
+			this.backtracks += other.backtracks;
+			this.singles += other.singles;
+			this.maxDepth = Math.max(this.maxDepth, other.maxDepth);
+			this.gridCopies += other.gridCopies;
+			this.cpuTime += other.cpuTime;
+			this.propagationTime += other.propagationTime;
+			this.branchingTime += other.branchingTime;
+			return this;
+		}
+	}
+}
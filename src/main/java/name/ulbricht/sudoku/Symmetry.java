@@ -0,0 +1,43 @@
+package name.ulbricht.sudoku;
+
+/**
+ * Defines the symmetry of the clues of a generated puzzle. A cell and its
+ * symmetric cell are either both filled or both empty.
+ *
+ * @see GeneratorOptions#withSymmetry(Symmetry)
+ */
+public enum Symmetry {
+
+	/**
+	 * The clues are placed without any symmetry.
+	 */
+	NONE,
+
+	/**
+	 * The clues are symmetric to a rotation by 180 degrees around the center cell.
+	 */
+	ROTATIONAL,
+
+	/**
+	 * The clues are symmetric to a reflection at the center column.
+	 */
+	MIRROR;
+
+	/**
+	 * Returns the cell that is symmetric to the specified cell.
+	 *
+	 * @param index the zero-based index of a cell
+	 * @return the zero-based index of the symmetric cell, may be the same cell
+	 */
+	int symmetricCell(final int index) {
+		switch (this) {
+		case ROTATIONAL:
+			return 80 - index;
+		case MIRROR:
+			return ((index / 9) * 9) + (8 - (index % 9));
+		case NONE:
+		default:
+			return index;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package name.ulbricht.sudoku;
+
+/**
+ * Defines the techniques used by human solvers, ranked from easiest to hardest.
+ * The rater always applies the easiest technique that makes progress.
+ *
+ * @see Rater
+ */
+public enum Technique {
+
+	/**
+	 * A value fits into only one cell of a row, column or box.
+	 */
+	HIDDEN_SINGLE(1),
+
+	/**
+	 * A cell has only one candidate left.
+	 */
+	NAKED_SINGLE(2),
+
+	/**
+	 * The candidates of a value within a box are all in one row or column (or the
+	 * other way round), so the value is removed from the rest of this row, column
+	 * or box.
+	 */
+	LOCKED_CANDIDATES(3),
+
+	/**
+	 * Two cells of a unit contain only the same two candidates.
+	 */
+	NAKED_PAIR(5),
+
+	/**
+	 * Two values fit only into the same two cells of a unit.
+	 */
+	HIDDEN_PAIR(6),
+
+	/**
+	 * Three cells of a unit contain only the same three candidates.
+	 */
+	NAKED_TRIPLE(8),
+
+	/**
+	 * Three values fit only into the same three cells of a unit.
+	 */
+	HIDDEN_TRIPLE(9),
+
+	/**
+	 * The candidates of a value in two rows are in the same two columns (or the
+	 * other way round).
+	 */
+	X_WING(10),
+
+	/**
+	 * Four cells of a unit contain only the same four candidates.
+	 */
+	NAKED_QUAD(12),
+
+	/**
+	 * Four values fit only into the same four cells of a unit.
+	 */
+	HIDDEN_QUAD(13),
+
+	/**
+	 * The candidates of a value in three rows are in the same three columns (or
+	 * the other way round).
+	 */
+	SWORDFISH(14),
+
+	/**
+	 * A cell with two candidates and two of its peers with two candidates each
+	 * form a chain of three cells.
+	 */
+	XY_WING(16),
+
+	/**
+	 * A chain of cells with two candidates each, where each cell forces the value
+	 * of the next cell.
+	 */
+	XY_CHAIN(20),
+
+	/**
+	 * The techniques are not sufficient, the grid can only be solved by trial and
+	 * error or has no unique solution.
+	 */
+	BACKTRACKING(50);
+
+	private final int weight;
+
+	Technique(final int weight) {
+		this.weight = weight;
+	}
+
+	/**
+	 * Returns the weight added to the score of a rating for each application of
+	 * this technique.
+	 *
+	 * @return the weight
+	 * @see Rating#score()
+	 */
+	public int weight() {
+		return this.weight;
+	}
+}
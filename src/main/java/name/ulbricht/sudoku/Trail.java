@@ -0,0 +1,55 @@
+package name.ulbricht.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * Records the cells filled during a search, so the search can work on a single
+ * grid and undo its changes when it backtracks. The masks of the rows, columns
+ * and boxes are derived from the cell values, so the filled cells are the only
+ * changes to log. An instance must not be shared between threads.
+ */
+final class Trail {
+
+	/**
+	 * The filled cells in the order they were filled. A cell can only be filled
+	 * once on each search path, so there are at most as many entries as cells.
+	 * The array grows for grids with more than 81 cells.
+	 */
+	private int[] cells = new int[81];
+	private int size;
+
+	/**
+	 * Returns the current position of the trail.
+	 *
+	 * @return the position to undo to
+	 * @see #undo(Grid, int)
+	 */
+	int mark() {
+		return this.size;
+	}
+
+	/**
+	 * Fills a cell of the grid and records it.
+	 *
+	 * @param grid  the grid to fill
+	 * @param index the zero-based index of an empty cell
+	 * @param value the new value, must be a candidate of the cell
+	 */
+	void place(final Grid grid, final int index, final int value) {
+		grid.place(index, value);
+		if (this.size == this.cells.length)
+			this.cells = Arrays.copyOf(this.cells, this.size * 2);
+		this.cells[this.size++] = index;
+	}
+
+	/**
+	 * Empties all cells filled after the given position.
+	 *
+	 * @param grid the grid to restore
+	 * @param mark the position returned by {@link #mark()}
+	 */
+	void undo(final Grid grid, final int mark) {
+		while (this.size > mark)
+			grid.remove(this.cells[--this.size]);
+	}
+}
@@ -0,0 +1,83 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public final class BatchSolverTest {
+
+	@Test
+	public void testFiles() throws IOException {
+		final var grids = new ArrayList<Grid>();
+		final var solutions = new ArrayList<Grid>();
+		for (var number = 1; number <= 4; number++) {
+			grids.add(Grids.load(String.format("single %s.sudoku", number)));
+			solutions.add(Grids.load(String.format("single %s (solved).sudoku", number)));
+		}
+
+		final var result = BatchSolver.of(SolverOptions.defaults()).solve(grids);
+		assertEquals(solutions, result);
+	}
+
+	@Test
+	public void testGeneratedPuzzles() {
+		final var options = SolverOptions.defaults().withParallelism(1);
+		final var random = new Random(1);
+
+		// fill some cells of the solutions, so most puzzles are solved by singles
+		final var puzzles = new ArrayList<Grid>();
+		final var solutions = new ArrayList<Grid>();
+		for (final var puzzle : Generator.of(GeneratorOptions.defaults().withSeed(7)).generate(100)) {
+			final var solver = Solver.of(puzzle, options);
+			solver.solve();
+			final var solution = solver.solutions().get(0);
+			final var additionalCells = random.nextInt(30);
+			for (var i = 0; i < additionalCells; i++) {
+				final var index = random.nextInt(81);
+				if (puzzle.value(index) == 0)
+					puzzle.place(index, solution.value(index));
+			}
+			puzzles.add(puzzle);
+			solutions.add(solution);
+		}
+
+		assertEquals(solutions, BatchSolver.of(options).solve(puzzles));
+	}
+
+	@Test
+	public void testNoSolution() throws IOException, RuleViolationException {
+		final var unsolvable = Grids.unsolvable();
+		final var grid = Grids.load("single 2.sudoku");
+		final var result = BatchSolver.of(SolverOptions.defaults())
+				.solve(List.of(grid, unsolvable, grid, unsolvable));
+		assertEquals(4, result.size());
+		assertNull(result.get(1));
+		assertNull(result.get(3));
+		assertEquals(Grids.load("single 2 (solved).sudoku"), result.get(0));
+		assertEquals(result.get(0), result.get(2));
+	}
+
+	@Test
+	public void testMixedSizes() throws IOException {
+		final var empty = Grid.empty();
+		final var large = Grids.load("large 1.sudoku");
+		final var result = BatchSolver.of(SolverOptions.defaults()).solve(List.of(empty, large, empty));
+
+		assertEquals(3, result.size());
+		for (final var solution : result)
+			assertTrue(solution.solved());
+		assertEquals(16, result.get(1).size());
+	}
+
+	@Test
+	public void testEmptyBatch() {
+		assertEquals(List.of(), BatchSolver.of(SolverOptions.defaults()).solve(List.of()));
+	}
+}
@@ -0,0 +1,112 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public final class ByteGridParserTest {
+
+	private static final String INITIAL_LINE = "5.1.3..6....4..2..7.........28..........7...1.......3.16.2.............4......8..";
+
+	@Test
+	public void testParse() {
+		final var content = String.format("# comment%n%s%n%n%s\r%n%s", INITIAL_LINE, INITIAL_LINE.replace('.', '0'),
+				INITIAL_LINE);
+		final var errors = new ArrayList<String>();
+		final var grids = ByteGridParser.parse(content.getBytes(StandardCharsets.US_ASCII), true, 1,
+				(status, line) -> errors.add(line + ": " + status));
+
+		assertEquals(List.of(), errors);
+		assertEquals(3, grids.size());
+		for (final var grid : grids) {
+			assertEquals(Grid.ofLocked(Grids.INITIAL_PATTERN), grid);
+			assertTrue(grid.locked(1, 1));
+			assertEquals(0, grid.candidateMask(1, 1));
+		}
+
+		final var unlocked = ByteGridParser.parse(INITIAL_LINE.getBytes(StandardCharsets.US_ASCII), false, 1,
+				(status, line) -> errors.add(line + ": " + status));
+		assertEquals(List.of(Grid.of(Grids.INITIAL_PATTERN)), unlocked);
+		assertTrue(!unlocked.get(0).locked(1, 1));
+	}
+
+	@Test
+	public void testErrors() {
+		final var content = String.join("\n", INITIAL_LINE, INITIAL_LINE.substring(1), "# comment",
+				INITIAL_LINE.replace('8', 'x'), INITIAL_LINE.replace('8', 'A'), INITIAL_LINE.replace('6', '5'),
+				INITIAL_LINE);
+		final var errors = new ArrayList<String>();
+		final var grids = ByteGridParser.parse(content.getBytes(StandardCharsets.US_ASCII), true, 1,
+				(status, line) -> errors.add(line + ": " + status));
+
+		assertEquals(2, grids.size());
+		assertEquals(List.of("2: INVALID_LENGTH", "4: INVALID_CHARACTER", "5: INVALID_CHARACTER", "6: DUPLICATE_VALUE"),
+				errors);
+	}
+
+	@Test
+	public void testLargeGrid() throws IOException {
+		final var grid = Grids.load("large 1.sudoku");
+		final var writer = new StringWriter();
+		CompactGridFile.write(writer, grid);
+
+		final var grids = ByteGridParser.parse(writer.toString().getBytes(StandardCharsets.US_ASCII), false, 1,
+				(status, line) -> {
+					throw new AssertionError(status);
+				});
+		assertEquals(List.of(grid), grids);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 3, 8 })
+	public void testParallel(final int parallelism) throws IOException {
+		// enough lines for several chunks, every 100th line is invalid
+		final var puzzles = Generator.of(GeneratorOptions.defaults().withSeed(11)).generate(50);
+		final var writer = new StringWriter();
+		for (var i = 0; i < 10_000; i++) {
+			if (i % 100 == 99)
+				writer.write(INITIAL_LINE.replace('6', '5') + System.lineSeparator());
+			else
+				CompactGridFile.write(writer, puzzles.get(i % puzzles.size()));
+		}
+		final var content = writer.toString();
+
+		final var errors = new ArrayList<Integer>();
+		final var buffer = ByteBuffer.allocateDirect(content.length() + 3);
+		buffer.put("###".getBytes(StandardCharsets.US_ASCII)).put(content.getBytes(StandardCharsets.US_ASCII));
+		buffer.position(3);
+		final var grids = ByteGridParser.parse(buffer, true, parallelism, (status, line) -> {
+			assertEquals(ParseStatus.DUPLICATE_VALUE, status);
+			errors.add(line);
+		});
+
+		assertEquals(3, buffer.position());
+		assertEquals(100, errors.size());
+		for (var i = 0; i < errors.size(); i++)
+			assertEquals((i + 1) * 100, errors.get(i));
+
+		final var expected = CompactGridFile.parse(new StringReader(content.replace(INITIAL_LINE.replace('6', '5'), "")), true)
+				.collect(Collectors.toList());
+		assertEquals(expected, grids);
+	}
+
+	@Test
+	public void testInvalidParallelism() {
+		assertEquals("Invalid parallelism: 0", assertThrows(IllegalArgumentException.class,
+				() -> ByteGridParser.parse(new byte[0], true, 0, (status, line) -> {
+				})).getMessage());
+	}
+}
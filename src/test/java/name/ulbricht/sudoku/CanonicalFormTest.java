@@ -0,0 +1,87 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public final class CanonicalFormTest {
+
+	@ParameterizedTest
+	@ValueSource(strings = { "empty.sudoku", "single 1.sudoku", "single 2.sudoku", "single 3.sudoku",
+			"single 4.sudoku", "single 4 (solved).sudoku", "multiple 1.sudoku" })
+	public void testEquivalentGrids(final String fileName) throws IOException {
+		final var grid = Grids.load(fileName);
+		final var canonical = CanonicalForm.of(grid);
+		assertEquals(canonical.grid(), canonical.transform().apply(grid));
+		assertEquals(grid, canonical.transform().revert(canonical.grid()));
+
+		final var random = new Random(fileName.hashCode());
+		for (var i = 0; i < 20; i++) {
+			final var transformed = randomTransform(random).apply(grid);
+			final var other = CanonicalForm.of(transformed);
+			assertEquals(canonical.grid(), other.grid());
+			assertEquals(transformed, other.transform().revert(other.grid()));
+		}
+	}
+
+	@Test
+	public void testDifferentGrids() throws IOException {
+		assertNotEquals(CanonicalForm.of(Grids.load("single 1.sudoku")).grid(),
+				CanonicalForm.of(Grids.load("single 2.sudoku")).grid());
+	}
+
+	@Test
+	public void testLocksIgnored() {
+		assertEquals(CanonicalForm.of(Grid.of(Grids.INITIAL_PATTERN)).grid(),
+				CanonicalForm.of(Grid.ofLocked(Grids.INITIAL_PATTERN)).grid());
+	}
+
+	@Test
+	public void testTransformKeepsLocks() {
+		final var grid = Grid.ofLocked(Grids.INITIAL_PATTERN);
+		final var transform = randomTransform(new Random(1));
+		assertEquals(grid, transform.revert(transform.apply(grid)));
+		assertEquals(grid, GridTransform.identity().apply(grid));
+	}
+
+	static GridTransform randomTransform(final Random random) {
+		return new GridTransform(random.nextBoolean(), randomPermutation(random), randomPermutation(random),
+				randomValues(random));
+	}
+
+	private static int[] randomPermutation(final Random random) {
+		final var bands = shuffled(random, 3);
+		final var permutation = new int[9];
+		for (var band = 0; band < 3; band++) {
+			final var rows = shuffled(random, 3);
+			for (var i = 0; i < 3; i++)
+				permutation[(band * 3) + i] = (bands.get(band) * 3) + rows.get(i);
+		}
+		return permutation;
+	}
+
+	private static int[] randomValues(final Random random) {
+		final var labels = shuffled(random, 9);
+		final var values = new int[10];
+		for (var value = 1; value <= 9; value++)
+			values[value] = labels.get(value - 1) + 1;
+		return values;
+	}
+
+	private static List<Integer> shuffled(final Random random, final int size) {
+		final var list = new ArrayList<Integer>(size);
+		for (var i = 0; i < size; i++)
+			list.add(i);
+		Collections.shuffle(list, random);
+		return list;
+	}
+}
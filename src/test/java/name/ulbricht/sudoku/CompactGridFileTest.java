@@ -0,0 +1,100 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public final class CompactGridFileTest {
+
+	private static final String INITIAL_LINE = "5.1.3..6....4..2..7.........28..........7...1.......3.16.2.............4......8..";
+
+	@Test
+	public void testParseLine() throws IOException {
+		assertEquals(Grid.ofLocked(Grids.INITIAL_PATTERN), CompactGridFile.parseLine(INITIAL_LINE, true));
+		assertEquals(Grid.of(Grids.INITIAL_PATTERN),
+				CompactGridFile.parseLine(INITIAL_LINE.replace('.', '0'), false));
+	}
+
+	@Test
+	public void testParseInvalidLine() {
+		assertEquals("Unexpected line length: 80",
+				assertThrows(IOException.class, () -> CompactGridFile.parseLine(INITIAL_LINE.substring(1), true))
+						.getMessage());
+		assertEquals("Invalid value", assertThrows(IOException.class,
+				() -> CompactGridFile.parseLine(INITIAL_LINE.replace('8', 'x'), true)).getMessage());
+	}
+
+	@Test
+	public void testWrite() throws IOException {
+		final var writer = new StringWriter();
+		CompactGridFile.write(writer, Grid.ofLocked(Grids.INITIAL_PATTERN));
+		assertEquals(INITIAL_LINE + System.lineSeparator(), writer.toString());
+	}
+
+	@Test
+	public void testLargeGrid() throws IOException {
+		final var grid = Grids.load("large 1.sudoku");
+		final var writer = new StringWriter();
+		CompactGridFile.write(writer, grid);
+
+		final var line = writer.toString().strip();
+		assertEquals(256, line.length());
+		assertTrue(line.startsWith("B9D2.6..1...5..C36A.1E"));
+		assertEquals(grid, CompactGridFile.parseLine(line, false));
+	}
+
+	@Test
+	public void testParseReader() {
+		final var content = String.format("# comment%n%s%n%n%s%n", INITIAL_LINE, INITIAL_LINE.replace('.', '0'));
+		final var grids = CompactGridFile.parse(new StringReader(content), false).collect(Collectors.toList());
+		assertEquals(List.of(Grid.of(Grids.INITIAL_PATTERN), Grid.of(Grids.INITIAL_PATTERN)), grids);
+
+		final var invalid = String.format("%s%n%s%n", INITIAL_LINE, INITIAL_LINE.substring(1));
+		try (final var stream = CompactGridFile.parse(new StringReader(invalid), false)) {
+			assertTrue(assertThrows(UncheckedIOException.class, () -> stream.count()).getMessage()
+					.startsWith("Line 2: "));
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = { 83, 100, 1000, 1024 * 1024 })
+	public void testWriteParseFile(final long mappingSize, @TempDir final Path directory) throws IOException {
+		final var expected = Stream.of("single 1.sudoku", "single 2.sudoku", "single 3.sudoku", "single 4.sudoku",
+				"single 4 (solved).sudoku").map(CompactGridFileTest::load).collect(Collectors.toList());
+
+		final var file = directory.resolve("grids.txt");
+		CompactGridFile.write(file, expected.stream());
+		assertEquals(expected.size(), Files.readAllLines(file).size());
+
+		try (final var grids = CompactGridFile.parse(file, false)) {
+			assertEquals(expected, grids.collect(Collectors.toList()));
+		}
+
+		try (final var grids = CompactGridFile.map(file, false, mappingSize)) {
+			assertEquals(expected, grids.collect(Collectors.toList()));
+		}
+	}
+
+	private static Grid load(final String fileName) {
+		try {
+			return Grids.load(fileName);
+		} catch (final IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+}
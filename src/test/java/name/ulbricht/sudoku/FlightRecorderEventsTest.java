@@ -0,0 +1,143 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public final class FlightRecorderEventsTest {
+
+	@Test
+	public void testSolveEvents(@TempDir final Path tempDir) throws IOException {
+		final var grid = Grids.load("single 1.sudoku");
+		var clues = 0;
+		for (var index = 0; index < 81; index++) {
+			if (grid.value(index) != 0)
+				clues++;
+		}
+
+		final List<RecordedEvent> events;
+		try (final var recording = new Recording()) {
+			recording.enable("name.ulbricht.sudoku.Solve");
+			recording.enable("name.ulbricht.sudoku.Branch").with("maxDepth", "1");
+			recording.enable("name.ulbricht.sudoku.Propagation").withThreshold(Duration.ZERO);
+			recording.start();
+
+			for (final var engine : Engine.values())
+				Solver.of(grid, SolverOptions.defaults().withEngine(engine).withParallelism(1)).solve();
+			Solver.of(Grid.empty(), SolverOptions.defaults().withParallelism(1).withMaxSolutions(1)).solve();
+
+			recording.stop();
+			final var file = tempDir.resolve("solve.jfr");
+			recording.dump(file);
+			events = RecordingFile.readAllEvents(file);
+		}
+
+		final var solveEvents = events(events, "name.ulbricht.sudoku.Solve");
+		assertEquals(3, solveEvents.size());
+		assertEquals("BRUTE_FORCE", solveEvents.get(0).getString("engine"));
+		assertEquals("DLX", solveEvents.get(1).getString("engine"));
+		for (final var event : solveEvents.subList(0, 2)) {
+			assertEquals(9, event.getInt("size"));
+			assertEquals(clues, event.getInt("clues"));
+			assertEquals(1, event.getInt("solutions"));
+		}
+		assertEquals(0, solveEvents.get(2).getInt("clues"));
+
+		// the empty grid needs guesses deeper than the recorded depth
+		final var branchEvents = events(events, "name.ulbricht.sudoku.Branch");
+		assertFalse(branchEvents.isEmpty());
+		for (final var event : branchEvents)
+			assertTrue(event.getInt("depth") <= 1);
+		assertTrue(branchEvents.stream().anyMatch(event -> event.getInt("depth") == 1));
+
+		assertFalse(events(events, "name.ulbricht.sudoku.Propagation").isEmpty());
+	}
+
+	@Test
+	public void testCacheEvents(@TempDir final Path tempDir) throws IOException {
+		final var grid = Grids.load("single 1.sudoku");
+		final var options = SolverOptions.defaults().withParallelism(1).withCache(new SolutionCache(10));
+		final List<RecordedEvent> events;
+		try (final var recording = new Recording()) {
+			recording.enable("name.ulbricht.sudoku.Solve");
+			recording.start();
+
+			// the first solve misses the cache, the second hits it
+			Solver.of(grid, options).solve();
+			Solver.of(grid, options).solve();
+
+			recording.stop();
+			final var file = tempDir.resolve("cache.jfr");
+			recording.dump(file);
+			events = RecordingFile.readAllEvents(file);
+		}
+
+		final var solveEvents = events(events, "name.ulbricht.sudoku.Solve");
+		assertEquals(2, solveEvents.size());
+		assertEquals("BRUTE_FORCE", solveEvents.get(0).getString("engine"));
+		final var hit = solveEvents.get(1);
+		assertEquals("cache", hit.getString("engine"));
+		assertEquals(solveEvents.get(0).getInt("clues"), hit.getInt("clues"));
+		assertEquals(1, hit.getInt("solutions"));
+		assertEquals(0, hit.getLong("nodes"));
+	}
+
+	@Test
+	public void testGridFileEvents(@TempDir final Path tempDir) throws IOException {
+		final var grid = Grids.load("single 1.sudoku");
+		final List<RecordedEvent> events;
+		try (final var recording = new Recording()) {
+			recording.enable("name.ulbricht.sudoku.GridFile");
+			recording.start();
+
+			final var out = new ByteArrayOutputStream();
+			try (final var writer = GridWriter.of(out, GridFormat.LINE)) {
+				writer.write(grid);
+				writer.write(grid);
+			}
+			ByteGridParser.parse((out.toString(StandardCharsets.US_ASCII) + "x").getBytes(StandardCharsets.US_ASCII),
+					true, 1, (status, line) -> {
+						// the invalid line is counted by the event
+					});
+
+			recording.stop();
+			final var file = tempDir.resolve("files.jfr");
+			recording.dump(file);
+			events = RecordingFile.readAllEvents(file);
+		}
+
+		final var fileEvents = events(events, "name.ulbricht.sudoku.GridFile");
+		assertEquals(2, fileEvents.size());
+
+		final var write = fileEvents.get(0);
+		assertEquals("write", write.getString("operation"));
+		assertEquals("line", write.getString("format"));
+		assertEquals(2, write.getLong("grids"));
+		assertEquals(2 * (81 + System.lineSeparator().length()), write.getLong("bytes"));
+
+		final var parse = fileEvents.get(1);
+		assertEquals("parse", parse.getString("operation"));
+		assertEquals(2, parse.getLong("grids"));
+		assertEquals(1, parse.getLong("errors"));
+	}
+
+	private static List<RecordedEvent> events(final List<RecordedEvent> events, final String name) {
+		return events.stream().filter(event -> event.getEventType().getName().equals(name))
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,56 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public final class GeneratorTest {
+
+	@ParameterizedTest
+	@EnumSource(Symmetry.class)
+	public void testUniqueSolution(final Symmetry symmetry) {
+		final var generator = Generator.of(GeneratorOptions.defaults().withSymmetry(symmetry).withSeed(42));
+		for (final var puzzle : generator.generate(5)) {
+			final var solver = Solver.of(puzzle, SolverOptions.defaults().withUniquenessCheck());
+			solver.solve();
+			assertTrue(solver.unique());
+			assertTrue(solver.solutions().get(0).solved());
+
+			for (var index = 0; index < 81; index++) {
+				final var column = (index % 9) + 1;
+				final var row = (index / 9) + 1;
+				assertEquals(!puzzle.empty(column, row), puzzle.locked(column, row));
+
+				final var symmetricIndex = symmetry.symmetricCell(index);
+				assertEquals(puzzle.empty(column, row),
+						puzzle.empty((symmetricIndex % 9) + 1, (symmetricIndex / 9) + 1));
+			}
+		}
+	}
+
+	@Test
+	public void testReproducible() {
+		final var options = GeneratorOptions.defaults().withSymmetry(Symmetry.ROTATIONAL).withSeed(7);
+		final var sequential = Generator.of(options.withParallelism(1)).generate(8);
+		final var parallel = Generator.of(options.withParallelism(4)).generate(8);
+		assertEquals(sequential, parallel);
+		assertEquals(8, sequential.size());
+		assertNotEquals(sequential.get(0), sequential.get(1));
+
+		assertEquals(Generator.of(options).puzzle(123), Generator.of(options.withParallelism(2)).puzzle(123));
+		assertNotEquals(sequential, Generator.of(options.withSeed(8)).generate(8));
+	}
+
+	@Test
+	public void testInvalidOptions() {
+		assertEquals("Invalid parallelism: 0", assertThrows(IllegalArgumentException.class,
+				() -> GeneratorOptions.defaults().withParallelism(0)).getMessage());
+		assertEquals("Invalid number of puzzles: -1", assertThrows(IllegalArgumentException.class,
+				() -> Generator.of(GeneratorOptions.defaults()).generate(-1)).getMessage());
+	}
+}
@@ -1,6 +1,8 @@
 package name.ulbricht.sudoku;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.IOException;
 import java.io.StringWriter;
@@ -8,13 +10,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 public final class GridFileTest {
 
 	@ParameterizedTest
-	@ValueSource(strings = { "empty", "single 1", "single 1 (solved)" })
+	@ValueSource(strings = { "empty", "single 1", "single 1 (solved)", "large 1" })
 	public void parseWriteFiles(final String fileName) throws IOException {
 		// parse the file
 		final var grid = GridFile.parse(resolveFileName(fileName));
@@ -32,6 +35,33 @@ public final class GridFileTest {
 		assertArrayEquals(expected, fileContent);
 	}
 
+	@Test
+	public void testParseLargeGrid() throws IOException {
+		final var grid = GridFile.parse(resolveFileName("large 1"));
+		assertEquals(4, grid.boxSize());
+		assertEquals(16, grid.size());
+		assertEquals(11, grid.get(1, 1));
+		assertEquals(16, grid.get(16, 3));
+		assertEquals(12, grid.get(16, 1));
+		assertEquals(0, grid.get(16, 16));
+	}
+
+	@Test
+	public void testParseInvalid() {
+		assertEquals("Unexpected line length: 10",
+				assertThrows(IOException.class, () -> GridFile.parse("..........")).getMessage());
+		assertEquals("Unexpected line length: 8", assertThrows(IOException.class,
+				() -> GridFile.parse(".........\n........")).getMessage());
+		assertEquals("Too few rows", assertThrows(IOException.class, () -> GridFile.parse("")).getMessage());
+		assertEquals("Too few rows",
+				assertThrows(IOException.class, () -> GridFile.parse(".........\n".repeat(8))).getMessage());
+		assertEquals("Too many rows",
+				assertThrows(IOException.class, () -> GridFile.parse("....\n".repeat(5))).getMessage());
+		assertEquals("Invalid value",
+				assertThrows(IOException.class, () -> GridFile.parse("A........\n" + ".........\n".repeat(8)))
+						.getMessage());
+	}
+
 	private static String[] loadFileContent(final String fileName) throws IOException {
 		return Files.lines(resolveFileName(fileName)).toArray(String[]::new);
 	}
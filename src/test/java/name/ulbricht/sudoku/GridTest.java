@@ -8,7 +8,10 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
@@ -339,6 +342,78 @@ public final class GridTest {
 		assertCandidates(grid, 9, 9, 2, 3, 5, 6, 7, 9);
 	}
 
+	@ParameterizedTest
+	@MethodSource("allColumnsAndRows")
+	public void testCandidateMasks(final int columnIndex, final int rowIndex) {
+		final var grid = Grid.ofLocked(Grids.INITIAL_PATTERN);
+		final var masks = grid.candidateMasks(new short[81]);
+
+		var expected = 0;
+		final var candidates = grid.candidates(columnIndex, rowIndex);
+		if (candidates != null) {
+			for (final var candidate : candidates)
+				expected |= 1 << (candidate - 1);
+		}
+
+		assertEquals(expected, grid.candidateMask(columnIndex, rowIndex));
+		assertEquals(expected, masks[(rowIndex - 1) * 9 + (columnIndex - 1)]);
+	}
+
+	@Test
+	public void testCandidateMasksInvalidLength() {
+		final var grid = Grid.empty();
+		assertEquals("Invalid array length: 80",
+				assertThrows(IllegalArgumentException.class, () -> grid.candidateMasks(new short[80])).getMessage());
+	}
+
+	@Test
+	public void testHashCode() {
+		assertEquals(Grid.of(Grids.INITIAL_PATTERN).hashCode(), Grid.of(Grids.INITIAL_PATTERN).hashCode());
+		assertEquals(Grid.ofLocked(Grids.INITIAL_PATTERN).hashCode(),
+				Grid.copyOf(Grid.ofLocked(Grids.INITIAL_PATTERN)).hashCode());
+		assertEquals(Grid.empty().hashCode(), Grid.empty().hashCode());
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	public void testPackUnpack(final boolean locked) {
+		final var grid = locked ? Grid.ofLocked(Grids.INITIAL_PATTERN) : Grid.of(Grids.INITIAL_PATTERN);
+		grid.set(9, 9, 9);
+
+		final var packed = grid.pack();
+		assertEquals(Grid.PACKED_LENGTH, packed.length);
+
+		final var unpacked = Grid.unpack(packed);
+		assertEquals(grid, unpacked);
+		assertEquals(locked, unpacked.locked(1, 1));
+		assertFalse(unpacked.locked(9, 9));
+		assertArrayEquals(grid.candidateMasks(new short[81]), unpacked.candidateMasks(new short[81]));
+
+		assertEquals(Grid.of(Grids.SOLVED_PATTERN), Grid.unpack(Grid.of(Grids.SOLVED_PATTERN).pack()));
+		assertEquals(Grid.empty(), Grid.unpack(new long[Grid.PACKED_LENGTH]));
+	}
+
+	@Test
+	public void testUnpackInvalid() {
+		assertEquals("Invalid array length: 6",
+				assertThrows(IllegalArgumentException.class, () -> Grid.unpack(new long[6])).getMessage());
+
+		final var invalidValue = new long[Grid.PACKED_LENGTH];
+		invalidValue[0] = 0xA;
+		assertEquals("Invalid value: 10",
+				assertThrows(IllegalArgumentException.class, () -> Grid.unpack(invalidValue)).getMessage());
+
+		// the lock flag of the last cell without a value
+		final var lockedEmpty = new long[Grid.PACKED_LENGTH];
+		lockedEmpty[6] = 1L << ((81 * 4 + 80) - 6 * 64);
+		assertThrows(IllegalArgumentException.class, () -> Grid.unpack(lockedEmpty));
+
+		// the value 1 in the first two cells
+		final var duplicate = new long[Grid.PACKED_LENGTH];
+		duplicate[0] = 0x11;
+		assertThrows(RuleViolationException.class, () -> Grid.unpack(duplicate));
+	}
+
 	private void assertCandidates(final Grid grid, final int columnIndex, final int rowIndex, final int... expected) {
 		final var candidates = grid.candidates(columnIndex, rowIndex);
 		assertArrayEquals(expected, candidates, String.format("cell %d,%d: expected: %s but was %s", columnIndex,
@@ -389,6 +464,65 @@ public final class GridTest {
 		assertEquals(expected, grid.toString());
 	}
 
+	@Test
+	public void testLargeGrid() {
+		final var grid = Grid.empty(4);
+		assertEquals(4, grid.boxSize());
+		assertEquals(16, grid.size());
+		assertNotEquals(Grid.empty(), grid);
+
+		grid.set(16, 16, 16);
+		grid.lock(1, 1, 16);
+		assertEquals(16, grid.get(1, 1));
+		assertTrue(grid.locked(1, 1));
+		assertThrows(RuleViolationException.class, () -> grid.set(2, 1, 16));
+		assertThrows(RuleViolationException.class, () -> grid.set(16, 1, 16));
+
+		final var candidates = grid.candidates(2, 1);
+		assertEquals(15, candidates.length);
+		assertEquals(15, candidates[14]);
+		assertEquals(0x7FFF, grid.candidateMask(2, 2));
+		final var masks = grid.candidateMasks(new int[256]);
+		assertEquals(0, masks[0]);
+		assertEquals(0x7FFF, masks[1]);
+		assertEquals(0xFFFF, masks[20]);
+		assertEquals(0x7FFF, grid.candidateMasks(new short[256])[1]);
+
+		assertEquals("Invalid column: 17",
+				assertThrows(IllegalArgumentException.class, () -> grid.get(17, 1)).getMessage());
+		assertEquals("Invalid row: 17",
+				assertThrows(IllegalArgumentException.class, () -> grid.get(1, 17)).getMessage());
+		assertEquals("Invalid value: 17",
+				assertThrows(IllegalArgumentException.class, () -> grid.set(2, 2, 17)).getMessage());
+		assertEquals("Cannot pack grid of size 16",
+				assertThrows(IllegalStateException.class, () -> grid.pack()).getMessage());
+		assertEquals("Too many values for short masks: 25", assertThrows(IllegalStateException.class,
+				() -> Grid.empty(5).candidateMasks(new short[625])).getMessage());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { -1, 0, 1, 6 })
+	public void testInvalidBoxSize(final int boxSize) {
+		assertEquals("Invalid box size: " + boxSize,
+				assertThrows(IllegalArgumentException.class, () -> Grid.empty(boxSize)).getMessage());
+	}
+
+	@Test
+	public void testToStringSmallGrid() {
+		final var grid = Grid.empty(2);
+		grid.lock(1, 1, 1);
+		grid.set(4, 4, 4);
+
+		final var expected = "---------------\n" //
+				+ "|<1> . | .  . |\n" //
+				+ "| .  . | .  . |\n" //
+				+ "---------------\n" //
+				+ "| .  . | .  . |\n" //
+				+ "| .  . | .  4 |\n" //
+				+ "---------------\n";
+		assertEquals(expected, grid.toString());
+	}
+
 	@Test
 	public void testCopy() {
 		final var grid = Grid.ofLocked(Grids.INITIAL_PATTERN);
@@ -396,4 +530,140 @@ public final class GridTest {
 
 		assertEquals(copy, grid);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testCopyRules() {
+		final var grid = Grid.ofLocked(Grids.INITIAL_PATTERN);
+		final var copy = Grid.copyOf(grid);
+
+		// the copy knows the values of the original
+		assertEquals("value 5 already exists",
+				assertThrows(RuleViolationException.class, () -> copy.set(2, 1, 5)).getMessage());
+		assertCandidates(copy, 2, 1, 4, 8, 9);
+
+		// changes of the copy do not affect the original
+		copy.set(2, 1, 9);
+		assertCandidates(copy, 2, 2, 3, 8);
+		assertCandidates(grid, 2, 2, 3, 8, 9);
+	}
+
+	@Test
+	public void testClearRules() {
+		final var grid = Grid.empty();
+		grid.set(1, 1, 3);
+		assertThrows(RuleViolationException.class, () -> grid.set(9, 1, 3));
+		assertThrows(RuleViolationException.class, () -> grid.set(1, 9, 3));
+		assertThrows(RuleViolationException.class, () -> grid.set(2, 2, 3));
+
+		// replacing the value releases the old value
+		grid.set(1, 1, 4);
+		grid.set(2, 2, 3);
+		assertThrows(RuleViolationException.class, () -> grid.set(9, 1, 4));
+
+		// clearing the cell releases the value
+		grid.clear(1, 1);
+		grid.set(9, 1, 4);
+
+		// a locked cell can be locked again with the same value
+		grid.lock(5, 5, 7);
+		grid.lock(5, 5, 7);
+		grid.unlock(5, 5);
+		assertThrows(RuleViolationException.class, () -> grid.set(5, 1, 7));
+	}
+
+	@Test
+	public void testListener() throws RuleViolationException {
+		final var grid = Grid.empty();
+		final var changes = new ArrayList<String>();
+		final GridListener listener = new GridListener() {
+
+			@Override
+			public void valueChanged(final Grid changedGrid, final int column, final int row, final int oldValue,
+					final int newValue) {
+				assertEquals(grid, changedGrid);
+				changes.add(String.format("%d,%d: %d -> %d", column, row, oldValue, newValue));
+			}
+
+			@Override
+			public void candidatesChanged(final Grid changedGrid, final int column, final int row, final int oldMask,
+					final int newMask) {
+				changes.add(String.format("%d,%d: %x -> %x", column, row, oldMask, newMask));
+			}
+		};
+		grid.addListener(listener);
+
+		// the cell itself and its 20 peers
+		grid.set(1, 1, 5);
+		assertEquals(22, changes.size());
+		assertEquals("1,1: 0 -> 5", changes.get(0));
+		assertEquals("1,1: 1ff -> 0", changes.get(1));
+		assertTrue(changes.contains("9,1: 1ff -> 1ef"));
+		assertTrue(changes.contains("1,9: 1ff -> 1ef"));
+		assertTrue(changes.contains("3,3: 1ff -> 1ef"));
+
+		// the cells of the last row and column still see the 5 in the corner
+		changes.clear();
+		grid.set(9, 9, 5);
+		changes.clear();
+		grid.lock(1, 1, 4);
+		assertTrue(changes.contains("1,1: 5 -> 4"));
+		assertTrue(changes.contains("2,1: 1ef -> 1f7"));
+		assertTrue(changes.contains("1,9: 1ef -> 1e7"));
+		assertTrue(changes.contains("9,1: 1ef -> 1e7"));
+
+		// nothing changes by locking again, unlocking or copying
+		changes.clear();
+		grid.lock(1, 1, 4);
+		grid.unlock(1, 1);
+		Grid.copyOf(grid).set(5, 5, 1);
+		assertEquals(List.of(), changes);
+
+		grid.removeListener(listener);
+		grid.clear(1, 1);
+		assertEquals(List.of(), changes);
+	}
+
+	@Test
+	public void testListenerCandidates() throws RuleViolationException {
+		// the reported changes must match a complete recomputation
+		final var grid = Grid.of(Grids.INITIAL_PATTERN);
+		final var masks = grid.candidateMasks(new int[81]);
+		final var values = new int[81];
+		for (var index = 0; index < 81; index++)
+			values[index] = grid.get((index % 9) + 1, (index / 9) + 1);
+
+		grid.addListener(new GridListener() {
+
+			@Override
+			public void valueChanged(final Grid changedGrid, final int column, final int row, final int oldValue,
+					final int newValue) {
+				final var index = ((row - 1) * 9) + (column - 1);
+				assertEquals(values[index], oldValue);
+				values[index] = newValue;
+			}
+
+			@Override
+			public void candidatesChanged(final Grid changedGrid, final int column, final int row, final int oldMask,
+					final int newMask) {
+				final var index = ((row - 1) * 9) + (column - 1);
+				assertEquals(masks[index], oldMask);
+				assertNotEquals(oldMask, newMask);
+				masks[index] = newMask;
+			}
+		});
+
+		final var random = new Random(5);
+		for (var i = 0; i < 2000; i++) {
+			final var column = random.nextInt(9) + 1;
+			final var row = random.nextInt(9) + 1;
+			try {
+				grid.set(column, row, random.nextInt(10));
+			} catch (final RuleViolationException ex) {
+				// not allowed by the rules
+			}
+			assertArrayEquals(grid.candidateMasks(new int[81]), masks);
+			for (var index = 0; index < 81; index++)
+				assertEquals(grid.get((index % 9) + 1, (index / 9) + 1), values[index]);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public final class GridWriterTest {
+
+	@Test
+	public void testWriteLine() throws IOException {
+		final var grids = List.of(Grids.load("single 1.sudoku"), Grids.load("single 2 (solved).sudoku"),
+				Grids.load("large 1.sudoku"));
+
+		final var expected = new StringWriter();
+		for (final var grid : grids)
+			CompactGridFile.write(expected, grid);
+
+		final var out = new ByteArrayOutputStream();
+		try (final var writer = GridWriter.of(out, GridFormat.LINE)) {
+			for (final var grid : grids)
+				writer.write(grid);
+			assertEquals(3, writer.count());
+		}
+		assertEquals(expected.toString(), out.toString(StandardCharsets.US_ASCII));
+	}
+
+	@Test
+	public void testWriteBlock() throws IOException {
+		final var grids = List.of(Grids.load("single 1.sudoku"), Grids.load("large 1.sudoku"));
+
+		final var out = new ByteArrayOutputStream();
+		try (final var writer = GridWriter.of(out, GridFormat.BLOCK)) {
+			grids.forEach(writer);
+		}
+
+		final var blocks = out.toString(StandardCharsets.US_ASCII)
+				.split(System.lineSeparator() + System.lineSeparator());
+		assertEquals(2, blocks.length);
+		for (var i = 0; i < blocks.length; i++) {
+			final var expected = new StringWriter();
+			GridFile.write(expected, grids.get(i));
+			assertEquals(expected.toString(), blocks[i].strip());
+			assertEquals(grids.get(i), GridFile.parse(blocks[i], false));
+		}
+	}
+
+	@Test
+	public void testSmallBuffer() throws IOException {
+		final var grids = Generator.of(GeneratorOptions.defaults().withSeed(3)).generate(100);
+
+		final var expected = new StringWriter();
+		for (final var grid : grids)
+			CompactGridFile.write(expected, grid);
+
+		final var out = new ByteArrayOutputStream();
+		try (final var writer = GridWriter.of(out, GridFormat.LINE, 0)) {
+			for (final var grid : grids)
+				writer.write(grid);
+			writer.flush();
+			assertEquals(expected.toString(), out.toString(StandardCharsets.US_ASCII));
+		}
+	}
+
+	@Test
+	public void testSolutions(@TempDir final Path tempDir) throws IOException {
+		final var grid = Grids.load("single 1 (solved).sudoku");
+		for (var index = 0; index < 27; index++)
+			grid.remove(index);
+
+		final var file = tempDir.resolve("solutions.txt");
+		final var solver = Solver.of(grid, SolverOptions.defaults().withParallelism(1));
+		try (final var writer = GridWriter.open(file, GridFormat.LINE)) {
+			solver.solve(writer);
+			assertEquals(solver.solutionCount(), writer.count());
+		}
+
+		try (final var solutions = CompactGridFile.parse(file)) {
+			final var list = solutions.collect(Collectors.toList());
+			assertEquals(solver.solutionCount(), list.size());
+			assertEquals(list.size(), list.stream().distinct().count());
+			for (final var solution : list)
+				assertEquals(true, solution.solved());
+		}
+		assertEquals(Files.size(file), solver.solutionCount() * (81L + System.lineSeparator().length()));
+	}
+}
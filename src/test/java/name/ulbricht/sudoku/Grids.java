@@ -34,6 +34,15 @@ final class Grids {
 			379146852
 			""";
 
+	static Grid unsolvable() throws RuleViolationException {
+		// the last cell of the first row can only be a 9, but the column has a 9
+		final var grid = Grid.empty();
+		for (var column = 1; column <= 8; column++)
+			grid.set(column, 1, column);
+		grid.set(9, 2, 9);
+		return grid;
+	}
+
 	static Grid load(final String fileName) throws IOException {
 		final var path = Paths.get(System.getProperty("user.dir"), "files", fileName);
 		return Grid.of(Files.readString(path));
@@ -0,0 +1,109 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public final class HintFinderTest {
+
+	@Test
+	public void testHiddenSingle() throws RuleViolationException {
+		// the 1 fits only into the first cell of the first box
+		final var grid = Grid.empty();
+		grid.set(4, 2, 1);
+		grid.set(7, 3, 1);
+		grid.set(2, 4, 1);
+		grid.set(3, 7, 1);
+
+		final var hint = new HintFinder().find(grid);
+		assertEquals(1, hint.column());
+		assertEquals(1, hint.row());
+		assertEquals(1, hint.value());
+		assertEquals(Technique.HIDDEN_SINGLE, hint.technique());
+		assertEquals(4, hint.supportingCells());
+		assertTrue(hint.supporting(4, 2));
+		assertTrue(hint.supporting(3, 7));
+		assertFalse(hint.supporting(1, 1));
+	}
+
+	@Test
+	public void testNakedSingle() throws RuleViolationException {
+		// the last cell of the grid sees all values except the 9
+		final var grid = Grid.empty();
+		for (var value = 1; value <= 4; value++)
+			grid.set(value, 9, value);
+		for (var value = 5; value <= 8; value++)
+			grid.set(9, value - 4, value);
+
+		final var hint = new HintFinder().find(grid);
+		assertEquals(9, hint.column());
+		assertEquals(9, hint.row());
+		assertEquals(9, hint.value());
+		assertEquals(Technique.NAKED_SINGLE, hint.technique());
+		assertEquals(8, hint.supportingCells());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 2, 3, 4 })
+	public void testSolve(final int number) throws IOException {
+		final var grid = Grids.load(String.format("single %s.sudoku", number));
+		final var solvedGrid = Grids.load(String.format("single %s (solved).sudoku", number));
+		final var hardest = new Rater().rate(grid).hardest();
+
+		// following the hints solves the grid with the same techniques as the rater
+		final var finder = new HintFinder();
+		Hint hint;
+		while ((hint = finder.find(grid)) != null) {
+			assertEquals(solvedGrid.get(hint.column(), hint.row()), hint.value(), hint.toString());
+			assertTrue(hint.technique().compareTo(hardest) <= 0, hint.toString());
+			assertTrue(hint.supportingCells() > 0, hint.toString());
+			grid.place(((hint.row() - 1) * 9) + (hint.column() - 1), hint.value());
+		}
+		assertEquals(solvedGrid, grid);
+	}
+
+	@Test
+	public void testGeneratedPuzzles() {
+		final var finder = new HintFinder();
+		final var rater = new Rater();
+		for (final var puzzle : Generator.of(GeneratorOptions.defaults().withSeed(9)).generate(30)) {
+			final var solver = Solver.of(puzzle, SolverOptions.defaults().withParallelism(1));
+			solver.solve();
+			final var solution = solver.solutions().get(0);
+			final var rating = rater.rate(puzzle);
+
+			Hint hint;
+			var techniques = Technique.HIDDEN_SINGLE;
+			while ((hint = finder.find(puzzle)) != null) {
+				final var index = ((hint.row() - 1) * 9) + (hint.column() - 1);
+				assertEquals(solution.value(index), hint.value());
+				puzzle.place(index, hint.value());
+				if (hint.technique().compareTo(techniques) > 0)
+					techniques = hint.technique();
+			}
+			assertEquals(rating.solved(), puzzle.solved());
+			if (rating.solved())
+				assertTrue(techniques.compareTo(rating.hardest()) <= 0);
+		}
+	}
+
+	@Test
+	public void testNoHint() throws IOException, RuleViolationException {
+		final var finder = new HintFinder();
+		assertNull(finder.find(Grids.load("single 1 (solved).sudoku")));
+
+		assertNull(finder.find(Grids.unsolvable()));
+
+		assertNotNull(finder.find(Grid.copyOf(Grids.load("single 1.sudoku"))));
+		assertThrows(IllegalArgumentException.class, () -> finder.find(Grids.load("large 1.sudoku")));
+	}
+}
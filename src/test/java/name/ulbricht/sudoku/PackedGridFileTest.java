@@ -0,0 +1,64 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public final class PackedGridFileTest {
+
+	@Test
+	public void testWriteParseFile(@TempDir final Path directory) throws IOException {
+		final var expected = List.of(Grid.ofLocked(Grids.INITIAL_PATTERN), Grid.of(Grids.INITIAL_PATTERN),
+				Grid.of(Grids.SOLVED_PATTERN), Grid.empty());
+
+		final var file = directory.resolve("grids.bin");
+		PackedGridFile.write(file, expected.stream());
+		assertEquals(8 + expected.size() * Grid.PACKED_LENGTH * Long.BYTES, Files.size(file));
+
+		try (final var grids = PackedGridFile.parse(file)) {
+			final var actual = grids.collect(Collectors.toList());
+			assertEquals(expected, actual);
+			assertTrue(actual.get(0).locked(1, 1));
+		}
+	}
+
+	@Test
+	public void testParseEmpty() throws IOException {
+		final var out = new ByteArrayOutputStream();
+		PackedGridFile.write(out, Stream.empty());
+		assertEquals(0, PackedGridFile.parse(new ByteArrayInputStream(out.toByteArray())).count());
+	}
+
+	@Test
+	public void testParseInvalidHeader() {
+		assertEquals("Invalid file header", assertThrows(IOException.class,
+				() -> PackedGridFile.parse(new ByteArrayInputStream(new byte[8]))).getMessage());
+		assertEquals("Unexpected end of file", assertThrows(IOException.class,
+				() -> PackedGridFile.parse(new ByteArrayInputStream(new byte[4]))).getMessage());
+	}
+
+	@Test
+	public void testParseTruncated() throws IOException {
+		final var out = new ByteArrayOutputStream();
+		PackedGridFile.write(out, Stream.of(Grid.of(Grids.SOLVED_PATTERN), Grid.of(Grids.INITIAL_PATTERN)));
+		final var data = out.toByteArray();
+
+		final var grids = PackedGridFile.parse(new ByteArrayInputStream(Arrays.copyOf(data, data.length - 1)));
+		assertEquals("Grid 2: Unexpected end of file",
+				assertThrows(UncheckedIOException.class, () -> grids.count()).getMessage());
+	}
+}
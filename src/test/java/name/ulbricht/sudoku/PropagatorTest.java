@@ -0,0 +1,105 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public final class PropagatorTest {
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 2, 3, 4 })
+	public void testPropagate(final int number) throws IOException {
+		final var grid = Grids.load(String.format("single %s.sudoku", number));
+		final var solvedGrid = Grids.load(String.format("single %s (solved).sudoku", number));
+
+		final var propagator = new Propagator(() -> false);
+		final var placed = propagator.propagate(grid);
+		assertTrue(placed > 0);
+
+		// every filled cell must match the solution
+		var filled = 0;
+		for (var index = 0; index < 81; index++) {
+			if (grid.value(index) != 0) {
+				assertEquals(solvedGrid.value(index), grid.value(index));
+				filled++;
+			}
+		}
+		assertTrue(filled >= placed);
+	}
+
+	@Test
+	public void testSinglesOnly() {
+		final var grid = Grid.of(Grids.SOLVED_PATTERN);
+		final var solvedGrid = Grid.copyOf(grid);
+
+		// a single empty cell in each row is a naked single
+		for (var row = 1; row <= 9; row++)
+			grid.clear(row, row);
+
+		assertEquals(9, new Propagator(() -> false).propagate(grid));
+		assertEquals(solvedGrid, grid);
+	}
+
+	@Test
+	public void testContradiction() {
+		// the value 1 cannot be placed in the first box
+		final var grid = Grid.empty();
+		grid.set(4, 1, 1);
+		grid.set(7, 2, 1);
+		grid.set(1, 4, 1);
+		grid.set(2, 7, 1);
+		grid.set(3, 3, 2);
+
+		assertEquals(-1, new Propagator(() -> false).propagate(grid));
+	}
+
+	@Test
+	public void testCancelled() {
+		assertEquals(-1, new Propagator(() -> true).propagate(Grid.empty()));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 2, 3, 4 })
+	public void testUndoTrail(final int number) throws IOException {
+		final var grid = Grids.load(String.format("single %s.sudoku", number));
+		final var originalGrid = Grid.copyOf(grid);
+		final var originalMasks = new short[81];
+		originalGrid.candidateMasks(originalMasks);
+
+		final var trail = new Trail();
+		final var mark = trail.mark();
+		final var placed = new Propagator(() -> false).propagate(grid, trail);
+		assertEquals(placed, trail.mark() - mark);
+
+		trail.undo(grid, mark);
+		assertEquals(mark, trail.mark());
+		assertEquals(originalGrid, grid);
+
+		final var masks = new short[81];
+		grid.candidateMasks(masks);
+		assertArrayEquals(originalMasks, masks);
+	}
+
+	@Test
+	public void testUndoTrailContradiction() {
+		final var grid = Grid.empty();
+		grid.set(4, 1, 1);
+		grid.set(7, 2, 1);
+		grid.set(1, 4, 1);
+		grid.set(2, 7, 1);
+		grid.set(3, 3, 2);
+		final var originalGrid = Grid.copyOf(grid);
+
+		final var trail = new Trail();
+		assertEquals(-1, new Propagator(() -> false).propagate(grid, trail));
+
+		trail.undo(grid, 0);
+		assertEquals(originalGrid, grid);
+	}
+}
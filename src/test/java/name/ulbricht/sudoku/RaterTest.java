@@ -0,0 +1,75 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public final class RaterTest {
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 2, 3, 4 })
+	public void testSingleSolution(final int number) throws IOException {
+		final var grid = Grids.load(String.format("single %s.sudoku", number));
+		final var solvedGrid = Grids.load(String.format("single %s (solved).sudoku", number));
+
+		final var rater = new Rater();
+		final var rating = rater.rate(grid);
+		assertTrue(rating.solved());
+		assertTrue(rating.score() > 0);
+		assertEquals(0, rating.count(Technique.BACKTRACKING));
+		for (var index = 0; index < 81; index++)
+			assertEquals(solvedGrid.value(index), rater.value(index));
+	}
+
+	@Test
+	public void testSolvedGrid() throws IOException {
+		final var rating = new Rater().rate(Grids.load("single 1 (solved).sudoku"));
+		assertTrue(rating.solved());
+		assertEquals(Technique.HIDDEN_SINGLE, rating.hardest());
+		assertEquals(0, rating.score());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "empty", "multiple 1" })
+	public void testBacktracking(final String fileName) throws IOException {
+		final var rating = new Rater().rate(Grids.load(fileName + ".sudoku"));
+		assertFalse(rating.solved());
+		assertEquals(Technique.BACKTRACKING, rating.hardest());
+		assertEquals(1, rating.count(Technique.BACKTRACKING));
+	}
+
+	@Test
+	public void testGeneratedPuzzles() {
+		final var rater = new Rater();
+		final var puzzles = Generator.of(GeneratorOptions.defaults().withSeed(3)).generate(50);
+		for (final var puzzle : puzzles) {
+			final var rating = rater.rate(puzzle);
+
+			// the techniques must never remove the candidate of the solution
+			final var solver = Solver.of(puzzle, SolverOptions.defaults().withParallelism(1));
+			solver.solve();
+			final var solution = solver.solutions().get(0);
+			for (var index = 0; index < 81; index++) {
+				final var value = rater.value(index);
+				if (value != 0 || rating.solved())
+					assertEquals(solution.value(index), value);
+			}
+
+			var score = 0;
+			for (final var technique : Technique.values())
+				score += rating.count(technique) * technique.weight();
+			assertEquals(score, rating.score());
+			assertTrue(rating.count(rating.hardest()) > 0 || rating.score() == 0);
+		}
+
+		// a reused rater produces the same ratings as new raters
+		for (final var puzzle : puzzles)
+			assertEquals(new Rater().rate(puzzle).toString(), rater.rate(puzzle).toString());
+	}
+}
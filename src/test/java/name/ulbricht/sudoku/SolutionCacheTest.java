@@ -0,0 +1,108 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public final class SolutionCacheTest {
+
+	@ParameterizedTest
+	@EnumSource(Engine.class)
+	public void testEquivalentGrids(final Engine engine) throws IOException {
+		final var cache = new SolutionCache(10);
+		final var options = SolverOptions.defaults().withEngine(engine).withParallelism(1).withCache(cache);
+		final var grid = Grids.load("single 1.sudoku");
+
+		final var solver = Solver.of(grid, options);
+		solver.solve();
+		assertEquals(1, solver.solutionCount());
+		assertEquals(Grids.load("single 1 (solved).sudoku"), solver.solutions().get(0));
+		assertEquals(0, cache.hits());
+		assertEquals(1, cache.misses());
+
+		final var random = new Random(1);
+		for (var i = 1; i <= 10; i++) {
+			final var transform = CanonicalFormTest.randomTransform(random);
+			final var cachedSolver = Solver.of(transform.apply(grid), options);
+			cachedSolver.solve();
+			assertEquals(1, cachedSolver.solutionCount());
+			assertEquals(transform.apply(solver.solutions().get(0)), cachedSolver.solutions().get(0));
+			assertEquals(i, cache.hits());
+			assertEquals(1, cache.misses());
+		}
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testLockedGivens() {
+		final var cache = new SolutionCache(10);
+		final var options = SolverOptions.defaults().withParallelism(1).withCache(cache);
+
+		final var unlocked = Solver.of(Grid.of(Grids.INITIAL_PATTERN), options.withUniquenessCheck());
+		unlocked.solve();
+		final var locked = Solver.of(Grid.ofLocked(Grids.INITIAL_PATTERN), options.withUniquenessCheck());
+		locked.solve();
+		assertEquals(1, cache.hits());
+
+		final var expected = Solver.of(Grid.ofLocked(Grids.INITIAL_PATTERN), options.withCache(null));
+		expected.solve();
+		assertEquals(expected.solutions(), locked.solutions());
+	}
+
+	@Test
+	public void testMaxSolutions() throws IOException {
+		final var cache = new SolutionCache(10);
+		final var grid = Grids.load("multiple 1.sudoku");
+		final var options = SolverOptions.defaults().withParallelism(1).withCache(cache);
+
+		// the first solution is not enough for more solutions
+		final var first = Solver.of(grid, options.withMaxSolutions(1));
+		first.solve();
+		assertEquals(1, first.solutionCount());
+
+		final var all = Solver.of(grid, options);
+		all.solve();
+		assertEquals(2, all.solutionCount());
+		assertEquals(0, cache.hits());
+
+		// all solutions are known now
+		final var cached = Solver.of(grid, options.withMaxSolutions(5));
+		cached.solve();
+		assertEquals(new HashSet<>(all.solutions()), new HashSet<>(cached.solutions()));
+		final var single = Solver.of(grid, options.withMaxSolutions(1));
+		single.solve();
+		assertEquals(1, single.solutionCount());
+		assertEquals(2, cache.hits());
+	}
+
+	@Test
+	public void testCapacity() throws IOException {
+		final var cache = new SolutionCache(2);
+		final var options = SolverOptions.defaults().withParallelism(1).withCache(cache);
+		for (final var fileName : new String[] { "single 1.sudoku", "single 2.sudoku", "single 3.sudoku",
+				"single 1.sudoku" })
+			Solver.of(Grids.load(fileName), options).solve();
+
+		// the first grid was evicted by the third grid
+		assertEquals(2, cache.size());
+		assertEquals(0, cache.hits());
+		assertEquals(4, cache.misses());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.misses());
+	}
+
+	@Test
+	public void testInvalidCapacity() {
+		assertEquals("Invalid capacity: 0",
+				assertThrows(IllegalArgumentException.class, () -> new SolutionCache(0)).getMessage());
+	}
+}
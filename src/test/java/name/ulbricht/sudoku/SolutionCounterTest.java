@@ -0,0 +1,80 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public final class SolutionCounterTest {
+
+	@ParameterizedTest
+	@CsvSource({ "single 1, 1", "single 2, 1", "single 3, 1", "single 4, 1", "multiple 1, 2",
+			"single 1 (solved), 1" })
+	public void testCount(final String fileName, final long expectedCount) throws IOException {
+		final var grid = Grids.load(fileName + ".sudoku");
+		for (final var parallelism : new int[] { 1, 4 }) {
+			final var counter = SolutionCounter.of(grid,
+					SolverOptions.defaults().withParallelism(parallelism).withSequentialCutoff(0));
+			assertEquals(expectedCount, counter.count());
+		}
+	}
+
+	@Test
+	public void testNoSolution() throws RuleViolationException {
+		assertEquals(0, SolutionCounter.of(Grids.unsolvable(), SolverOptions.defaults()).count());
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "1, 1 2 3", "2, 1 2 4 5", "3, 1 4 5 7 8", "4, 1 2 4 5 7" })
+	public void testManySolutions(final int number, final String rows) throws IOException, RuleViolationException {
+		final var grid = clearRows(Grids.load(String.format("single %s (solved).sudoku", number)), rows);
+
+		final var enumeration = Solver.of(grid,
+				SolverOptions.defaults().withEngine(Engine.DLX).withMaxSolutions(Integer.MAX_VALUE));
+		final var expectedCount = new long[1];
+		enumeration.solve(solution -> expectedCount[0]++);
+		assertTrue(expectedCount[0] > 100);
+
+		for (final var parallelism : new int[] { 1, 4 }) {
+			final var counter = SolutionCounter.of(grid,
+					SolverOptions.defaults().withParallelism(parallelism).withSequentialCutoff(20));
+			assertEquals(expectedCount[0], counter.count());
+		}
+	}
+
+	@Test
+	public void testReusedStates() throws IOException, RuleViolationException {
+		// many fillings of the first band leave the same values in the columns
+		final var grid = clearRows(Grids.load("single 1 (solved).sudoku"), "1 4 5 7 8");
+
+		final var counter = SolutionCounter.of(grid, SolverOptions.defaults().withParallelism(1));
+		assertEquals(37804, counter.count());
+		assertTrue(counter.reusedStates() > 0);
+		assertEquals(37804, counter.count());
+	}
+
+	@Test
+	public void testLargeGrid() throws IOException {
+		final var grid = Grids.load("large 1.sudoku");
+
+		final var enumeration = Solver.of(grid,
+				SolverOptions.defaults().withEngine(Engine.DLX).withMaxSolutions(Integer.MAX_VALUE));
+		final var expectedCount = new long[1];
+		enumeration.solve(solution -> expectedCount[0]++);
+
+		assertEquals(expectedCount[0], SolutionCounter.of(grid, SolverOptions.defaults().withParallelism(1)).count());
+		assertEquals(expectedCount[0], SolutionCounter.of(grid, SolverOptions.defaults().withParallelism(4)).count());
+	}
+
+	private static Grid clearRows(final Grid grid, final String rows) throws RuleViolationException {
+		for (final var row : rows.split(" ")) {
+			for (var column = 1; column <= 9; column++)
+				grid.clear(column, Integer.parseInt(row));
+		}
+		return grid;
+	}
+}
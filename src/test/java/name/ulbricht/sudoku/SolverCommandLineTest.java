@@ -3,9 +3,11 @@ package name.ulbricht.sudoku;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.Locale;
 
 import org.junit.jupiter.api.AfterEach;
@@ -39,6 +41,14 @@ public final class SolverCommandLineTest {
 		assertOutStartsWith(String.format("Number of solutions: 1%nSolution time: "));
 	}
 
+	@Test
+	public void testSolveFileStatistics() {
+		assertEquals(0, commandLine.run("--statistics", "files/single 1.sudoku"));
+		assertOutStartsWith(String.format("Number of solutions: 1%nSolution time: "));
+		assertOutContains(String.format("%nNodes visited: "));
+		assertOutContains(String.format("%nBranching time: "));
+	}
+
 	@Test
 	public void testNoFileSpecified() {
 		assertEquals(1, commandLine.run());
@@ -47,8 +57,120 @@ public final class SolverCommandLineTest {
 
 	@Test
 	public void testUnexpectedArgument() {
-		assertEquals(1, commandLine.run("grid.sudoku", "fast"));
-		assertOutEquals(String.format("Unexpected argument: fast%n"));
+		assertEquals(1, commandLine.run("grid.sudoku", "--fast"));
+		assertOutEquals(String.format("Unexpected argument: --fast%n"));
+	}
+
+	@Test
+	public void testInvalidThreads() {
+		assertEquals(1, commandLine.run("--threads=none", "grid.sudoku"));
+		assertOutEquals(String.format("Invalid number of threads: --threads=none%n"));
+	}
+
+	@Test
+	public void testGenerate() throws IOException {
+		assertEquals(0, commandLine.run("--generate=3", "--symmetry=mirror", "--seed=5", "--threads=2"));
+		final var lines = this.outContent.toString().split("\\r?\\n");
+		assertEquals(3, lines.length);
+		for (final var line : lines)
+			CompactGridFile.parseLine(line, true);
+	}
+
+	@Test
+	public void testGenerateStatistics() {
+		assertEquals(0, commandLine.run("--generate=1", "--statistics"));
+		assertOutContains(String.format("%n# Number of puzzles: 1%n# Total time: "));
+	}
+
+	@Test
+	public void testInvalidGenerateOptions() {
+		assertEquals(1, commandLine.run("--generate=many"));
+		assertEquals(1, commandLine.run("--generate=1", "--symmetry=diagonal"));
+		assertEquals(1, commandLine.run("--generate=1", "--seed=x"));
+		assertEquals(1, commandLine.run("--generate=1", "grid.sudoku"));
+		assertOutEquals(String.format("Invalid number of puzzles: --generate=many%n"
+				+ "Invalid symmetry: --symmetry=diagonal%nInvalid seed: --seed=x%nUnexpected argument: grid.sudoku%n"));
+	}
+
+	@Test
+	public void testInvalidServerOptions() {
+		assertEquals(1, commandLine.run("--server=http"));
+		assertEquals(1, commandLine.run("--server=65536"));
+		assertEquals(1, commandLine.run("--server=0", "grid.sudoku"));
+		assertOutEquals(String.format("Invalid port: --server=http%nInvalid port: --server=65536%n"
+				+ "Unexpected argument: grid.sudoku%n"));
+	}
+
+	@Test
+	public void testSolveMultipleFiles() {
+		assertEquals(0, commandLine.run("--threads=2", "files/single 1.sudoku", "files/multiple 1.sudoku"));
+		assertOutStartsWith(String.format("files/single 1.sudoku%nNumber of solutions: 1%nSolution time: "));
+		assertOutContains(String.format("files/multiple 1.sudoku%nNumber of solutions: 2%nSolution time: "));
+		assertOutContains(String.format("Number of puzzles: 2%nNumber of failures: 0%nTotal time: "));
+	}
+
+	@Test
+	public void testSolveGlob() {
+		assertEquals(0, commandLine.run("--quiet", "files/single ?.sudoku"));
+		assertOutStartsWith(String.format("Number of puzzles: 4%nNumber of failures: 0%nTotal time: "));
+	}
+
+	@Test
+	public void testSolveGlobDirectory() {
+		assertEquals(0, commandLine.run("--quiet", "fil?s/single ?.sudoku"));
+		assertOutStartsWith(String.format("Number of puzzles: 4%nNumber of failures: 0%nTotal time: "));
+	}
+
+	@Test
+	public void testSolveGlobBackslash() {
+		assertEquals(0, commandLine.run("--quiet", "files\\single ?.sudoku"));
+		assertOutStartsWith(String.format("Number of puzzles: 4%nNumber of failures: 0%nTotal time: "));
+	}
+
+	@Test
+	public void testNoMatchingFiles() {
+		assertEquals(1, commandLine.run("*?:"));
+		assertOutStartsWith("No files match: *?:");
+	}
+
+	@Test
+	public void testSolveDirectory() {
+		assertEquals(1, commandLine.run("--quiet", "files"));
+		assertOutStartsWith(String.format("%s%nCould not read the Sudoku file: ", Path.of("files", "invalid.sudoku")));
+		assertOutContains(String.format("%nNumber of failures: 1%n"));
+	}
+
+	@Test
+	public void testSolveStandardInput() {
+		final var in = new ByteArrayInputStream(Grids.INITIAL_PATTERN.getBytes());
+		assertEquals(0, new SolverCommandLine(in, this.out, locale).run("-"));
+		assertOutStartsWith(String.format("Number of solutions: 1%nSolution time: "));
+	}
+
+	@Test
+	public void testSolveStandardInputLines() {
+		final var line = "5.1.3..6....4..2..7.........28..........7...1.......3.16.2.............4......8..";
+		final var in = new ByteArrayInputStream(
+				String.format("# grids%n%s%n%n%s%n%s%n", line, line.substring(1), line).getBytes());
+		assertEquals(1, new SolverCommandLine(in, this.out, locale).run("--quiet", "-"));
+		assertOutStartsWith(
+				String.format("-:4%nCould not read the Sudoku file: Unexpected line length: 80%nNumber of puzzles: 3%n"
+						+ "Number of failures: 1%n"));
+	}
+
+	@Test
+	public void testSolveStandardInputAndFile() {
+		final var in = new ByteArrayInputStream(Grids.INITIAL_PATTERN.getBytes());
+		assertEquals(0, new SolverCommandLine(in, this.out, locale).run("-", "files/multiple 1.sudoku"));
+		assertOutStartsWith(String.format("-%nNumber of solutions: 1%nSolution time: "));
+		assertOutContains(String.format("Number of puzzles: 2%nNumber of failures: 0%n"));
+	}
+
+	@Test
+	public void testDuplicateStandardInput() {
+		final var in = new ByteArrayInputStream(Grids.INITIAL_PATTERN.getBytes());
+		assertEquals(1, new SolverCommandLine(in, this.out, locale).run("-", "-"));
+		assertOutEquals(String.format("The standard input can be specified only once.%n"));
 	}
 
 	@Test
@@ -59,7 +181,7 @@ public final class SolverCommandLineTest {
 
 	@Test
 	public void testInvalidFileName() {
-		assertEquals(1, commandLine.run("*?:"));
+		assertEquals(1, commandLine.run("invalid\0.sudoku"));
 		assertOutStartsWith("Invalid file name: ");
 	}
 
@@ -73,6 +195,12 @@ public final class SolverCommandLineTest {
 		assertEquals(expected, this.outContent.toString());
 	}
 
+	private void assertOutContains(final String expected) {
+		final var actual = this.outContent.toString();
+		assertTrue(actual.contains(expected),
+				String.format("Expected to contain \"%s\" but was \"%s\"", expected, actual));
+	}
+
 	private void assertOutStartsWith(final String expected) {
 		final var actual = this.outContent.toString();
 		assertTrue(actual.startsWith(expected),
@@ -0,0 +1,213 @@
+package name.ulbricht.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class SolverServerTest {
+
+	private static final String INITIAL_LINE = "5.1.3..6....4..2..7.........28..........7...1.......3.16.2.............4......8..";
+	private static final String INVALID_LINE = "12345678.........9" + ".".repeat(63);
+
+	/**
+	 * A grid with 16 by 16 cells without solution, which takes the brute force
+	 * search much longer than the tests.
+	 */
+	private static final String SLOW_LINE = "......7.......F.................9A.....G...4..7.......3.56....B......"
+			+ "......D.......9.B.....1...5.B...F............G...4.......C..456......DE.........................."
+			+ ".....6.8....1...........D...........E..........D......4......F1....5......G...............";
+
+	private SolverServer server;
+	private HttpClient client;
+
+	@BeforeEach
+	public void startServer() throws IOException {
+		this.server = SolverServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+				SolverOptions.defaults().withParallelism(1), 2);
+		this.client = HttpClient.newHttpClient();
+	}
+
+	@AfterEach
+	public void stopServer() {
+		this.server.close();
+	}
+
+	@Test
+	public void testSolve() throws Exception {
+		final var response = post("/solve", readFile("single 1.sudoku"));
+		assertEquals(200, response.statusCode());
+		assertEquals(readFile("single 1 (solved).sudoku").strip(), response.body().strip());
+	}
+
+	@Test
+	public void testSolveLine() throws Exception {
+		final var response = post("/solve", "# compact\n" + INITIAL_LINE + "\n");
+		assertEquals(200, response.statusCode());
+
+		final var solution = CompactGridFile.parseLine(response.body().strip(), false);
+		assertEquals(Grids.load("single 1 (solved).sudoku"), solution);
+	}
+
+	@Test
+	public void testSolveLargeGrid() throws Exception {
+		final var response = post("/solve", readFile("large 1.sudoku"));
+		assertEquals(200, response.statusCode());
+		assertEquals(16, GridFile.parse(response.body().strip()).size());
+	}
+
+	@Test
+	public void testUnique() throws Exception {
+		assertEquals("unique", post("/unique", readFile("single 2.sudoku")).body().strip());
+		assertEquals("multiple", post("/unique", readFile("multiple 1.sudoku")).body().strip());
+		assertEquals("none", post("/unique", INVALID_LINE).body().strip());
+	}
+
+	@Test
+	public void testBatch() throws Exception {
+		final var response = post("/batch", "# three grids\n" + INITIAL_LINE + "\n" + INVALID_LINE + "\n"
+				+ INITIAL_LINE.replace('.', '0') + "\n");
+		assertEquals(200, response.statusCode());
+
+		final var lines = response.body().split("\\r?\\n");
+		assertEquals(3, lines.length);
+		final var solved = Grids.load("single 1 (solved).sudoku");
+		assertEquals(solved, CompactGridFile.parseLine(lines[0], false));
+		assertEquals("# no solution", lines[1]);
+		assertEquals(solved, CompactGridFile.parseLine(lines[2], false));
+	}
+
+	@Test
+	public void testBatchInvalidLine() throws Exception {
+		final var response = post("/batch", INITIAL_LINE + "\n" + INITIAL_LINE.substring(1) + "\n");
+		final var lines = response.body().split("\\r?\\n");
+		assertEquals(2, lines.length);
+		assertEquals("# Line 2: Unexpected line length: 80", lines[1]);
+	}
+
+	@Test
+	public void testBatchContinuesAfterInvalidLine() throws Exception {
+		final var response = post("/batch",
+				INITIAL_LINE + "\n" + INITIAL_LINE.replace('.', 'x') + "\n# comment\n" + INITIAL_LINE + "\n");
+		final var lines = response.body().split("\\r?\\n");
+		assertEquals(3, lines.length);
+		final var solved = Grids.load("single 1 (solved).sudoku");
+		assertEquals(solved, CompactGridFile.parseLine(lines[0], false));
+		assertEquals("# Line 2: Invalid value", lines[1]);
+		assertEquals(solved, CompactGridFile.parseLine(lines[2], false));
+	}
+
+	@Test
+	public void testTimeLimit() throws Exception {
+		this.server.close();
+		this.server = SolverServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+				SolverOptions.defaults().withParallelism(1), 1, Duration.ofMillis(200));
+
+		final var response = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> post("/solve", SLOW_LINE));
+		assertEquals(503, response.statusCode());
+		assertEquals("Time limit exceeded", response.body());
+
+		final var batch = assertTimeoutPreemptively(Duration.ofSeconds(10),
+				() -> post("/batch", INITIAL_LINE + "\n" + SLOW_LINE + "\n" + INITIAL_LINE + "\n"));
+		final var lines = batch.body().split("\\r?\\n");
+		assertEquals(2, lines.length);
+		assertEquals("# Time limit exceeded", lines[1]);
+
+		// the thread is free again after the cancelled searches
+		assertEquals(200, post("/solve", INITIAL_LINE).statusCode());
+	}
+
+	@Test
+	public void testBusy() throws Exception {
+		this.server.close();
+		this.server = SolverServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+				SolverOptions.defaults().withParallelism(1), 1);
+
+		// one request is solved, four are waiting, the others are rejected
+		final var responses = new ArrayList<CompletableFuture<HttpResponse<String>>>();
+		for (var i = 0; i < 8; i++) {
+			final var request = HttpRequest.newBuilder(uri("/solve")).POST(BodyPublishers.ofString(SLOW_LINE)).build();
+			responses.add(this.client.sendAsync(request, BodyHandlers.ofString()));
+		}
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+			var rejected = 0;
+			while (rejected < 3) {
+				rejected = 0;
+				for (final var response : responses) {
+					if (response.isDone() && response.get().statusCode() == 503) {
+						assertEquals("Server busy", response.get().body());
+						rejected++;
+					}
+				}
+				Thread.sleep(10);
+			}
+		});
+		assertEquals(5, responses.stream().filter(response -> !response.isDone()).count());
+
+		// closing cancels the running search instead of waiting for it
+		assertTimeoutPreemptively(Duration.ofSeconds(5), this.server::close);
+	}
+
+	@Test
+	public void testErrors() throws Exception {
+		assertEquals(422, post("/solve", INVALID_LINE).statusCode());
+
+		final var invalid = post("/solve", INITIAL_LINE.substring(1));
+		assertEquals(400, invalid.statusCode());
+		assertEquals("Unexpected line length: 80", invalid.body());
+
+		assertEquals(404, post("/solver", INITIAL_LINE).statusCode());
+		assertEquals(413, post("/solve", ".".repeat(100_000)).statusCode());
+
+		final var get = this.client.send(HttpRequest.newBuilder(uri("/solve")).GET().build(),
+				BodyHandlers.ofString());
+		assertEquals(405, get.statusCode());
+		assertEquals("POST", get.headers().firstValue("Allow").orElse(null));
+	}
+
+	@Test
+	public void testInvalidConcurrency() {
+		assertEquals("Invalid concurrency: 0", assertThrows(IllegalArgumentException.class,
+				() -> SolverServer.start(new InetSocketAddress(0), SolverOptions.defaults(), 0)).getMessage());
+	}
+
+	@Test
+	public void testInvalidTimeout() {
+		assertEquals("Invalid timeout: PT0S", assertThrows(IllegalArgumentException.class,
+				() -> SolverServer.start(new InetSocketAddress(0), SolverOptions.defaults(), 1, Duration.ZERO))
+						.getMessage());
+	}
+
+	private HttpResponse<String> post(final String path, final String body) throws Exception {
+		final var request = HttpRequest.newBuilder(uri(path)).POST(BodyPublishers.ofString(body)).build();
+		return this.client.send(request, BodyHandlers.ofString(StandardCharsets.UTF_8));
+	}
+
+	private URI uri(final String path) {
+		final var address = this.server.address();
+		return URI.create("http://" + address.getHostString() + ":" + address.getPort() + path);
+	}
+
+	private static String readFile(final String fileName) throws IOException {
+		return Files.readString(Path.of(System.getProperty("user.dir"), "files", fileName));
+	}
+}
@@ -1,23 +1,44 @@
 package name.ulbricht.sudoku;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
 
 public final class SolverTest {
 
+	public static Stream<Arguments> allEnginesAndNumbers() {
+		final var builder = Stream.<Arguments>builder();
+		for (final var engine : Engine.values()) {
+			for (var number = 1; number <= 4; number++) {
+				builder.add(Arguments.of(engine, number));
+			}
+		}
+		return builder.build();
+	}
+
 	@ParameterizedTest
-	@ValueSource(ints = { 1, 2, 3, 4 })
-	public void testUniqueSolution(final int number) throws IOException {
+	@MethodSource("allEnginesAndNumbers")
+	public void testUniqueSolution(final Engine engine, final int number) throws IOException {
 		final var initialGrid = Grids.load(String.format("single %s.sudoku", number));
 		final var solvedGrid = Grids.load(String.format("single %s (solved).sudoku", number));
 
-		final var solver = Solver.of(initialGrid);
+		final var solver = Solver.of(initialGrid, engine);
 		solver.solve();
 
 		assertEquals(1, solver.solutionCount());
@@ -27,13 +48,14 @@ public final class SolverTest {
 		assertEquals(solvedGrid, solutions.get(0));
 	}
 
-	@Test
-	public void testMultipleSolutions() throws IOException {
+	@ParameterizedTest
+	@EnumSource(Engine.class)
+	public void testMultipleSolutions(final Engine engine) throws IOException {
 		final var initialGrid = Grids.load("multiple 1.sudoku");
 		final var solvedGrid1 = Grids.load("multiple 1 (solved 1).sudoku");
 		final var solvedGrid2 = Grids.load("multiple 1 (solved 2).sudoku");
 
-		final var solver = Solver.of(initialGrid);
+		final var solver = Solver.of(initialGrid, engine);
 		solver.solve();
 
 		assertEquals(2, solver.solutionCount());
@@ -43,15 +65,228 @@ public final class SolverTest {
 		assertTrue(solutions.contains(solvedGrid2));
 	}
 
-	@Test
-	public void testManySolutions() throws IOException {
+	@ParameterizedTest
+	@EnumSource(Engine.class)
+	public void testManySolutions(final Engine engine) throws IOException {
 		final var initialGrid = Grids.load("multiple 2.sudoku");
 
-		final var solver = Solver.of(initialGrid);
+		final var solver = Solver.of(initialGrid, engine);
 		solver.solve();
 
 		assertEquals(10, solver.solutionCount());
 		final var solutions = solver.solutions();
 		assertEquals(10, solutions.size());
 	}
-}
\ No newline at end of file
+
+	@ParameterizedTest
+	@CsvSource({ "1, 0", "1, 81", "4, 0", "4, 81" })
+	public void testParallelismAndCutoff(final int parallelism, final int sequentialCutoff) throws IOException {
+		final var initialGrid = Grids.load("multiple 1.sudoku");
+		final var options = SolverOptions.defaults().withParallelism(parallelism)
+				.withSequentialCutoff(sequentialCutoff);
+
+		final var solver = Solver.of(initialGrid, options);
+		solver.solve();
+
+		assertEquals(2, solver.solutionCount());
+		assertEquals(Grids.load("multiple 1.sudoku"), initialGrid);
+	}
+
+	@Test
+	public void testSharedPool() throws IOException {
+		final var options = SolverOptions.defaults().withParallelism(3).withSequentialCutoff(0);
+		for (var i = 0; i < 10; i++) {
+			final var solver = Solver.of(Grids.load("multiple 1.sudoku"), options);
+			solver.solve();
+			assertEquals(2, solver.solutionCount());
+		}
+		assertTrue(SolverPools.of(3) == SolverPools.of(3));
+		assertTrue(SolverPools.of(3).getPoolSize() <= 3);
+
+		// a grid with few empty cells is solved by the calling thread
+		final var caller = Thread.currentThread();
+		final var threads = new ArrayList<Thread>();
+		Solver.of(Grids.load("single 1.sudoku"), SolverOptions.defaults().withParallelism(3).withSequentialCutoff(81))
+				.solve(solution -> threads.add(Thread.currentThread()));
+		assertEquals(List.of(caller), threads);
+	}
+
+	@ParameterizedTest
+	@EnumSource(Engine.class)
+	public void testMaxSolutions(final Engine engine) throws IOException {
+		final var initialGrid = Grids.load("multiple 2.sudoku");
+
+		final var solver = Solver.of(initialGrid, SolverOptions.defaults().withEngine(engine).withMaxSolutions(25));
+		solver.solve();
+
+		assertEquals(25, solver.solutionCount());
+		assertEquals(25, solver.solutions().stream().distinct().count());
+	}
+
+	@ParameterizedTest
+	@MethodSource("allEnginesAndNumbers")
+	public void testUniquenessCheck(final Engine engine, final int number) throws IOException {
+		final var options = SolverOptions.defaults().withEngine(engine).withUniquenessCheck();
+
+		final var unique = Solver.of(Grids.load(String.format("single %s.sudoku", number)), options);
+		unique.solve();
+		assertTrue(unique.unique());
+
+		final var multiple = Solver.of(Grids.load(String.format("multiple %s.sudoku", (number % 2) + 1)), options);
+		multiple.solve();
+		assertEquals(2, multiple.solutionCount());
+		assertFalse(multiple.unique());
+	}
+
+	@ParameterizedTest
+	@EnumSource(Engine.class)
+	public void testCancel(final Engine engine) throws IOException {
+		final var initialGrid = Grids.load("empty.sudoku");
+
+		final var solver = Solver.of(initialGrid,
+				SolverOptions.defaults().withEngine(engine).withMaxSolutions(Integer.MAX_VALUE));
+		final var thread = new Thread(solver::solve);
+		thread.start();
+		solver.cancel();
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+			// keep cancelling in case the search has been started after the first call
+			while (thread.isAlive()) {
+				solver.cancel();
+				thread.join(10);
+			}
+		});
+	}
+
+	@ParameterizedTest
+	@EnumSource(Engine.class)
+	public void testSolveConsumer(final Engine engine) throws IOException {
+		final var initialGrid = Grids.load("multiple 1.sudoku");
+		for (final var options : List.of(SolverOptions.defaults().withEngine(engine),
+				SolverOptions.defaults().withEngine(engine).withCache(new SolutionCache(10)))) {
+			final var solver = Solver.of(initialGrid, options);
+			final var solutions = new ArrayList<Grid>();
+			solver.solve(solutions::add);
+
+			assertEquals(2, solver.solutionCount());
+			assertTrue(solver.solutions().isEmpty());
+			assertEquals(Set.of(Grids.load("multiple 1 (solved 1).sudoku"),
+					Grids.load("multiple 1 (solved 2).sudoku")), Set.copyOf(solutions));
+		}
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "BRUTE_FORCE, 1", "BRUTE_FORCE, 4", "DLX, 1" })
+	public void testSolveConsumerCancel(final Engine engine, final int parallelism) throws IOException {
+		final var solver = Solver.of(Grids.load("empty.sudoku"), SolverOptions.defaults().withEngine(engine)
+				.withParallelism(parallelism).withMaxSolutions(Integer.MAX_VALUE));
+		final var solutions = new ArrayList<Grid>();
+		solver.solve(solution -> {
+			assertTrue(solution.solved());
+			solutions.add(solution);
+			if (solutions.size() == 5)
+				solver.cancel();
+		});
+
+		assertEquals(5, solutions.size());
+		assertEquals(5, solver.solutionCount());
+		assertEquals(5, Set.copyOf(solutions).size());
+	}
+
+	@ParameterizedTest
+	@EnumSource(Engine.class)
+	public void testSolveConsumerException(final Engine engine) throws IOException {
+		final var solver = Solver.of(Grids.load("empty.sudoku"),
+				SolverOptions.defaults().withEngine(engine).withMaxSolutions(Integer.MAX_VALUE));
+		assertEquals("stop", assertThrows(IllegalStateException.class, () -> solver.solve(solution -> {
+			throw new IllegalStateException("stop");
+		})).getMessage());
+	}
+
+	@ParameterizedTest
+	@MethodSource("allEnginesAndNumbers")
+	public void testStatistics(final Engine engine, final int number) throws IOException {
+		final var initialGrid = Grids.load(String.format("single %s.sudoku", number));
+
+		final var solver = Solver.of(initialGrid, engine);
+		assertEquals(0, solver.statistics().nodes());
+		solver.solve();
+
+		final var statistics = solver.statistics();
+		assertTrue(statistics.nodes() > 0);
+		assertTrue(statistics.singles() + statistics.guesses() > 0);
+		assertTrue(statistics.gridCopies() > 0);
+		assertTrue(statistics.wallTime() > 0);
+		assertEquals(statistics.wallTime() / 1_000_000, solver.solutionTime());
+	}
+
+	@ParameterizedTest
+	@EnumSource(Engine.class)
+	public void testLargeGrid(final Engine engine) throws IOException {
+		final var grid = Grids.load("large 1.sudoku");
+		final var solver = Solver.of(grid, SolverOptions.defaults().withEngine(engine).withMaxSolutions(1));
+		solver.solve();
+
+		assertEquals(1, solver.solutionCount());
+		assertValidSolution(grid, solver.solutions().get(0));
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "100", "200", "625" })
+	public void testLargeGridCutoff(final int sequentialCutoff) throws IOException {
+		// the grid has 131 empty cells, so only the cutoff of 100 searches in parallel
+		final var grid = Grids.load("large 1.sudoku");
+		final var solver = Solver.of(grid,
+				SolverOptions.defaults().withParallelism(4).withSequentialCutoff(sequentialCutoff).withMaxSolutions(1));
+		solver.solve();
+
+		assertEquals(1, solver.solutionCount());
+		assertValidSolution(grid, solver.solutions().get(0));
+	}
+
+	@ParameterizedTest
+	@EnumSource(Engine.class)
+	public void testHugeGrid(final Engine engine) {
+		// a solved grid with 25 by 25 cells, every third cell is empty
+		final var grid = Grid.empty(5);
+		for (var row = 0; row < 25; row++) {
+			for (var column = 0; column < 25; column++) {
+				if (((row * 25) + column) % 3 != 0)
+					grid.lock(column + 1, row + 1, ((((row % 5) * 5) + (row / 5) + column) % 25) + 1);
+			}
+		}
+
+		final var solver = Solver.of(grid, SolverOptions.defaults().withEngine(engine).withMaxSolutions(1));
+		solver.solve();
+
+		assertEquals(1, solver.solutionCount());
+		assertValidSolution(grid, solver.solutions().get(0));
+	}
+
+	private static void assertValidSolution(final Grid grid, final Grid solution) {
+		assertTrue(solution.solved());
+
+		// the values are set again to check the rules
+		final var size = grid.size();
+		final var check = Grid.empty(grid.boxSize());
+		for (var row = 1; row <= size; row++) {
+			for (var column = 1; column <= size; column++) {
+				if (!grid.empty(column, row))
+					assertEquals(grid.get(column, row), solution.get(column, row));
+				assertEquals(grid.locked(column, row), solution.locked(column, row));
+				check.set(column, row, solution.get(column, row));
+			}
+		}
+	}
+
+	@Test
+	public void testInvalidOptions() {
+		final var options = SolverOptions.defaults();
+
+		assertEquals("Invalid parallelism: 0",
+				assertThrows(IllegalArgumentException.class, () -> options.withParallelism(0)).getMessage());
+		assertEquals("Invalid sequential cutoff: 626",
+				assertThrows(IllegalArgumentException.class, () -> options.withSequentialCutoff(626)).getMessage());
+		assertEquals("Invalid maximum number of solutions: 0",
+				assertThrows(IllegalArgumentException.class, () -> options.withMaxSolutions(0)).getMessage());
+	}
+}